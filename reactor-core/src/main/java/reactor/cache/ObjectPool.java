@@ -0,0 +1,315 @@
+/*
+ * Copyright (c) 2011-2013 GoPivotal, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package reactor.cache;
+
+import reactor.function.Supplier;
+import reactor.util.Assert;
+
+import java.lang.ref.WeakReference;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * A lock-free {@link Cache} that never blocks. Each thread first allocates from, and deallocates into, a small cache
+ * of its own, and only goes to a shared stack when that is empty or full. When the shared stack is empty too, a new
+ * object is created using the {@link Supplier} straight away.
+ * <p>
+ * The pool is preloaded with {@code lowWatermark} objects and keeps at most {@code highWatermark} idle objects in its
+ * shared stack; objects that are deallocated beyond that are left to the garbage collector. Two threads racing on the
+ * same slot of the shared stack may also cause an object to be dropped, or an allocation to miss, but never cause an
+ * object to be handed out twice.
+ * </p>
+ * <p>
+ * The {@link #getHits() hit}, {@link #getMisses() miss} and {@link #getDrops() drop} counts are kept per thread, so
+ * they are cheap to maintain but only approximate while the pool is in use. The caches of threads that have died
+ * are pruned whenever another thread starts using the pool and whenever the counts are read: the objects they held
+ * go back to the shared stack, and their counts are kept.
+ * </p>
+ *
+ * @param <T>
+ * 		The type of objects held by the pool
+ */
+public class ObjectPool<T> implements Cache<T> {
+
+	private static final int DEFAULT_THREAD_LOCAL_CAPACITY = 16;
+
+	private final List<LocalCache>        localCaches  = new CopyOnWriteArrayList<LocalCache>();
+	private final ThreadLocal<LocalCache> localCache   = new ThreadLocal<LocalCache>() {
+		@Override
+		protected LocalCache initialValue() {
+			prune();
+			LocalCache cache = new LocalCache(threadLocalCapacity);
+			localCaches.add(cache);
+			return cache;
+		}
+	};
+	private final AtomicInteger           top          = new AtomicInteger();
+	private final AtomicLong              prunedHits   = new AtomicLong();
+	private final AtomicLong              prunedMisses = new AtomicLong();
+	private final AtomicLong              prunedDrops  = new AtomicLong();
+	private final Supplier<T>             supplier;
+	private final int                     lowWatermark;
+	private final int                     highWatermark;
+	private final int                     threadLocalCapacity;
+	private final AtomicReferenceArray<T> shared;
+
+	/**
+	 * Create a new {@literal ObjectPool}.
+	 *
+	 * @param supplier
+	 * 		The Supplier used to create objects
+	 * @param lowWatermark
+	 * 		The number of objects to preload the pool with
+	 * @param highWatermark
+	 * 		The maximum number of idle objects to keep in the shared stack
+	 */
+	public ObjectPool(Supplier<T> supplier, int lowWatermark, int highWatermark) {
+		this(supplier, lowWatermark, highWatermark, DEFAULT_THREAD_LOCAL_CAPACITY);
+	}
+
+	/**
+	 * Create a new {@literal ObjectPool}.
+	 *
+	 * @param supplier
+	 * 		The Supplier used to create objects
+	 * @param lowWatermark
+	 * 		The number of objects to preload the pool with
+	 * @param highWatermark
+	 * 		The maximum number of idle objects to keep in the shared stack
+	 * @param threadLocalCapacity
+	 * 		The maximum number of idle objects to keep in each thread's own cache, may be {@literal 0}
+	 */
+	public ObjectPool(Supplier<T> supplier, int lowWatermark, int highWatermark, int threadLocalCapacity) {
+		Assert.notNull(supplier, "Supplier cannot be null.");
+		Assert.isTrue(highWatermark > 0, "High watermark must be greater than 0");
+		Assert.isTrue(lowWatermark >= 0 && lowWatermark <= highWatermark,
+		              "Low watermark must be between 0 and the high watermark");
+		Assert.isTrue(threadLocalCapacity >= 0, "Thread-local capacity cannot be negative");
+		this.supplier = supplier;
+		this.lowWatermark = lowWatermark;
+		this.highWatermark = highWatermark;
+		this.threadLocalCapacity = threadLocalCapacity;
+		this.shared = new AtomicReferenceArray<T>(highWatermark);
+
+		for(int i = 0; i < lowWatermark; i++) {
+			shared.set(i, supplier.get());
+		}
+		top.set(lowWatermark);
+	}
+
+	@Override
+	public T allocate() {
+		LocalCache cache = localCache.get();
+		T obj = cache.pop();
+		if(null == obj) {
+			obj = pop();
+		}
+		if(null != obj) {
+			cache.hits++;
+			return obj;
+		}
+		cache.misses++;
+		return supplier.get();
+	}
+
+	@Override
+	public void deallocate(T obj) {
+		if(null == obj) {
+			return;
+		}
+		LocalCache cache = localCache.get();
+		if(!cache.push(obj) && !push(obj)) {
+			cache.drops++;
+		}
+	}
+
+	/**
+	 * Get the number of objects the pool was preloaded with.
+	 *
+	 * @return the low watermark
+	 */
+	public int getLowWatermark() {
+		return lowWatermark;
+	}
+
+	/**
+	 * Get the maximum number of idle objects kept in the shared stack.
+	 *
+	 * @return the high watermark
+	 */
+	public int getHighWatermark() {
+		return highWatermark;
+	}
+
+	/**
+	 * Get the number of idle objects currently in the shared stack, not counting those held by threads' own caches.
+	 *
+	 * @return the number of idle objects in the shared stack
+	 */
+	public int size() {
+		return top.get();
+	}
+
+	/**
+	 * Get the number of allocations that were satisfied by a pooled object.
+	 *
+	 * @return the number of hits
+	 */
+	public long getHits() {
+		prune();
+		long hits = prunedHits.get();
+		for(LocalCache cache : localCaches) {
+			hits += cache.hits;
+		}
+		return hits;
+	}
+
+	/**
+	 * Get the number of allocations that had to create a new object.
+	 *
+	 * @return the number of misses
+	 */
+	public long getMisses() {
+		prune();
+		long misses = prunedMisses.get();
+		for(LocalCache cache : localCaches) {
+			misses += cache.misses;
+		}
+		return misses;
+	}
+
+	/**
+	 * Get the number of deallocated objects that were discarded because the pool was full.
+	 *
+	 * @return the number of drops
+	 */
+	public long getDrops() {
+		prune();
+		long drops = prunedDrops.get();
+		for(LocalCache cache : localCaches) {
+			drops += cache.drops;
+		}
+		return drops;
+	}
+
+	/**
+	 * Get the ratio of allocations that were satisfied by a pooled object.
+	 *
+	 * @return the hit rate, between {@literal 0} and {@literal 1}
+	 */
+	public double getHitRate() {
+		long hits = getHits();
+		long total = hits + getMisses();
+		return (total > 0 ? (double)hits / total : 0d);
+	}
+
+	@Override
+	public String toString() {
+		return "ObjectPool{" +
+				"lowWatermark=" + lowWatermark +
+				", highWatermark=" + highWatermark +
+				", size=" + size() +
+				", hits=" + getHits() +
+				", misses=" + getMisses() +
+				", drops=" + getDrops() +
+				'}';
+	}
+
+	int getLocalCacheCount() {
+		return localCaches.size();
+	}
+
+	private void prune() {
+		for(LocalCache cache : localCaches) {
+			Thread owner = cache.owner.get();
+			if((null == owner || !owner.isAlive()) && localCaches.remove(cache)) {
+				// The owner is gone, so nothing else touches the cache any more
+				prunedHits.addAndGet(cache.hits);
+				prunedMisses.addAndGet(cache.misses);
+				long drops = cache.drops;
+				T obj;
+				while(null != (obj = cache.pop())) {
+					if(!push(obj)) {
+						drops++;
+					}
+				}
+				prunedDrops.addAndGet(drops);
+			}
+		}
+	}
+
+	private T pop() {
+		for(; ; ) {
+			int t = top.get();
+			if(t == 0) {
+				return null;
+			}
+			if(top.compareAndSet(t, t - 1)) {
+				// May still be null if the thread that pushed into this slot hasn't written it yet
+				return shared.getAndSet(t - 1, null);
+			}
+		}
+	}
+
+	private boolean push(T obj) {
+		for(; ; ) {
+			int t = top.get();
+			if(t >= highWatermark) {
+				return false;
+			}
+			if(top.compareAndSet(t, t + 1)) {
+				shared.set(t, obj);
+				return true;
+			}
+		}
+	}
+
+	private final class LocalCache {
+		private final WeakReference<Thread> owner = new WeakReference<Thread>(Thread.currentThread());
+		private final Object[] items;
+		private       int      size;
+		private volatile long hits;
+		private volatile long misses;
+		private volatile long drops;
+
+		private LocalCache(int capacity) {
+			this.items = new Object[capacity];
+		}
+
+		@SuppressWarnings("unchecked")
+		private T pop() {
+			if(size == 0) {
+				return null;
+			}
+			T obj = (T)items[--size];
+			items[size] = null;
+			return obj;
+		}
+
+		private boolean push(T obj) {
+			if(size == items.length) {
+				return false;
+			}
+			items[size++] = obj;
+			return true;
+		}
+	}
+
+}
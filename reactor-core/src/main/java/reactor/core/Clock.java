@@ -0,0 +1,115 @@
+/*
+ * Copyright (c) 2011-2013 GoPivotal, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package reactor.core;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A coarse, cached clock. Every running {@link HashWheelTimer} stores the current time into this clock on each tick,
+ * so reading it is no more expensive than reading a volatile field. The cached time is only as accurate as the
+ * resolution of the timers driving it (50ms for the default {@link Environment#getRootTimer() root timer}), which is
+ * good enough for timestamping events and the like, but not for measuring timeouts.
+ * <p>
+ * When no timer is running, or when the clock has been switched to precise mode, either by calling {@link
+ * #setPrecise(boolean)} or by setting the {@code reactor.clock.precise} system property to {@literal true}, reads fall
+ * back to {@link System#currentTimeMillis()} and {@link System#nanoTime()}.
+ * </p>
+ */
+public abstract class Clock {
+
+	private static final AtomicInteger DRIVERS = new AtomicInteger();
+	private static final AtomicLong    MILLIS  = new AtomicLong(System.currentTimeMillis());
+	private static final AtomicLong    NANOS   = new AtomicLong(System.nanoTime());
+
+	private static volatile boolean precise = Boolean.getBoolean("reactor.clock.precise");
+
+	private Clock() {
+	}
+
+	/**
+	 * Get the current time in milliseconds, as cached by the last timer tick.
+	 *
+	 * @return the cached time in milliseconds
+	 *
+	 * @see System#currentTimeMillis()
+	 */
+	public static long currentTimeMillis() {
+		return (isCached() ? MILLIS.get() : System.currentTimeMillis());
+	}
+
+	/**
+	 * Get the current value of the high-resolution time source, as cached by the last timer tick. Like {@link
+	 * System#nanoTime()}, the value is only meaningful when compared to another value obtained from this method.
+	 *
+	 * @return the cached time in nanoseconds
+	 *
+	 * @see System#nanoTime()
+	 */
+	public static long nanoTime() {
+		return (isCached() ? NANOS.get() : System.nanoTime());
+	}
+
+	/**
+	 * Switch this clock between precise mode, in which every read goes to the system clock, and cached mode.
+	 *
+	 * @param precise
+	 * 		{@literal true} to always read the system clock, {@literal false} to use the cached time
+	 */
+	public static void setPrecise(boolean precise) {
+		Clock.precise = precise;
+	}
+
+	/**
+	 * Whether this clock always reads the system clock or not.
+	 *
+	 * @return {@literal true} if in precise mode, {@literal false} otherwise
+	 */
+	public static boolean isPrecise() {
+		return precise;
+	}
+
+	private static boolean isCached() {
+		return !precise && DRIVERS.get() > 0;
+	}
+
+	static void register() {
+		update(System.currentTimeMillis(), System.nanoTime());
+		DRIVERS.incrementAndGet();
+	}
+
+	static void unregister() {
+		DRIVERS.decrementAndGet();
+	}
+
+	static void update(long currentTimeMillis, long nanoTime) {
+		// Several timers may be driving the clock, so never let it run backwards
+		for(; ; ) {
+			long current = NANOS.get();
+			if(nanoTime - current <= 0 || NANOS.compareAndSet(current, nanoTime)) {
+				break;
+			}
+		}
+		for(; ; ) {
+			long current = MILLIS.get();
+			if(currentTimeMillis <= current || MILLIS.compareAndSet(current, currentTimeMillis)) {
+				break;
+			}
+		}
+	}
+
+}
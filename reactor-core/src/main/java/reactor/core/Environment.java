@@ -22,21 +22,35 @@ import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Properties;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicReference;
 
 import com.lmax.disruptor.BlockingWaitStrategy;
+import com.lmax.disruptor.BusySpinWaitStrategy;
+import com.lmax.disruptor.SleepingWaitStrategy;
+import com.lmax.disruptor.WaitStrategy;
+import com.lmax.disruptor.YieldingWaitStrategy;
 import com.lmax.disruptor.dsl.ProducerType;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import reactor.convert.StandardConverters;
 import reactor.core.configuration.ConfigurationReader;
 import reactor.core.configuration.DispatcherConfiguration;
 import reactor.core.configuration.DispatcherType;
 import reactor.core.configuration.PropertiesConfigurationReader;
 import reactor.core.configuration.ReactorConfiguration;
+import reactor.core.configuration.WaitStrategyType;
+import reactor.event.dispatch.AdaptiveWaitStrategy;
 import reactor.event.dispatch.BlockingQueueDispatcher;
 import reactor.event.dispatch.Dispatcher;
+import reactor.event.dispatch.IdleStrategies;
+import reactor.event.dispatch.IdleStrategy;
+import reactor.event.dispatch.MpscEventLoopDispatcher;
 import reactor.event.dispatch.RingBufferDispatcher;
 import reactor.event.dispatch.SynchronousDispatcher;
 import reactor.event.dispatch.ThreadPoolExecutorDispatcher;
+import reactor.event.dispatch.VirtualThreadDispatcher;
+import reactor.event.dispatch.WorkStealingDispatcher;
 import reactor.filter.Filter;
 import reactor.filter.RoundRobinFilter;
 import reactor.util.LinkedMultiValueMap;
@@ -71,9 +85,16 @@ public class Environment implements Iterable<Map.Entry<String, List<Dispatcher>>
 	 */
 	public static final int PROCESSORS = Runtime.getRuntime().availableProcessors();
 
+	private static final boolean FORK_JOIN_AVAILABLE = isClassAvailable("java.util.concurrent.ForkJoinPool");
+
+	private static final int DEFAULT_BLOCKING_CONCURRENCY = 10000;
+	private static final int MAX_BLOCKING_POOL_SIZE       = 256;
+
 	private static final String DEFAULT_DISPATCHER_NAME = "__default-dispatcher";
 	private static final String SYNC_DISPATCHER_NAME    = "sync";
 
+	private final Logger log = LoggerFactory.getLogger(Environment.class);
+
 	private final Properties env;
 
 	private final HashWheelTimer           timer            = new HashWheelTimer();
@@ -126,12 +147,25 @@ public class Environment implements Iterable<Map.Entry<String, List<Dispatcher>>
 				for(int i = 0; i < size; i++) {
 					addDispatcher(dispatcherConfiguration.getName(), createBlockingQueueDispatcher(dispatcherConfiguration));
 				}
+			} else if(DispatcherType.MPSC_EVENT_LOOP == dispatcherConfiguration.getType()) {
+				int size = getSize(dispatcherConfiguration, 0);
+				for(int i = 0; i < size; i++) {
+					addDispatcher(dispatcherConfiguration.getName(), createMpscEventLoopDispatcher(dispatcherConfiguration));
+				}
 			} else if(DispatcherType.RING_BUFFER == dispatcherConfiguration.getType()) {
 				addDispatcher(dispatcherConfiguration.getName(), createRingBufferDispatcher(dispatcherConfiguration));
 			} else if(DispatcherType.SYNCHRONOUS == dispatcherConfiguration.getType()) {
+				warnIfWaitStrategyConfigured(dispatcherConfiguration);
 				addDispatcher(dispatcherConfiguration.getName(), new SynchronousDispatcher());
 			} else if(DispatcherType.THREAD_POOL_EXECUTOR == dispatcherConfiguration.getType()) {
+				warnIfWaitStrategyConfigured(dispatcherConfiguration);
 				addDispatcher(dispatcherConfiguration.getName(), createThreadPoolExecutorDispatcher(dispatcherConfiguration));
+			} else if(DispatcherType.WORK_STEALING == dispatcherConfiguration.getType()) {
+				warnIfWaitStrategyConfigured(dispatcherConfiguration);
+				addDispatcher(dispatcherConfiguration.getName(), createWorkStealingDispatcher(dispatcherConfiguration));
+			} else if(DispatcherType.BLOCKING == dispatcherConfiguration.getType()) {
+				warnIfWaitStrategyConfigured(dispatcherConfiguration);
+				addDispatcher(dispatcherConfiguration.getName(), createBlockingDispatcher(dispatcherConfiguration));
 			}
 		}
 
@@ -145,18 +179,103 @@ public class Environment implements Iterable<Map.Entry<String, List<Dispatcher>>
 		return new ThreadPoolExecutorDispatcher(size, backlog, dispatcherConfiguration.getName());
 	}
 
+	private Dispatcher createWorkStealingDispatcher(DispatcherConfiguration dispatcherConfiguration) {
+		if(!FORK_JOIN_AVAILABLE) {
+			log.warn("Dispatcher '{}' needs a ForkJoinPool, which requires Java 7, using a thread pool executor instead",
+			         dispatcherConfiguration.getName());
+			return createThreadPoolExecutorDispatcher(dispatcherConfiguration);
+		}
+		int size = getSize(dispatcherConfiguration, 0);
+
+		return new WorkStealingDispatcher(dispatcherConfiguration.getName(), size);
+	}
+
+	private Dispatcher createBlockingDispatcher(DispatcherConfiguration dispatcherConfiguration) {
+		Integer size = dispatcherConfiguration.getSize();
+		int concurrency = (null != size && size > 0 ? size : DEFAULT_BLOCKING_CONCURRENCY);
+		if(!VirtualThreadDispatcher.isAvailable()) {
+			int poolSize = Math.min(concurrency, MAX_BLOCKING_POOL_SIZE);
+			log.warn("Dispatcher '{}' needs virtual threads, which require Java 21, using a thread pool executor of {} " +
+					         "threads instead", dispatcherConfiguration.getName(), poolSize);
+			return new ThreadPoolExecutorDispatcher(poolSize,
+			                                        getBacklog(dispatcherConfiguration, 128),
+			                                        dispatcherConfiguration.getName());
+		}
+
+		return new VirtualThreadDispatcher(dispatcherConfiguration.getName(), concurrency);
+	}
+
 	private RingBufferDispatcher createRingBufferDispatcher(DispatcherConfiguration dispatcherConfiguration) {
 		int backlog = getBacklog(dispatcherConfiguration, 1024);
 		return new RingBufferDispatcher(dispatcherConfiguration.getName(),
 		                                backlog,
 		                                ProducerType.MULTI,
-		                                new BlockingWaitStrategy());
+		                                createWaitStrategy(dispatcherConfiguration));
 	}
 
 	private BlockingQueueDispatcher createBlockingQueueDispatcher(DispatcherConfiguration dispatcherConfiguration) {
 		int backlog = getBacklog(dispatcherConfiguration, 128);
 
-		return new BlockingQueueDispatcher(dispatcherConfiguration.getName(), backlog);
+		// A null IdleStrategy makes the dispatcher block on its queue
+		return new BlockingQueueDispatcher(dispatcherConfiguration.getName(),
+		                                   backlog,
+		                                   createIdleStrategy(dispatcherConfiguration, null));
+	}
+
+	private MpscEventLoopDispatcher createMpscEventLoopDispatcher(DispatcherConfiguration dispatcherConfiguration) {
+		int backlog = getBacklog(dispatcherConfiguration, 1024);
+
+		return new MpscEventLoopDispatcher(dispatcherConfiguration.getName(),
+		                                   backlog,
+		                                   createIdleStrategy(dispatcherConfiguration, IdleStrategies.parking()));
+	}
+
+	private WaitStrategy createWaitStrategy(DispatcherConfiguration dispatcherConfiguration) {
+		WaitStrategyType type = dispatcherConfiguration.getWaitStrategy();
+		if(WaitStrategyType.SLEEPING == type) {
+			return new SleepingWaitStrategy();
+		} else if(WaitStrategyType.YIELDING == type) {
+			return new YieldingWaitStrategy();
+		} else if(WaitStrategyType.BUSY_SPIN == type) {
+			return new BusySpinWaitStrategy();
+		} else if(WaitStrategyType.ADAPTIVE == type) {
+			return new AdaptiveWaitStrategy();
+		} else {
+			return new BlockingWaitStrategy();
+		}
+	}
+
+	private IdleStrategy createIdleStrategy(DispatcherConfiguration dispatcherConfiguration,
+	                                        IdleStrategy blockingStrategy) {
+		WaitStrategyType type = dispatcherConfiguration.getWaitStrategy();
+		if(WaitStrategyType.SLEEPING == type) {
+			return IdleStrategies.parking(1, TimeUnit.MILLISECONDS);
+		} else if(WaitStrategyType.YIELDING == type) {
+			return IdleStrategies.yielding();
+		} else if(WaitStrategyType.BUSY_SPIN == type) {
+			return IdleStrategies.spin();
+		} else if(WaitStrategyType.ADAPTIVE == type) {
+			return IdleStrategies.adaptive();
+		} else {
+			return blockingStrategy;
+		}
+	}
+
+	private static boolean isClassAvailable(String className) {
+		try {
+			Class.forName(className);
+			return true;
+		} catch(ClassNotFoundException e) {
+			return false;
+		}
+	}
+
+	private void warnIfWaitStrategyConfigured(DispatcherConfiguration dispatcherConfiguration) {
+		if(null != dispatcherConfiguration.getWaitStrategy()) {
+			log.warn("The wait strategy of Dispatcher '{}' is ignored as its type is {}",
+			         dispatcherConfiguration.getName(),
+			         dispatcherConfiguration.getType());
+		}
 	}
 
 	private int getBacklog(DispatcherConfiguration dispatcherConfiguration, int defaultBacklog) {
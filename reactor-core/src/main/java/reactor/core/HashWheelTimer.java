@@ -2,6 +2,7 @@ package reactor.core;
 
 import java.util.UUID;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -43,6 +44,16 @@ import reactor.util.UUIDUtils;
  * #schedule(reactor.function.Consumer, long, java.util.concurrent.TimeUnit, long)} method, which allows you to specify
  * an additional delay that must expire before the task will be executed.
  * </p>
+ * <p>
+ * Ticks are driven by {@link System#nanoTime()} deadlines: tick {@code N} is due exactly {@code N * resolution} after
+ * the timer was started, so time spent running tasks or oversleeping does not accumulate as drift. If the timer thread
+ * falls behind, the missed ticks are run back-to-back rather than skipped. By default the timer thread parks until the
+ * next deadline ({@link WaitMode#SLEEP}). For sub-millisecond resolutions on a dedicated core, use {@link
+ * WaitMode#SPIN}, which spins on {@link System#nanoTime()} for the final stretch before each deadline. How late each
+ * task fired relative to its deadline can be inspected with {@link #getLastLateness(java.util.concurrent.TimeUnit)},
+ * {@link #getMaxLateness(java.util.concurrent.TimeUnit)} and {@link #getMeanLateness(java.util.concurrent.TimeUnit)}.
+ * Every running timer also keeps the cached time of the {@link Clock} up to date.
+ * </p>
  *
  * @author Jon Brisbin
  */
@@ -50,9 +61,21 @@ public class HashWheelTimer {
 
 	private static final Logger LOG = LoggerFactory.getLogger(HashWheelTimer.class);
 
+	/**
+	 * How close to a deadline a {@link WaitMode#SPIN spinning} timer stops parking and starts spinning.
+	 */
+	private static final long SPIN_THRESHOLD_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+
 	private final Registry<Consumer<Long>> tasks = new CachingRegistry<Consumer<Long>>(false);
-	private final int    resolution;
-	private final Thread loop;
+	private final long     resolution;
+	private final WaitMode waitMode;
+	private final long     startNanos;
+	private final Thread   loop;
+
+	private volatile long firedCount;
+	private volatile long lastLateness;
+	private volatile long maxLateness;
+	private volatile long totalLateness;
 
 	/**
 	 * Create a new {@code HashWheelTimer} using the default resolution of 50ms.
@@ -69,32 +92,60 @@ public class HashWheelTimer {
 	 * 		the resolution of this timer, in milliseconds
 	 */
 	public HashWheelTimer(final int resolution) {
-		this.resolution = resolution;
+		this(resolution, TimeUnit.MILLISECONDS, WaitMode.SLEEP);
+	}
+
+	/**
+	 * Create a new {@code HashWheelTimer} using the given timer resolution and {@link WaitMode}. All times will rounded
+	 * up to the closest multiple of this resolution.
+	 *
+	 * @param resolution
+	 * 		the resolution of this timer
+	 * @param timeUnit
+	 * 		the unit of time the {@code resolution} is to be measured in
+	 * @param waitMode
+	 * 		how the timer thread should wait for the next tick
+	 */
+	public HashWheelTimer(long resolution, TimeUnit timeUnit, WaitMode waitMode) {
+		Assert.isTrue(resolution > 0, "Resolution must be greater than zero.");
+		Assert.notNull(timeUnit, "TimeUnit cannot be null.");
+		Assert.notNull(waitMode, "WaitMode cannot be null.");
+		this.resolution = timeUnit.toNanos(resolution);
+		this.waitMode = waitMode;
+		this.startNanos = System.nanoTime();
 
 		this.loop = new NamedDaemonThreadFactory("hash-wheel-timer").newThread(
 				new Runnable() {
 					@Override public void run() {
-						while(!Thread.currentThread().isInterrupted()) {
-							long now = now(resolution);
-							for(Registration<? extends Consumer<Long>> reg : tasks.select(now)) {
-								try {
-									if(reg.isCancelled() || reg.isPaused()) {
-										continue;
-									}
-									reg.getObject().accept(now);
-								} catch(Throwable t) {
-									LOG.error(t.getMessage(), t);
-								} finally {
-									if(reg.isCancelAfterUse()) {
-										reg.cancel();
+						Clock.register();
+						try {
+							long tick = 0;
+							while(!Thread.currentThread().isInterrupted()) {
+								long deadline = startNanos + tick * HashWheelTimer.this.resolution;
+								if(!awaitDeadline(deadline)) {
+									break;
+								}
+								long now = System.currentTimeMillis();
+								Clock.update(now, System.nanoTime());
+								for(Registration<? extends Consumer<Long>> reg : tasks.select(tick)) {
+									try {
+										if(reg.isCancelled() || reg.isPaused()) {
+											continue;
+										}
+										recordLateness(System.nanoTime() - deadline);
+										reg.getObject().accept(now);
+									} catch(Throwable t) {
+										LOG.error(t.getMessage(), t);
+									} finally {
+										if(reg.isCancelAfterUse()) {
+											reg.cancel();
+										}
 									}
 								}
+								tick++;
 							}
-							try {
-								Thread.sleep(resolution);
-							} catch(InterruptedException e) {
-								Thread.currentThread().interrupt();
-							}
+						} finally {
+							Clock.unregister();
 						}
 					}
 				}
@@ -125,7 +176,9 @@ public class HashWheelTimer {
 	                                                       long delayInMilliseconds) {
 		Assert.isTrue(!loop.isInterrupted(), "Cannot submit tasks to this timer as it has been cancelled.");
 		return tasks.register(
-				new PeriodSelector(TimeUnit.MILLISECONDS.convert(period, timeUnit), delayInMilliseconds, resolution),
+				new PeriodSelector(ticks(timeUnit.toNanos(period)),
+				                   ticks(TimeUnit.MILLISECONDS.toNanos(delayInMilliseconds)),
+				                   currentTick()),
 				consumer
 		);
 	}
@@ -172,9 +225,9 @@ public class HashWheelTimer {
 	                                                     long delay,
 	                                                     TimeUnit timeUnit) {
 		Assert.isTrue(!loop.isInterrupted(), "Cannot submit tasks to this timer as it has been cancelled.");
-		long ms = TimeUnit.MILLISECONDS.convert(delay, timeUnit);
+		long ticks = ticks(timeUnit.toNanos(delay));
 		return tasks.register(
-				new PeriodSelector(ms, ms, resolution),
+				new PeriodSelector(ticks, ticks, currentTick()),
 				new SingleUseConsumer<Long>(consumer)
 		).cancelAfterUse();
 	}
@@ -188,10 +241,67 @@ public class HashWheelTimer {
 	 * @return {@literal this}
 	 */
 	public HashWheelTimer submit(Consumer<Long> consumer) {
-		submit(consumer, resolution, TimeUnit.MILLISECONDS);
+		submit(consumer, resolution, TimeUnit.NANOSECONDS);
 		return this;
 	}
 
+	/**
+	 * Get the resolution of this timer.
+	 *
+	 * @param timeUnit
+	 * 		the unit of time to return the resolution in
+	 *
+	 * @return the resolution of this timer
+	 */
+	public long getResolution(TimeUnit timeUnit) {
+		return timeUnit.convert(resolution, TimeUnit.NANOSECONDS);
+	}
+
+	/**
+	 * Get the number of tasks this timer has fired so far.
+	 *
+	 * @return the number of fired tasks
+	 */
+	public long getFiredCount() {
+		return firedCount;
+	}
+
+	/**
+	 * Get how late, relative to its deadline, the most recently fired task was invoked.
+	 *
+	 * @param timeUnit
+	 * 		the unit of time to return the lateness in
+	 *
+	 * @return the lateness of the last fired task
+	 */
+	public long getLastLateness(TimeUnit timeUnit) {
+		return timeUnit.convert(lastLateness, TimeUnit.NANOSECONDS);
+	}
+
+	/**
+	 * Get the greatest lateness, relative to its deadline, of any task fired so far.
+	 *
+	 * @param timeUnit
+	 * 		the unit of time to return the lateness in
+	 *
+	 * @return the maximum lateness observed
+	 */
+	public long getMaxLateness(TimeUnit timeUnit) {
+		return timeUnit.convert(maxLateness, TimeUnit.NANOSECONDS);
+	}
+
+	/**
+	 * Get the average lateness, relative to their deadlines, of all the tasks fired so far.
+	 *
+	 * @param timeUnit
+	 * 		the unit of time to return the lateness in
+	 *
+	 * @return the mean lateness observed, or {@literal 0} if no task has been fired yet
+	 */
+	public long getMeanLateness(TimeUnit timeUnit) {
+		long count = firedCount;
+		return (count > 0 ? timeUnit.convert(totalLateness / count, TimeUnit.NANOSECONDS) : 0);
+	}
 
 	/**
 	 * Cancel this timer by interrupting the task thread. No more tasks can be submitted to this timer after
@@ -201,22 +311,72 @@ public class HashWheelTimer {
 		this.loop.interrupt();
 	}
 
-	private static long now(int resolution) {
-		return (long)(Math.ceil(System.currentTimeMillis() / resolution) * resolution);
+	/*
+	 * Only ever called from the timer thread, so plain read-modify-write of the volatiles is safe.
+	 */
+	private void recordLateness(long lateness) {
+		lastLateness = lateness;
+		if(lateness > maxLateness) {
+			maxLateness = lateness;
+		}
+		totalLateness += lateness;
+		firedCount++;
+	}
+
+	private boolean awaitDeadline(long deadline) {
+		long remaining;
+		while((remaining = deadline - System.nanoTime()) > 0) {
+			if(Thread.currentThread().isInterrupted()) {
+				return false;
+			}
+			if(waitMode == WaitMode.SPIN) {
+				if(remaining > SPIN_THRESHOLD_NANOS) {
+					LockSupport.parkNanos(remaining - SPIN_THRESHOLD_NANOS);
+				}
+			} else {
+				LockSupport.parkNanos(remaining);
+			}
+		}
+		return !Thread.currentThread().isInterrupted();
+	}
+
+	/*
+	 * The first tick whose deadline is not in the past, so a task is never run before its delay has elapsed.
+	 */
+	private long currentTick() {
+		long elapsed = System.nanoTime() - startNanos;
+		return (elapsed + resolution - 1) / resolution;
+	}
+
+	private long ticks(long nanos) {
+		return (nanos + resolution - 1) / resolution;
+	}
+
+	/**
+	 * Strategies a {@link HashWheelTimer} can use to wait for the deadline of its next tick.
+	 */
+	public enum WaitMode {
+		/**
+		 * Park the timer thread until the next deadline. Suitable for resolutions of a millisecond or more.
+		 */
+		SLEEP,
+		/**
+		 * Park the timer thread until shortly before the next deadline, then busy-spin until it is reached. This gives
+		 * sub-millisecond resolution at the cost of keeping a core busy, so should only be used on dedicated cores.
+		 */
+		SPIN
 	}
 
 	private static class PeriodSelector implements Selector {
 		private final UUID uuid = UUIDUtils.create();
 		private final long period;
 		private final long delay;
-		private final long createdMillis;
-		private final int  resolution;
+		private final long createdTick;
 
-		private PeriodSelector(long period, long delay, int resolution) {
-			this.period = period;
+		private PeriodSelector(long period, long delay, long createdTick) {
+			this.period = Math.max(period, 1);
 			this.delay = delay;
-			this.resolution = resolution;
-			this.createdMillis = now(resolution);
+			this.createdTick = createdTick;
 		}
 
 		@Override public UUID getId() {
@@ -228,9 +388,8 @@ public class HashWheelTimer {
 		}
 
 		@Override public boolean matches(Object key) {
-			long now = (Long)key;
-			long period = (long)(Math.ceil((now - createdMillis) / resolution) * resolution);
-			return period >= delay && period % this.period == 0;
+			long elapsed = (Long)key - createdTick;
+			return elapsed >= delay && elapsed % period == 0;
 		}
 
 		@Override public HeaderResolver getHeaderResolver() {
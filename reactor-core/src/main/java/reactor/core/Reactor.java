@@ -37,6 +37,8 @@ import reactor.event.routing.Linkable;
 import reactor.event.selector.ClassSelector;
 import reactor.event.selector.Selector;
 import reactor.event.selector.Selectors;
+import reactor.event.support.EventPool;
+import reactor.event.support.PooledEvent;
 import reactor.filter.PassThroughFilter;
 import reactor.function.Consumer;
 import reactor.function.Function;
@@ -62,6 +64,12 @@ public class Reactor implements Observable, Linkable<Observable> {
 	private static final EventRouter DEFAULT_EVENT_ROUTER = new ConsumerFilteringEventRouter(
 			new PassThroughFilter(), new ArgumentConvertingConsumerInvoker(null)
 	);
+	private static final EventPool   SCHEDULED_EVENTS     = new EventPool(1024) {
+		@Override
+		protected PooledEvent<?> newEvent() {
+			return new ScheduledEvent(this);
+		}
+	};
 
 	private final Dispatcher                             dispatcher;
 	private final Registry<Consumer<? extends Event<?>>> consumerRegistry;
@@ -78,6 +86,16 @@ public class Reactor implements Observable, Linkable<Observable> {
 			dispatcher.dispatch(t.getClass(), Event.wrap(t), consumerRegistry, null, eventRouter, null);
 		}
 	};
+	private final Consumer<ScheduledEvent> scheduledConsumer = new Consumer<ScheduledEvent>() {
+		@Override
+		public void accept(ScheduledEvent ev) {
+			try {
+				ev.consumer.accept(ev.getData());
+			} catch(Throwable t) {
+				Reactor.this.notify(t.getClass(), Event.wrap(t));
+			}
+		}
+	};
 	private final Set<Observable>     linkedReactors = Collections.synchronizedSet(new HashSet<Observable>());
 
 
@@ -282,6 +300,33 @@ public class Reactor implements Observable, Linkable<Observable> {
 		};
 	}
 
+	/**
+	 * Schedule the given {@link Consumer} to be invoked with the given data on this {@literal Reactor}'s {@link
+	 * Dispatcher}. The consumer is dispatched to directly rather than being looked up in the registry, and the event
+	 * that carries it is pooled, so scheduling doesn't allocate once the pool has warmed up.
+	 *
+	 * @param consumer
+	 * 		the consumer to invoke
+	 * @param data
+	 * 		the data to pass to the consumer
+	 * @param <T>
+	 * 		the type of the data
+	 *
+	 * @return {@literal this}
+	 */
+	public <T> Reactor schedule(Consumer<T> consumer, T data) {
+		Assert.notNull(consumer, "Consumer cannot be null.");
+
+		ScheduledEvent ev = (ScheduledEvent)SCHEDULED_EVENTS.allocate(data);
+		ev.consumer = (Consumer<Object>)consumer;
+		try {
+			dispatcher.dispatch(ev, eventRouter, scheduledConsumer, errorHandler);
+		} finally {
+			ev.release();
+		}
+		return this;
+	}
+
 	@Override
 	public Reactor link(Observable reactor) {
 		linkedReactors.add(reactor);
@@ -314,12 +359,28 @@ public class Reactor implements Observable, Linkable<Observable> {
 		return id.hashCode();
 	}
 
+	private static final class ScheduledEvent extends PooledEvent<Object> {
+		private static final long serialVersionUID = -4390163716549281034L;
+
+		private transient Consumer<Object> consumer;
+
+		private ScheduledEvent(EventPool pool) {
+			super(pool);
+		}
+
+		@Override
+		protected void recycle() {
+			super.recycle();
+			consumer = null;
+		}
+	}
+
 	public static class ReplyToEvent<T> extends Event<T> {
 		private final Observable replyToObservable;
 
 		@Override
 		public <X> Event<X> copy(X data) {
-			return new ReplyToEvent<X>(getHeaders(), data, getReplyTo(), replyToObservable, getErrorConsumer());
+			return new ReplyToEvent<X>(getHeaders().copy(), data, getReplyTo(), replyToObservable, getErrorConsumer());
 		}
 
 		private ReplyToEvent(Headers headers, T data, Object replyTo,
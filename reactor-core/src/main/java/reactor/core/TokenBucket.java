@@ -0,0 +1,110 @@
+/*
+ * Copyright (c) 2011-2013 GoPivotal, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package reactor.core;
+
+import reactor.util.Assert;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A lock-free token bucket, used to limit how often something may happen. Each permitted action {@link #tryAcquire()
+ * takes} a token from the bucket and is refused when the bucket is empty; the bucket is {@link #refill() refilled} to
+ * its capacity periodically, usually by a task scheduled on a {@link HashWheelTimer}, so the capacity is both the
+ * number of actions permitted per period and the largest burst allowed.
+ */
+public class TokenBucket {
+
+	private final AtomicInteger tokens;
+	private final int           capacity;
+
+	/**
+	 * Create a new, full, {@literal TokenBucket}.
+	 *
+	 * @param capacity
+	 * 		the number of tokens the bucket holds when full
+	 */
+	public TokenBucket(int capacity) {
+		Assert.isTrue(capacity > 0, "Capacity must be greater than 0");
+		this.capacity = capacity;
+		this.tokens = new AtomicInteger(capacity);
+	}
+
+	/**
+	 * Take a token from the bucket, if there is one left.
+	 *
+	 * @return {@literal true} if a token was taken, {@literal false} if the bucket is empty
+	 */
+	public boolean tryAcquire() {
+		for(; ; ) {
+			int t = tokens.get();
+			if(t < 1) {
+				return false;
+			}
+			if(tokens.compareAndSet(t, t - 1)) {
+				return true;
+			}
+		}
+	}
+
+	/**
+	 * Put a token that was taken but not used back in the bucket.
+	 */
+	public void release() {
+		for(; ; ) {
+			int t = tokens.get();
+			if(t >= capacity || tokens.compareAndSet(t, t + 1)) {
+				return;
+			}
+		}
+	}
+
+	/**
+	 * Fill the bucket back up to its capacity.
+	 *
+	 * @return the number of tokens that were added
+	 */
+	public int refill() {
+		return capacity - tokens.getAndSet(capacity);
+	}
+
+	/**
+	 * Get the number of tokens left in the bucket.
+	 *
+	 * @return the number of tokens available
+	 */
+	public int available() {
+		return tokens.get();
+	}
+
+	/**
+	 * Get the number of tokens the bucket holds when full.
+	 *
+	 * @return the capacity
+	 */
+	public int getCapacity() {
+		return capacity;
+	}
+
+	@Override
+	public String toString() {
+		return "TokenBucket{" +
+				"tokens=" + tokens.get() +
+				", capacity=" + capacity +
+				'}';
+	}
+
+}
@@ -393,9 +393,9 @@ public class Promise<T> extends Composable<T> implements Supplier<T> {
 		hasBlockers = true;
 		synchronized(monitor) {
 			if(timeout >= 0) {
-				long msTimeout = TimeUnit.MILLISECONDS.convert(timeout, unit);
-				long endTime = System.currentTimeMillis() + msTimeout;
-				while(state == State.PENDING && (System.currentTimeMillis()) < endTime) {
+				// Timeouts are measured with the system clock, as the cached Clock is only as accurate as a timer tick
+				long endTime = System.nanoTime() + unit.toNanos(timeout);
+				while(state == State.PENDING && endTime - System.nanoTime() > 0) {
 					this.monitor.wait(200);
 				}
 			} else {
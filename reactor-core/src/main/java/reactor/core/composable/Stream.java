@@ -16,14 +16,18 @@
 
 package reactor.core.composable;
 
+import java.lang.ref.WeakReference;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicLong;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 
 import reactor.core.Environment;
+import reactor.core.HashWheelTimer;
 import reactor.core.Observable;
+import reactor.core.TokenBucket;
 import reactor.core.composable.spec.DeferredStreamSpec;
 import reactor.event.Event;
 import reactor.event.dispatch.Dispatcher;
@@ -266,6 +270,88 @@ public class Stream<T> extends Composable<T> {
 		return d.compose();
 	}
 
+	/**
+	 * Create a new {@code Stream} that passes on at most {@code permits} of the values passing through this {@code
+	 * Stream} per period of time. Values that arrive once the period's permits have been used up are dropped. The
+	 * permits are renewed every period by a task scheduled on the given {@link HashWheelTimer}, which is cancelled when
+	 * this {@code Stream} accepts an error or is no longer in use.
+	 *
+	 * @param permits
+	 * 		the number of values to pass on per period
+	 * @param period
+	 * 		the length of the period
+	 * @param timeUnit
+	 * 		the unit of the period
+	 * @param timer
+	 * 		the timer to renew the permits with
+	 *
+	 * @return a new {@code Stream} whose values are limited to {@code permits} per period
+	 */
+	public Stream<T> throttle(int permits, long period, @Nonnull TimeUnit timeUnit, @Nonnull HashWheelTimer timer) {
+		final TokenBucket tokens = new TokenBucket(permits);
+		final Deferred<T, Stream<T>> d = createDeferred();
+
+		schedule(tokens, REFILL, period, timeUnit, timer);
+
+		consumeEvent(new Consumer<Event<T>>() {
+			@Override
+			public void accept(Event<T> value) {
+				if(tokens.tryAcquire()) {
+					d.acceptEvent(value);
+				}
+			}
+		});
+
+		return d.compose();
+	}
+
+	/**
+	 * Create a new {@code Stream} that passes on a value passing through this {@code Stream} only once no other value has
+	 * followed it for the given quiet period. Values that are followed by another value within the quiet period are
+	 * dropped, so a burst of values results in only its last value being passed on, after the burst is over. The
+	 * resulting values are passed on from the given {@link HashWheelTimer}'s thread.
+	 *
+	 * @param quietPeriod
+	 * 		how long no values must arrive for the last one to be passed on
+	 * @param timeUnit
+	 * 		the unit of the quiet period
+	 * @param timer
+	 * 		the timer to measure the quiet period with
+	 *
+	 * @return a new {@code Stream} whose values are the last value of each burst
+	 */
+	public Stream<T> debounce(long quietPeriod, @Nonnull TimeUnit timeUnit, @Nonnull HashWheelTimer timer) {
+		final Deferred<T, Stream<T>> d = createDeferred();
+		consume(new Debouncer<T>(d, timeUnit.toNanos(quietPeriod), timer));
+
+		return d.compose();
+	}
+
+	/**
+	 * Create a new {@code Stream} that passes on the latest value passing through this {@code Stream} once every period.
+	 * Nothing is passed on for a period in which no values arrived. The resulting values are passed on from the given
+	 * {@link HashWheelTimer}'s thread by a task that is cancelled when this {@code Stream} accepts an error or is no
+	 * longer in use.
+	 *
+	 * @param period
+	 * 		the length of the period
+	 * @param timeUnit
+	 * 		the unit of the period
+	 * @param timer
+	 * 		the timer to sample the values with
+	 *
+	 * @return a new {@code Stream} whose values are the latest value of each period
+	 */
+	public Stream<T> sample(long period, @Nonnull TimeUnit timeUnit, @Nonnull HashWheelTimer timer) {
+		final Deferred<T, Stream<T>> d = createDeferred();
+		final Sampler<T> sampler = new Sampler<T>(d);
+		consume(sampler);
+
+		schedule(sampler, EMIT, period, timeUnit, timer);
+
+		return d.compose();
+	}
+
 	/**
 	 * Reduce the values passing through this {@code Stream} into an object {@code A}. The given initial object will be
 	 * passed to the function's {@link Tuple2} argument.
@@ -390,4 +476,137 @@ public class Stream<T> extends Composable<T> {
 				'}';
 	}
 
-}
\ No newline at end of file
+	/*
+	 * Run the task every period until this Stream accepts an error. The timer only holds on to the target weakly, so the
+	 * task is also cancelled once nothing else refers to the target, when this Stream is no longer in use.
+	 */
+	private <R> void schedule(R target,
+	                          Consumer<? super R> task,
+	                          long period,
+	                          TimeUnit timeUnit,
+	                          HashWheelTimer timer) {
+		PeriodicTask<R> periodicTask = new PeriodicTask<R>(target, task);
+		final Registration<? extends Consumer<Long>> registration =
+				timer.schedule(periodicTask, period, timeUnit, timeUnit.toMillis(period));
+		periodicTask.registration = registration;
+
+		when(Throwable.class, new Consumer<Throwable>() {
+			@Override
+			public void accept(Throwable t) {
+				registration.cancel();
+			}
+		});
+	}
+
+	private static final Consumer<TokenBucket> REFILL = new Consumer<TokenBucket>() {
+		@Override
+		public void accept(TokenBucket tokens) {
+			tokens.refill();
+		}
+	};
+
+	private static final Consumer<Sampler<?>> EMIT = new Consumer<Sampler<?>>() {
+		@Override
+		public void accept(Sampler<?> sampler) {
+			sampler.emit();
+		}
+	};
+
+	private static final class PeriodicTask<R> implements Consumer<Long> {
+		private final WeakReference<R>    target;
+		private final Consumer<? super R> task;
+		private volatile Registration<?>  registration;
+
+		private PeriodicTask(R target, Consumer<? super R> task) {
+			this.target = new WeakReference<R>(target);
+			this.task = task;
+		}
+
+		@Override
+		public void accept(Long now) {
+			R r = target.get();
+			if(null != r) {
+				task.accept(r);
+			} else if(null != registration) {
+				registration.cancel();
+			}
+		}
+	}
+
+	private static final class Debouncer<T> implements Consumer<T> {
+		private final Consumer<T>    downstream;
+		private final long           quietNanos;
+		private final HashWheelTimer timer;
+		private final Consumer<Long> check = new Consumer<Long>() {
+			@Override
+			public void accept(Long now) {
+				emit();
+			}
+		};
+		private T       latest;
+		private long    latestNanos;
+		private boolean scheduled;
+
+		private Debouncer(Consumer<T> downstream, long quietNanos, HashWheelTimer timer) {
+			this.downstream = downstream;
+			this.quietNanos = quietNanos;
+			this.timer = timer;
+		}
+
+		@Override
+		public synchronized void accept(T value) {
+			latest = value;
+			latestNanos = System.nanoTime();
+			if(!scheduled) {
+				scheduled = true;
+				timer.submit(check, quietNanos, TimeUnit.NANOSECONDS);
+			}
+		}
+
+		private void emit() {
+			T value;
+			synchronized(this) {
+				long wait = quietNanos - (System.nanoTime() - latestNanos);
+				if(wait > 0) {
+					// Another value arrived in the meantime, wait until it has been quiet for long enough
+					timer.submit(check, wait, TimeUnit.NANOSECONDS);
+					return;
+				}
+				value = latest;
+				latest = null;
+				scheduled = false;
+			}
+			downstream.accept(value);
+		}
+	}
+
+	private static final class Sampler<T> implements Consumer<T> {
+		private final Consumer<T> downstream;
+		private T       latest;
+		private boolean updated;
+
+		private Sampler(Consumer<T> downstream) {
+			this.downstream = downstream;
+		}
+
+		@Override
+		public synchronized void accept(T value) {
+			latest = value;
+			updated = true;
+		}
+
+		private void emit() {
+			T value;
+			synchronized(this) {
+				if(!updated) {
+					return;
+				}
+				value = latest;
+				latest = null;
+				updated = false;
+			}
+			downstream.accept(value);
+		}
+	}
+
+}
@@ -34,11 +34,22 @@ public final class DispatcherConfiguration {
 
 	private final Integer size;
 
+	private final WaitStrategyType waitStrategy;
+
 	public DispatcherConfiguration(String name, DispatcherType type, Integer backlog, Integer size) {
+		this(name, type, backlog, size, null);
+	}
+
+	public DispatcherConfiguration(String name,
+	                               DispatcherType type,
+	                               Integer backlog,
+	                               Integer size,
+	                               WaitStrategyType waitStrategy) {
 		this.name = name;
 		this.type = type;
 		this.backlog = backlog;
 		this.size = size;
+		this.waitStrategy = waitStrategy;
 	}
 
 	/**
@@ -76,4 +87,13 @@ public final class DispatcherConfiguration {
 	public DispatcherType getType() {
 		return type;
 	}
+
+	/**
+	 * Returns the configured wait strategy, or {@code null} if the wait strategy was not configured
+	 *
+	 * @return The wait strategy
+	 */
+	public WaitStrategyType getWaitStrategy() {
+		return waitStrategy;
+	}
 }
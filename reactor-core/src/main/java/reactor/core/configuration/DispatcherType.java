@@ -35,6 +35,12 @@ public enum DispatcherType {
 	 */
 	EVENT_LOOP,
 
+	/**
+	 * A {@link Dispatcher} which uses an event loop draining a bounded multi-producer, single-consumer array queue for
+	 * dispatching
+	 */
+	MPSC_EVENT_LOOP,
+
 	/**
 	 * A {@link Dispatcher} which uses a {@link RingBuffer} for dispatching
 	 */
@@ -48,6 +54,17 @@ public enum DispatcherType {
 	/**
 	 * A {@link Dispatcher} which uses a {@link ThreadPoolExecutor} for dispatching
 	 */
-	THREAD_POOL_EXECUTOR
+	THREAD_POOL_EXECUTOR,
+
+	/**
+	 * A {@link Dispatcher} which uses a work-stealing {@link java.util.concurrent.ForkJoinPool ForkJoinPool} for
+	 * dispatching
+	 */
+	WORK_STEALING,
+
+	/**
+	 * A {@link Dispatcher} for consumers that block, which runs each event on its own virtual thread
+	 */
+	BLOCKING
 
 }
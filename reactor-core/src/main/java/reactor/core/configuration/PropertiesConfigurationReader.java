@@ -41,6 +41,7 @@ public class PropertiesConfigurationReader implements ConfigurationReader {
 	private static final String FORMAT_DISPATCHER_BACKLOG = "reactor.dispatchers.%s.backlog";
 	private static final String FORMAT_DISPATCHER_SIZE    = "reactor.dispatchers.%s.size";
 	private static final String FORMAT_DISPATCHER_TYPE    = "reactor.dispatchers.%s.type";
+	private static final String FORMAT_DISPATCHER_WAIT    = "reactor.dispatchers.%s.waitStrategy";
 	private static final String FORMAT_RESOURCE_NAME      = "/META-INF/reactor/%s.properties";
 
 	private static final String PROPERTY_PREFIX_REACTOR = "reactor.";
@@ -123,7 +124,8 @@ public class PropertiesConfigurationReader implements ConfigurationReader {
 				                                                         type,
 				                                                         getBacklog(dispatcherName,
 				                                                                    configuration),
-				                                                         getSize(dispatcherName, configuration)));
+				                                                         getSize(dispatcherName, configuration),
+				                                                         getWaitStrategy(dispatcherName, configuration)));
 			}
 		}
 		return dispatcherConfigurations;
@@ -146,18 +148,44 @@ public class PropertiesConfigurationReader implements ConfigurationReader {
 		String type = configuration.getProperty(String.format(FORMAT_DISPATCHER_TYPE, dispatcherName));
 		if("eventLoop".equals(type)) {
 			return DispatcherType.EVENT_LOOP;
+		} else if("mpscEventLoop".equals(type)) {
+			return DispatcherType.MPSC_EVENT_LOOP;
 		} else if("ringBuffer".equals(type)) {
 			return DispatcherType.RING_BUFFER;
 		} else if("synchronous".equals(type)) {
 			return DispatcherType.SYNCHRONOUS;
 		} else if("threadPoolExecutor".equals(type)) {
 			return DispatcherType.THREAD_POOL_EXECUTOR;
+		} else if("workStealing".equals(type)) {
+			return DispatcherType.WORK_STEALING;
+		} else if("blocking".equals(type)) {
+			return DispatcherType.BLOCKING;
 		} else {
 			logger.warn("The type '{}' of Dispatcher '{}' is not recognized", type, dispatcherName);
 			return null;
 		}
 	}
 
+	private WaitStrategyType getWaitStrategy(String dispatcherName, Properties configuration) {
+		String waitStrategy = configuration.getProperty(String.format(FORMAT_DISPATCHER_WAIT, dispatcherName));
+		if(null == waitStrategy) {
+			return null;
+		} else if("blocking".equals(waitStrategy)) {
+			return WaitStrategyType.BLOCKING;
+		} else if("sleeping".equals(waitStrategy)) {
+			return WaitStrategyType.SLEEPING;
+		} else if("yielding".equals(waitStrategy)) {
+			return WaitStrategyType.YIELDING;
+		} else if("busySpin".equals(waitStrategy)) {
+			return WaitStrategyType.BUSY_SPIN;
+		} else if("adaptive".equals(waitStrategy)) {
+			return WaitStrategyType.ADAPTIVE;
+		} else {
+			logger.warn("The wait strategy '{}' of Dispatcher '{}' is not recognized", waitStrategy, dispatcherName);
+			return null;
+		}
+	}
+
 	private Integer getBacklog(String dispatcherName, Properties configuration) {
 		return getInteger(String.format(FORMAT_DISPATCHER_BACKLOG, dispatcherName), configuration);
 	}
@@ -0,0 +1,51 @@
+/*
+ * Copyright (c) 2011-2013 GoPivotal, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package reactor.core.configuration;
+
+import reactor.core.dynamic.annotation.Dispatcher;
+
+/**
+ * The strategy used by a {@link Dispatcher}'s threads to wait for work.
+ */
+public enum WaitStrategyType {
+
+	/**
+	 * Block until work is available
+	 */
+	BLOCKING,
+
+	/**
+	 * Sleep for short periods until work is available
+	 */
+	SLEEPING,
+
+	/**
+	 * Yield the CPU until work is available
+	 */
+	YIELDING,
+
+	/**
+	 * Busy spin until work is available
+	 */
+	BUSY_SPIN,
+
+	/**
+	 * Spin, then yield, then block, tuning each phase from how long the dispatcher usually waits
+	 */
+	ADAPTIVE
+
+}
@@ -0,0 +1,80 @@
+/*
+ * Copyright (c) 2011-2013 GoPivotal, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package reactor.core.processor;
+
+import java.nio.ByteBuffer;
+
+/**
+ * A {@code Flyweight} gives typed access to a fixed-layout record held in a region of a {@link ByteBuffer}, without
+ * copying the record onto the heap. The same {@code Flyweight} is {@link #wrap(ByteBuffer, int) moved} from record
+ * to record, so subclasses keep no state of their own and read and write their fields at fixed offsets from {@link
+ * #offset}, using the absolute {@code ByteBuffer} methods:
+ * <pre>
+ * public class Quote extends Flyweight {
+ *   public static final int SIZE = 16;
+ *
+ *   public long getPrice() { return buffer.getLong(offset); }
+ *   public void setPrice(long price) { buffer.putLong(offset, price); }
+ *
+ *   public long getVolume() { return buffer.getLong(offset + 8); }
+ *   public void setVolume(long volume) { buffer.putLong(offset + 8, volume); }
+ * }
+ * </pre>
+ *
+ * @see OffHeapProcessor
+ */
+public abstract class Flyweight {
+
+	protected ByteBuffer buffer;
+	protected int        offset;
+
+	/**
+	 * Point this {@code Flyweight} at the record starting at {@code offset} in the given buffer.
+	 *
+	 * @param buffer
+	 * 		the buffer holding the record
+	 * @param offset
+	 * 		the absolute offset of the record in the buffer
+	 *
+	 * @return {@literal this}
+	 */
+	public Flyweight wrap(ByteBuffer buffer, int offset) {
+		this.buffer = buffer;
+		this.offset = offset;
+		return this;
+	}
+
+	/**
+	 * Get the buffer holding the current record.
+	 *
+	 * @return the buffer
+	 */
+	public ByteBuffer buffer() {
+		return buffer;
+	}
+
+	/**
+	 * Get the absolute offset of the current record in the {@link #buffer() buffer}.
+	 *
+	 * @return the offset
+	 */
+	public int offset() {
+		return offset;
+	}
+
+}
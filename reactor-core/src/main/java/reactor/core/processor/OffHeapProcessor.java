@@ -0,0 +1,338 @@
+/*
+ * Copyright (c) 2011-2013 GoPivotal, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package reactor.core.processor;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import javax.annotation.Nonnull;
+
+import com.lmax.disruptor.BatchEventProcessor;
+import com.lmax.disruptor.BlockingWaitStrategy;
+import com.lmax.disruptor.DataProvider;
+import com.lmax.disruptor.EventHandler;
+import com.lmax.disruptor.LifecycleAware;
+import com.lmax.disruptor.MultiProducerSequencer;
+import com.lmax.disruptor.Sequence;
+import com.lmax.disruptor.SequenceBarrier;
+import com.lmax.disruptor.Sequencer;
+import com.lmax.disruptor.SingleProducerSequencer;
+import com.lmax.disruptor.WaitStrategy;
+import reactor.event.dispatch.AdaptiveWaitStrategy;
+import reactor.event.registry.Registry;
+import reactor.function.Consumer;
+import reactor.function.Supplier;
+import reactor.function.batch.BatchConsumer;
+import reactor.support.NamedDaemonThreadFactory;
+import reactor.util.Assert;
+
+/**
+ * An {@code OffHeapProcessor} is a {@link Processor} whose data lives outside of the Java heap. Rather than one
+ * pre-allocated data object per slot of the ring, every slot is a fixed-size region of a single direct {@link
+ * ByteBuffer}, which producers and {@link Consumer Consumers} read and write through a {@link Flyweight}. The heap only
+ * holds the ring's sequences and a {@code Flyweight} per thread, however large the ring is, so that rings of many
+ * millions of records don't weigh on the garbage collector.
+ * <p/>
+ * Data is published with {@link #publish(Consumer)} or {@link #batch(int, Consumer)}, passing a mutator that writes the
+ * record through a {@code Flyweight} positioned on the claimed slot. As slots are reused, and not cleared, a mutator
+ * should write every field of the record. A {@code Flyweight} handed to a {@code Consumer} is only positioned on the
+ * record for the duration of the call and must not be held on to.
+ * <p/>
+ * As with a {@link Processor}, the {@code Consumers} can be arranged in stages, each stage only seeing a record once all
+ * the {@code Consumers} of the previous stage are done with it.
+ *
+ * @param <F>
+ * 		the type of {@link Flyweight} used to access the records
+ */
+public class OffHeapProcessor<F extends Flyweight> {
+
+	private final List<BatchEventProcessor<F>> processors = new ArrayList<BatchEventProcessor<F>>();
+	private final int             slotSize;
+	private final int             mask;
+	private final ByteBuffer      buffer;
+	private final Sequencer       sequencer;
+	private final ExecutorService ownExecutor;
+	private final ThreadLocal<F>  producerFlyweight;
+
+	/**
+	 * Create a new {@code OffHeapProcessor} whose records are handled by the given stages of {@link Consumer
+	 * Consumers}.
+	 *
+	 * @param flyweights
+	 * 		the {@link Supplier} of the {@link Flyweight Flyweights}, one of which is created for each producer thread and
+	 * 		each {@code Consumer}
+	 * @param slotSize
+	 * 		the size of a record, in bytes
+	 * @param stages
+	 * 		the stages of {@code Consumers}, in the order they see each record
+	 * @param errorConsumers
+	 * 		the error handlers, selected by the type of exception
+	 * @param multiThreadedProducer
+	 * 		whether records may be published from more than one thread
+	 * @param bufferSize
+	 * 		the number of slots in the ring, a power of two, or {@literal -1} for a default based on the number of CPUs
+	 * @param waitStrategy
+	 * 		how the {@code Consumers} wait for data, {@code null} for a {@link BlockingWaitStrategy}
+	 * @param threadFactory
+	 * 		the {@link ThreadFactory} to create this {@code OffHeapProcessor's} own threads with. May be {@code null}
+	 * @param executor
+	 * 		the {@link Executor} to run the {@code Consumers} on, {@code null} for the {@code OffHeapProcessor} to create
+	 * 		its own
+	 */
+	public OffHeapProcessor(@Nonnull final Supplier<F> flyweights,
+	                        int slotSize,
+	                        @Nonnull List<? extends List<Consumer<F>>> stages,
+	                        @Nonnull Registry<Consumer<Throwable>> errorConsumers,
+	                        boolean multiThreadedProducer,
+	                        int bufferSize,
+	                        WaitStrategy waitStrategy,
+	                        ThreadFactory threadFactory,
+	                        Executor executor) {
+		Assert.notNull(flyweights, "Flyweight Supplier cannot be null.");
+		Assert.isTrue(slotSize > 0, "Slot size must be greater than 0.");
+		Assert.notEmpty(stages, "At least one stage of Consumers is required.");
+		Assert.notNull(errorConsumers, "Error Consumers Registry cannot be null.");
+		boolean singleConsumer = (stages.size() == 1 && stages.get(0).size() == 1);
+		Assert.isTrue(singleConsumer || !(waitStrategy instanceof AdaptiveWaitStrategy),
+		              "An AdaptiveWaitStrategy only supports a single Consumer.");
+
+		if(bufferSize < 1) {
+			bufferSize = Integer.highestOneBit(256 * Runtime.getRuntime().availableProcessors());
+		}
+		Assert.isTrue(Integer.bitCount(bufferSize) == 1, "Buffer size must be a power of 2.");
+		Assert.isTrue((long)bufferSize * slotSize <= Integer.MAX_VALUE,
+		              "Buffer size times slot size must not exceed " + Integer.MAX_VALUE + " bytes.");
+
+		if(null == executor) {
+			ownExecutor = Executors.newCachedThreadPool(null != threadFactory
+			                                            ? threadFactory
+			                                            : new NamedDaemonThreadFactory("offheap-processor"));
+			executor = ownExecutor;
+		} else {
+			ownExecutor = null;
+		}
+		if(null == waitStrategy) {
+			waitStrategy = new BlockingWaitStrategy();
+		}
+
+		this.slotSize = slotSize;
+		this.mask = bufferSize - 1;
+		this.buffer = ByteBuffer.allocateDirect(bufferSize * slotSize).order(ByteOrder.nativeOrder());
+		this.sequencer = (multiThreadedProducer
+				? new MultiProducerSequencer(bufferSize, waitStrategy)
+				: new SingleProducerSequencer(bufferSize, waitStrategy));
+		this.producerFlyweight = new ThreadLocal<F>() {
+			@Override
+			protected F initialValue() {
+				return flyweights.get();
+			}
+		};
+
+		Processor.ConsumerExceptionHandler exceptionHandler = new Processor.ConsumerExceptionHandler(errorConsumers);
+		Sequence[] previousStage = new Sequence[0];
+		for(List<Consumer<F>> stage : stages) {
+			Assert.notEmpty(stage, "A stage must have at least one Consumer.");
+			SequenceBarrier barrier = sequencer.newBarrier(previousStage);
+			Sequence[] sequences = new Sequence[stage.size()];
+			for(int i = 0; i < sequences.length; i++) {
+				Assert.notNull(stage.get(i), "Consumer cannot be null.");
+				BatchEventProcessor<F> processor = new BatchEventProcessor<F>(
+						new SlotProvider(flyweights.get()),
+						barrier,
+						new FlyweightEventHandler<F>(stage.get(i))
+				);
+				processor.setExceptionHandler(exceptionHandler);
+				processors.add(processor);
+				sequences[i] = processor.getSequence();
+			}
+			previousStage = sequences;
+		}
+		// Producers must not overwrite a slot before the last stage is done with it
+		sequencer.addGatingSequences(previousStage);
+
+		for(BatchEventProcessor<F> processor : processors) {
+			executor.execute(processor);
+		}
+	}
+
+	/**
+	 * Claim a slot, let the given mutator write the record through a {@link Flyweight} positioned on it, and publish
+	 * it.
+	 *
+	 * @param mutator
+	 * 		a {@link Consumer} that writes the record
+	 *
+	 * @return {@literal this}
+	 */
+	public OffHeapProcessor<F> publish(Consumer<F> mutator) {
+		F flyweight = producerFlyweight.get();
+		long seq = sequencer.next();
+		try {
+			wrap(flyweight, seq);
+			mutator.accept(flyweight);
+		} finally {
+			sequencer.publish(seq);
+		}
+		return this;
+	}
+
+	/**
+	 * Publish {@code size} records, letting the given mutator write each of them. Slots are claimed in contiguous ranges,
+	 * as large as the ring allows, and always published, even if the mutator fails.
+	 *
+	 * @param size
+	 * 		the number of records to publish
+	 * @param mutator
+	 * 		a {@link Consumer} that writes each record
+	 *
+	 * @return {@literal this}
+	 */
+	public OffHeapProcessor<F> batch(int size, Consumer<F> mutator) {
+		F flyweight = producerFlyweight.get();
+		int remaining = size;
+		while(remaining > 0) {
+			int n = Math.min(remaining, mask + 1);
+			long end = sequencer.next(n);
+			long start = end - (n - 1);
+			try {
+				for(long l = start; l <= end; l++) {
+					wrap(flyweight, l);
+					mutator.accept(flyweight);
+				}
+			} finally {
+				sequencer.publish(start, end);
+			}
+			remaining -= n;
+		}
+		return this;
+	}
+
+	/**
+	 * Get the number of slots in the ring.
+	 *
+	 * @return the number of slots
+	 */
+	public int getBufferSize() {
+		return mask + 1;
+	}
+
+	/**
+	 * Get the size of a record, in bytes.
+	 *
+	 * @return the size of a slot
+	 */
+	public int getSlotSize() {
+		return slotSize;
+	}
+
+	/**
+	 * Shutdown this {@code OffHeapProcessor} once its running {@link Consumer Consumers} have handled every published
+	 * record, shutting down the thread pool too, unless it was given a shared one. {@code Consumers} that the thread pool
+	 * hasn't started running are not waited for.
+	 */
+	public void shutdown() {
+		shutdown(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+	}
+
+	/**
+	 * Shutdown this {@code OffHeapProcessor} once its running {@link Consumer Consumers} have handled every published
+	 * record, or once the given timeout has passed, shutting down the thread pool too, unless it was given a shared one.
+	 *
+	 * @param timeout
+	 * 		how long to wait for the {@code Consumers} to catch up
+	 * @param timeUnit
+	 * 		the unit of the timeout
+	 *
+	 * @return {@literal true} if every {@code Consumer} had handled every published record, {@literal false} otherwise
+	 */
+	public boolean shutdown(long timeout, TimeUnit timeUnit) {
+		long deadline = System.nanoTime() + timeUnit.toNanos(timeout);
+		long cursor = sequencer.getCursor();
+		boolean caughtUp = true;
+		for(BatchEventProcessor<F> processor : processors) {
+			while(processor.getSequence().get() < cursor) {
+				if(!processor.isRunning() || System.nanoTime() - deadline >= 0) {
+					caughtUp = false;
+					break;
+				}
+				Thread.yield();
+			}
+		}
+		for(BatchEventProcessor<F> processor : processors) {
+			processor.halt();
+		}
+		if(null != ownExecutor) {
+			ownExecutor.shutdown();
+		}
+		return caughtUp;
+	}
+
+	private void wrap(Flyweight flyweight, long seq) {
+		flyweight.wrap(buffer, ((int)seq & mask) * slotSize);
+	}
+
+	private class SlotProvider implements DataProvider<F> {
+		private final F flyweight;
+
+		private SlotProvider(F flyweight) {
+			this.flyweight = flyweight;
+		}
+
+		@Override
+		public F get(long sequence) {
+			wrap(flyweight, sequence);
+			return flyweight;
+		}
+	}
+
+	private static class FlyweightEventHandler<F> implements EventHandler<F>, LifecycleAware {
+		final Consumer<F> consumer;
+		final boolean     isBatchConsumer;
+
+		private FlyweightEventHandler(Consumer<F> consumer) {
+			this.consumer = consumer;
+			this.isBatchConsumer = consumer instanceof BatchConsumer;
+		}
+
+		@Override
+		public void onStart() {
+			if(isBatchConsumer) {
+				((BatchConsumer)consumer).start();
+			}
+		}
+
+		@Override
+		public void onShutdown() {
+			if(isBatchConsumer) {
+				((BatchConsumer)consumer).end();
+			}
+		}
+
+		@Override
+		public void onEvent(F flyweight, long sequence, boolean endOfBatch) throws Exception {
+			consumer.accept(flyweight);
+		}
+	}
+
+}
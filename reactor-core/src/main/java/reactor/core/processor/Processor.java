@@ -16,9 +16,12 @@
 
 package reactor.core.processor;
 
+import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.Executor;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
 import javax.annotation.Nonnull;
 
 import com.lmax.disruptor.BlockingWaitStrategy;
@@ -27,8 +30,12 @@ import com.lmax.disruptor.EventHandler;
 import com.lmax.disruptor.ExceptionHandler;
 import com.lmax.disruptor.LifecycleAware;
 import com.lmax.disruptor.RingBuffer;
+import com.lmax.disruptor.WaitStrategy;
+import com.lmax.disruptor.WorkHandler;
 import com.lmax.disruptor.dsl.Disruptor;
+import com.lmax.disruptor.dsl.EventHandlerGroup;
 import com.lmax.disruptor.dsl.ProducerType;
+import reactor.event.dispatch.AdaptiveWaitStrategy;
 import reactor.event.registry.Registration;
 import reactor.event.registry.Registry;
 import reactor.function.Consumer;
@@ -57,6 +64,16 @@ import reactor.util.Assert;
  * the
  * batch is submitted. The {@link BatchConsumer} will work for either single-operation mode or batch mode, but only a
  * {@link BatchConsumer} will be able to recognize the start and end of a batch.
+ * <p/>
+ * Rather than a single {@link Consumer}, a {@code Processor} can also have several stages of them. Each stage runs its
+ * {@code Consumers} in parallel, every one on its own thread, and only sees a data object once all the {@code
+ * Consumers} of the previous stage are done with it. As all the stages work on the same pre-allocated data objects,
+ * a pipeline such as decode &rarr; (journal &#x2225; replicate) &rarr; business logic doesn't copy any data between
+ * stages.
+ * <p/>
+ * When the order in which data objects are handled doesn't matter, the {@code Consumers} of the last stage can each be
+ * run by a pool of worker threads, which share the data objects between them so that each object is handled by only
+ * one of them. The {@code Consumers} must then be thread-safe.
  *
  * @author Jon Brisbin
  * @see <a href="https://github.com/LMAX-Exchange/disruptor">https://github.com/LMAX-Exchange/disruptor</a>
@@ -64,21 +81,129 @@ import reactor.util.Assert;
 public class Processor<T> implements Supplier<Operation<T>> {
 
 	private final int                      opsBufferSize;
-	private final ExecutorService          executor;
+	private final ExecutorService          ownExecutor;
 	private final Disruptor<Operation<T>>  disruptor;
 	private final RingBuffer<Operation<T>> ringBuffer;
 
-	@SuppressWarnings("unchecked")
 	public Processor(@Nonnull final Supplier<T> dataSupplier,
 	                 @Nonnull final Consumer<T> consumer,
 	                 @Nonnull Registry<Consumer<Throwable>> errorConsumers,
 	                 boolean multiThreadedProducer,
 	                 int opsBufferSize) {
+		this(dataSupplier,
+		     Collections.singletonList(Collections.singletonList(consumer)),
+		     errorConsumers,
+		     multiThreadedProducer,
+		     opsBufferSize);
+	}
+
+	/**
+	 * Create a new {@code Processor} whose data objects are handled by the given stages of {@link Consumer Consumers}.
+	 * The {@code Consumers} of a stage run in parallel, and a stage only handles a data object once every {@code
+	 * Consumer} of the previous stage has handled it.
+	 *
+	 * @param dataSupplier
+	 * 		the {@link Supplier} of the pre-allocated data objects
+	 * @param stages
+	 * 		the stages of {@code Consumers}, in the order they see each data object
+	 * @param errorConsumers
+	 * 		the error handlers, selected by the type of exception
+	 * @param multiThreadedProducer
+	 * 		whether data events may be published from more than one thread
+	 * @param opsBufferSize
+	 * 		the number of data objects to pre-allocate, or {@literal -1} for a default based on the number of CPUs
+	 */
+	public Processor(@Nonnull final Supplier<T> dataSupplier,
+	                 @Nonnull List<? extends List<Consumer<T>>> stages,
+	                 @Nonnull Registry<Consumer<Throwable>> errorConsumers,
+	                 boolean multiThreadedProducer,
+	                 int opsBufferSize) {
+		this(dataSupplier, stages, 1, errorConsumers, multiThreadedProducer, opsBufferSize);
+	}
+
+	/**
+	 * Create a new {@code Processor} whose data objects are handled by the given stages of {@link Consumer Consumers},
+	 * the {@code Consumers} of the last stage each being run by a pool of {@code workers} threads.
+	 *
+	 * @param dataSupplier
+	 * 		the {@link Supplier} of the pre-allocated data objects
+	 * @param stages
+	 * 		the stages of {@code Consumers}, in the order they see each data object
+	 * @param workers
+	 * 		the number of threads to share the data objects of the last stage between, {@literal 1} to handle them all on
+	 * 		one thread, in order
+	 * @param errorConsumers
+	 * 		the error handlers, selected by the type of exception
+	 * @param multiThreadedProducer
+	 * 		whether data events may be published from more than one thread
+	 * @param opsBufferSize
+	 * 		the number of data objects to pre-allocate, or {@literal -1} for a default based on the number of CPUs
+	 */
+	public Processor(@Nonnull final Supplier<T> dataSupplier,
+	                 @Nonnull List<? extends List<Consumer<T>>> stages,
+	                 int workers,
+	                 @Nonnull Registry<Consumer<Throwable>> errorConsumers,
+	                 boolean multiThreadedProducer,
+	                 int opsBufferSize) {
+		this(dataSupplier, stages, workers, errorConsumers, multiThreadedProducer, opsBufferSize, null, null, null);
+	}
+
+	/**
+	 * Create a new {@code Processor} whose data objects are handled by the given stages of {@link Consumer Consumers},
+	 * the {@code Consumers} of the last stage each being run by a pool of {@code workers} threads.
+	 * <p/>
+	 * Every {@code Consumer}, and every worker, occupies a thread for as long as the {@code Processor} runs. Those
+	 * threads come from the given {@link Executor}, which may be shared with other {@code Processors} but must then be
+	 * able to supply enough threads for all of them, and which is left running when this {@code Processor} is shut
+	 * down. Without an {@code Executor}, the {@code Processor} creates its own pool of threads, using the given {@link
+	 * ThreadFactory} if there is one; a {@code ThreadFactory} is also the place to pin threads to CPUs, for instance.
+	 *
+	 * @param dataSupplier
+	 * 		the {@link Supplier} of the pre-allocated data objects
+	 * @param stages
+	 * 		the stages of {@code Consumers}, in the order they see each data object
+	 * @param workers
+	 * 		the number of threads to share the data objects of the last stage between, {@literal 1} to handle them all on
+	 * 		one thread, in order
+	 * @param errorConsumers
+	 * 		the error handlers, selected by the type of exception
+	 * @param multiThreadedProducer
+	 * 		whether data events may be published from more than one thread
+	 * @param opsBufferSize
+	 * 		the number of data objects to pre-allocate, or {@literal -1} for a default based on the number of CPUs
+	 * @param waitStrategy
+	 * 		how the {@code Consumers} wait for data, {@code null} for a {@link BlockingWaitStrategy}
+	 * @param threadFactory
+	 * 		the {@link ThreadFactory} to create this {@code Processor's} own threads with. May be {@code null}
+	 * @param executor
+	 * 		the {@link Executor} to run the {@code Consumers} on, {@code null} for the {@code Processor} to create its own
+	 */
+	@SuppressWarnings("unchecked")
+	public Processor(@Nonnull final Supplier<T> dataSupplier,
+	                 @Nonnull List<? extends List<Consumer<T>>> stages,
+	                 int workers,
+	                 @Nonnull Registry<Consumer<Throwable>> errorConsumers,
+	                 boolean multiThreadedProducer,
+	                 int opsBufferSize,
+	                 WaitStrategy waitStrategy,
+	                 ThreadFactory threadFactory,
+	                 Executor executor) {
 		Assert.notNull(dataSupplier, "Data Supplier cannot be null.");
-		Assert.notNull(consumer, "Consumer cannot be null.");
+		Assert.notEmpty(stages, "At least one stage of Consumers is required.");
+		Assert.isTrue(workers > 0, "The number of workers must be greater than 0.");
 		Assert.notNull(errorConsumers, "Error Consumers Registry cannot be null.");
-
-		executor = Executors.newCachedThreadPool(new NamedDaemonThreadFactory("processor"));
+		boolean singleConsumer = (workers == 1 && stages.size() == 1 && stages.get(0).size() == 1);
+		Assert.isTrue(singleConsumer || !(waitStrategy instanceof AdaptiveWaitStrategy),
+		              "An AdaptiveWaitStrategy only supports a single Consumer.");
+
+		if(null == executor) {
+			ownExecutor = Executors.newCachedThreadPool(null != threadFactory
+			                                            ? threadFactory
+			                                            : new NamedDaemonThreadFactory("processor"));
+			executor = ownExecutor;
+		} else {
+			ownExecutor = null;
+		}
 
 		if(opsBufferSize < 1) {
 			this.opsBufferSize = 256 * Runtime.getRuntime().availableProcessors();
@@ -102,19 +227,37 @@ public class Processor<T> implements Supplier<Operation<T>> {
 				this.opsBufferSize,
 				executor,
 				(multiThreadedProducer ? ProducerType.MULTI : ProducerType.SINGLE),
-				new BlockingWaitStrategy()
+				(null != waitStrategy ? waitStrategy : new BlockingWaitStrategy())
 		);
-		disruptor.handleEventsWith(new ConsumerEventHandler<T>(consumer));
 		disruptor.handleExceptionsWith(new ConsumerExceptionHandler(errorConsumers));
+		EventHandlerGroup<Operation<T>> previousStage = null;
+		for(int stageIdx = 0; stageIdx < stages.size(); stageIdx++) {
+			List<Consumer<T>> stage = stages.get(stageIdx);
+			Assert.notEmpty(stage, "A stage must have at least one Consumer.");
+			if(workers > 1 && stageIdx == stages.size() - 1) {
+				previousStage = handleWithWorkerPools(previousStage, stage, workers);
+				continue;
+			}
+			EventHandler<Operation<T>>[] handlers = newEventHandlers(stage.size());
+			for(int i = 0; i < handlers.length; i++) {
+				Assert.notNull(stage.get(i), "Consumer cannot be null.");
+				handlers[i] = new ConsumerEventHandler<T>(stage.get(i));
+			}
+			previousStage = (null == previousStage
+					? disruptor.handleEventsWith(handlers)
+					: previousStage.then(handlers));
+		}
 
 		ringBuffer = disruptor.start();
 	}
 
 	/**
-	 * Shutdown this {@code Processor} by shutting down the thread pool.
+	 * Shutdown this {@code Processor} by shutting down the thread pool, unless it was given a shared one.
 	 */
 	public void shutdown() {
-		executor.shutdown();
+		if(null != ownExecutor) {
+			ownExecutor.shutdown();
+		}
 		disruptor.shutdown();
 	}
 
@@ -170,6 +313,9 @@ public class Processor<T> implements Supplier<Operation<T>> {
 	 * can update with the appropriate data. Note that this is not an event handler. The event handler {@link Consumer}
 	 * is
 	 * specified in the spec (which is passed into the {@code Processor} constructor).
+	 * <p/>
+	 * Slots are claimed from the {@link RingBuffer} in contiguous ranges, as large as the buffer allows, so a batch costs
+	 * a few sequence operations rather than one per data object.
 	 *
 	 * @param size
 	 * 		size of the batch
@@ -180,22 +326,22 @@ public class Processor<T> implements Supplier<Operation<T>> {
 	 * @return {@literal this}
 	 */
 	public Processor<T> batch(int size, Consumer<T> mutator) {
-		long start = -1;
-		long end = 0;
-		for(int i = 0; i < size; i++) {
-			if(i > 0 && i % opsBufferSize == 0) {
-				// Automatically flush when buffer is full
+		int remaining = size;
+		while(remaining > 0) {
+			// Claim as much of the batch as the buffer can hold in one go, rather than a slot at a time
+			int n = Math.min(remaining, opsBufferSize);
+			long end = ringBuffer.next(n);
+			long start = end - (n - 1);
+			try {
+				for(long l = start; l <= end; l++) {
+					mutator.accept(ringBuffer.get(l).get());
+				}
+			} finally {
+				// Claimed slots must always be published, or the consumers would stall waiting for them
 				ringBuffer.publish(start, end);
-				start = -1;
 			}
-			long l = ringBuffer.next();
-			if(start < 0) {
-				start = l;
-			}
-			end = l;
-			mutator.accept(ringBuffer.get(end).get());
+			remaining -= n;
 		}
-		ringBuffer.publish(start, end);
 
 		return this;
 	}
@@ -205,6 +351,34 @@ public class Processor<T> implements Supplier<Operation<T>> {
 		return prepare();
 	}
 
+	@SuppressWarnings("unchecked")
+	private static <T> EventHandler<Operation<T>>[] newEventHandlers(int size) {
+		return (EventHandler<Operation<T>>[]) new EventHandler<?>[size];
+	}
+
+	@SuppressWarnings("unchecked")
+	private static <T> WorkHandler<Operation<T>>[] newWorkHandlers(int size) {
+		return (WorkHandler<Operation<T>>[]) new WorkHandler<?>[size];
+	}
+
+	private EventHandlerGroup<Operation<T>> handleWithWorkerPools(EventHandlerGroup<Operation<T>> previousStage,
+	                                                              List<Consumer<T>> stage,
+	                                                              int workers) {
+		EventHandlerGroup<Operation<T>> pools = null;
+		for(Consumer<T> consumer : stage) {
+			Assert.notNull(consumer, "Consumer cannot be null.");
+			WorkHandler<Operation<T>>[] handlers = newWorkHandlers(workers);
+			for(int i = 0; i < workers; i++) {
+				handlers[i] = new ConsumerWorkHandler<T>(consumer);
+			}
+			EventHandlerGroup<Operation<T>> pool = (null == previousStage
+					? disruptor.handleEventsWithWorkerPool(handlers)
+					: previousStage.thenHandleEventsWithWorkerPool(handlers));
+			pools = (null == pools ? pool : pools.and(pool));
+		}
+		return pools;
+	}
+
 	private static class ConsumerEventHandler<T> implements EventHandler<Operation<T>>, LifecycleAware {
 		final Consumer<T> consumer;
 		final boolean     isBatchConsumer;
@@ -234,10 +408,27 @@ public class Processor<T> implements Supplier<Operation<T>> {
 		}
 	}
 
-	private static class ConsumerExceptionHandler implements ExceptionHandler {
+	/*
+	 * Not LifecycleAware: every worker of a pool shares the same Consumer, so a BatchConsumer's start() and end() would
+	 * otherwise be called once per worker, concurrently.
+	 */
+	private static class ConsumerWorkHandler<T> implements WorkHandler<Operation<T>> {
+		final Consumer<T> consumer;
+
+		private ConsumerWorkHandler(Consumer<T> consumer) {
+			this.consumer = consumer;
+		}
+
+		@Override
+		public void onEvent(Operation<T> op) throws Exception {
+			consumer.accept(op.get());
+		}
+	}
+
+	static class ConsumerExceptionHandler implements ExceptionHandler {
 		final Registry<Consumer<Throwable>> errorConsumers;
 
-		private ConsumerExceptionHandler(Registry<Consumer<Throwable>> errorConsumers) {
+		ConsumerExceptionHandler(Registry<Consumer<Throwable>> errorConsumers) {
 			this.errorConsumers = errorConsumers;
 		}
 
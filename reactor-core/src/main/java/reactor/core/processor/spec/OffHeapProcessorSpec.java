@@ -0,0 +1,222 @@
+/*
+ * Copyright (c) 2011-2013 GoPivotal, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package reactor.core.processor.spec;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadFactory;
+
+import com.lmax.disruptor.WaitStrategy;
+import reactor.core.processor.Flyweight;
+import reactor.core.processor.OffHeapProcessor;
+import reactor.event.registry.CachingRegistry;
+import reactor.event.registry.Registry;
+import reactor.event.selector.Selectors;
+import reactor.function.Consumer;
+import reactor.function.Supplier;
+import reactor.util.Assert;
+
+/**
+ * Specification class to create {@link OffHeapProcessor OffHeapProcessors}.
+ *
+ * @param <F>
+ * 		the type of {@link Flyweight} used to access the records
+ */
+public class OffHeapProcessorSpec<F extends Flyweight> implements Supplier<OffHeapProcessor<F>> {
+
+	private Registry<Consumer<Throwable>> errorConsumers        = new CachingRegistry<Consumer<Throwable>>();
+	private boolean                       multiThreadedProducer = false;
+	private int                           dataBufferSize        = -1;
+	private int                           slotSize              = -1;
+	private WaitStrategy                  waitStrategy;
+	private ThreadFactory                 threadFactory;
+	private Executor                      executor;
+	private List<List<Consumer<F>>>       stages                = new ArrayList<List<Consumer<F>>>();
+	private Supplier<F> flyweights;
+	private Consumer<F> consumer;
+
+	/**
+	 * Protect against publication of records from multiple producer threads.
+	 *
+	 * @return {@literal this}
+	 */
+	public OffHeapProcessorSpec<F> multiThreadedProducer() {
+		this.multiThreadedProducer = true;
+		return this;
+	}
+
+	/**
+	 * Optimize for highest throughput by assuming only a single thread will be publishing records into this {@code
+	 * OffHeapProcessor}.
+	 *
+	 * @return {@literal this}
+	 */
+	public OffHeapProcessorSpec<F> singleThreadedProducer() {
+		this.multiThreadedProducer = false;
+		return this;
+	}
+
+	/**
+	 * How many slots the ring has. Must be a power of 2.
+	 *
+	 * @param dataBufferSize number of slots in the ring
+	 * @return {@literal this}
+	 */
+	public OffHeapProcessorSpec<F> dataBufferSize(int dataBufferSize) {
+		this.dataBufferSize = dataBufferSize;
+		return this;
+	}
+
+	/**
+	 * Access the records through the {@link Flyweight Flyweights} provided by the given {@link Supplier}, each record
+	 * taking up {@code slotSize} bytes of the ring.
+	 *
+	 * @param flyweights the {@link Supplier} to provide new {@code Flyweights}
+	 * @param slotSize   the size of a record, in bytes
+	 * @return {@literal this}
+	 */
+	public OffHeapProcessorSpec<F> flyweight(Supplier<F> flyweights, int slotSize) {
+		Assert.isNull(this.flyweights, "Flyweight Supplier is already set.");
+		this.flyweights = flyweights;
+		this.slotSize = slotSize;
+		return this;
+	}
+
+	/**
+	 * When a record is published into the {@code OffHeapProcessor}, invoke the given {@link Consumer} and pass it a
+	 * {@link Flyweight} positioned on the record. The {@code Consumer} runs after any {@link #stage(List) stages}.
+	 *
+	 * @param consumer the record {@code Consumer}
+	 * @return {@literal this}
+	 */
+	public OffHeapProcessorSpec<F> consume(Consumer<F> consumer) {
+		this.consumer = consumer;
+		return this;
+	}
+
+	/**
+	 * Add a stage of {@link Consumer Consumers} that handle the published records before the {@link #consume(Consumer)
+	 * consumer}.
+	 *
+	 * @param consumers the {@code Consumers} of the stage
+	 * @return {@literal this}
+	 * @see ProcessorSpec#stage(List)
+	 */
+	public OffHeapProcessorSpec<F> stage(List<Consumer<F>> consumers) {
+		Assert.notEmpty(consumers, "A stage must have at least one Consumer.");
+		for (Consumer<F> consumer : consumers) {
+			Assert.notNull(consumer, "Consumer cannot be null.");
+		}
+		stages.add(new ArrayList<Consumer<F>>(consumers));
+		return this;
+	}
+
+	/**
+	 * Add a stage with a single {@link Consumer}.
+	 *
+	 * @param consumer the {@code Consumer} of the stage
+	 * @return {@literal this}
+	 * @see #stage(List)
+	 */
+	public OffHeapProcessorSpec<F> stage(Consumer<F> consumer) {
+		return stage(Collections.singletonList(consumer));
+	}
+
+	/**
+	 * Add a stage with two {@link Consumer Consumers} that run in parallel.
+	 *
+	 * @param first  the first {@code Consumer} of the stage
+	 * @param second the second {@code Consumer} of the stage
+	 * @return {@literal this}
+	 * @see #stage(List)
+	 */
+	public OffHeapProcessorSpec<F> stage(Consumer<F> first, Consumer<F> second) {
+		List<Consumer<F>> consumers = new ArrayList<Consumer<F>>(2);
+		consumers.add(first);
+		consumers.add(second);
+		return stage(consumers);
+	}
+
+	/**
+	 * Use the given {@link WaitStrategy} for the consumers to wait for data.
+	 *
+	 * @param waitStrategy the {@code WaitStrategy} to use
+	 * @return {@literal this}
+	 * @see ProcessorSpec#waitStrategy(WaitStrategy)
+	 */
+	public OffHeapProcessorSpec<F> waitStrategy(WaitStrategy waitStrategy) {
+		this.waitStrategy = waitStrategy;
+		return this;
+	}
+
+	/**
+	 * Create the {@code OffHeapProcessor's} threads with the given {@link ThreadFactory}.
+	 *
+	 * @param threadFactory the {@code ThreadFactory} to use
+	 * @return {@literal this}
+	 * @see ProcessorSpec#threadFactory(ThreadFactory)
+	 */
+	public OffHeapProcessorSpec<F> threadFactory(ThreadFactory threadFactory) {
+		this.threadFactory = threadFactory;
+		return this;
+	}
+
+	/**
+	 * Run the consumers on threads of the given, possibly shared, {@link Executor}.
+	 *
+	 * @param executor the {@code Executor} to use
+	 * @return {@literal this}
+	 * @see ProcessorSpec#executor(Executor)
+	 */
+	public OffHeapProcessorSpec<F> executor(Executor executor) {
+		this.executor = executor;
+		return this;
+	}
+
+	/**
+	 * Assign the given {@link Consumer} as an error handler for exceptions of the given type.
+	 *
+	 * @param type          type of the exception to handle
+	 * @param errorConsumer exception {@code Consumer}
+	 * @return {@literal this}
+	 */
+	public OffHeapProcessorSpec<F> when(Class<? extends Throwable> type, Consumer<Throwable> errorConsumer) {
+		errorConsumers.register(Selectors.type(type), errorConsumer);
+		return this;
+	}
+
+	@Override
+	public OffHeapProcessor<F> get() {
+		List<List<Consumer<F>>> stages = new ArrayList<List<Consumer<F>>>(this.stages);
+		if (null != consumer) {
+			stages.add(Collections.singletonList(consumer));
+		}
+		return new OffHeapProcessor<F>(flyweights,
+		                               slotSize,
+		                               stages,
+		                               errorConsumers,
+		                               multiThreadedProducer,
+		                               dataBufferSize,
+		                               waitStrategy,
+		                               threadFactory,
+		                               executor);
+	}
+
+}
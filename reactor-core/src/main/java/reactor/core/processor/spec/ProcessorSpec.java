@@ -16,6 +16,13 @@
 
 package reactor.core.processor.spec;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadFactory;
+
+import com.lmax.disruptor.WaitStrategy;
 import reactor.core.processor.Processor;
 import reactor.event.registry.CachingRegistry;
 import reactor.event.registry.Registry;
@@ -34,6 +41,11 @@ public class ProcessorSpec<T> implements Supplier<Processor<T>> {
 	private Registry<Consumer<Throwable>> errorConsumers        = new CachingRegistry<Consumer<Throwable>>();
 	private boolean                       multiThreadedProducer = false;
 	private int                           dataBufferSize        = -1;
+	private int                           workers               = 1;
+	private WaitStrategy                  waitStrategy;
+	private ThreadFactory                 threadFactory;
+	private Executor                      executor;
+	private List<List<Consumer<T>>>       stages                = new ArrayList<List<Consumer<T>>>();
 	private Supplier<T> dataSupplier;
 	private Consumer<T> consumer;
 
@@ -83,7 +95,7 @@ public class ProcessorSpec<T> implements Supplier<Processor<T>> {
 
 	/**
 	 * When data is mutated and published into the {@code Processor}, invoke the given {@link Consumer} and pass the
-	 * mutated data.
+	 * mutated data. The {@code Consumer} runs after any {@link #stage(List) stages}.
 	 *
 	 * @param consumer the mutated event data {@code Consumer}
 	 * @return {@literal this}
@@ -93,6 +105,109 @@ public class ProcessorSpec<T> implements Supplier<Processor<T>> {
 		return this;
 	}
 
+	/**
+	 * Use the given {@link WaitStrategy} for the consumers to wait for data. The default {@link
+	 * com.lmax.disruptor.BlockingWaitStrategy} is the most frugal with CPU, while a {@link
+	 * com.lmax.disruptor.BusySpinWaitStrategy} gives the lowest latency as long as every consumer has a core of its own.
+	 *
+	 * @param waitStrategy the {@code WaitStrategy} to use
+	 * @return {@literal this}
+	 */
+	public ProcessorSpec<T> waitStrategy(WaitStrategy waitStrategy) {
+		this.waitStrategy = waitStrategy;
+		return this;
+	}
+
+	/**
+	 * Create the {@code Processor's} threads with the given {@link ThreadFactory}. This is where to give the threads
+	 * names, priorities or, using a suitable native library, CPU affinity, for instance to keep busy-spinning consumers
+	 * on cores of their own.
+	 *
+	 * @param threadFactory the {@code ThreadFactory} to use
+	 * @return {@literal this}
+	 */
+	public ProcessorSpec<T> threadFactory(ThreadFactory threadFactory) {
+		this.threadFactory = threadFactory;
+		return this;
+	}
+
+	/**
+	 * Run the consumers on threads of the given, possibly shared, {@link Executor} rather than on threads of the {@code
+	 * Processor's} own. Every consumer and worker occupies one of the {@code Executor's} threads for as long as the
+	 * {@code Processor} runs, so it must be able to supply enough threads. The {@code Executor} is not shut down with
+	 * the {@code Processor}.
+	 *
+	 * @param executor the {@code Executor} to use
+	 * @return {@literal this}
+	 */
+	public ProcessorSpec<T> executor(Executor executor) {
+		this.executor = executor;
+		return this;
+	}
+
+	/**
+	 * Share the data handled by the {@link #consume(Consumer) consumer} between a pool of {@code workers} threads, so that
+	 * it is handled in parallel rather than in order on a single thread. The consumer must be thread-safe. If it is a
+	 * {@link reactor.function.batch.BatchConsumer}, its {@code start()} and {@code end()} are not called, as there is no
+	 * single thread to call them from.
+	 *
+	 * @param workers the number of worker threads
+	 * @return {@literal this}
+	 */
+	public ProcessorSpec<T> workers(int workers) {
+		Assert.isTrue(workers > 0, "The number of workers must be greater than 0.");
+		this.workers = workers;
+		return this;
+	}
+
+	/**
+	 * Add a stage of {@link Consumer Consumers} that handle the published data before the {@link #consume(Consumer)
+	 * consumer}. Stages see each data object in the order they are added, and each {@code Consumer} of a stage runs on
+	 * its own thread, in parallel with the others of the same stage. For example, to decode data, then journal and
+	 * replicate it in parallel, then act on it:
+	 * <pre>
+	 * spec.stage(decoder).stage(journaller, replicator).consume(businessLogic)
+	 * </pre>
+	 * All the stages work on the same pre-allocated data objects, so no data is copied between them.
+	 *
+	 * @param consumers the {@code Consumers} of the stage
+	 * @return {@literal this}
+	 */
+	public ProcessorSpec<T> stage(List<Consumer<T>> consumers) {
+		Assert.notEmpty(consumers, "A stage must have at least one Consumer.");
+		for (Consumer<T> consumer : consumers) {
+			Assert.notNull(consumer, "Consumer cannot be null.");
+		}
+		stages.add(new ArrayList<Consumer<T>>(consumers));
+		return this;
+	}
+
+	/**
+	 * Add a stage with a single {@link Consumer}.
+	 *
+	 * @param consumer the {@code Consumer} of the stage
+	 * @return {@literal this}
+	 * @see #stage(List)
+	 */
+	public ProcessorSpec<T> stage(Consumer<T> consumer) {
+		return stage(Collections.singletonList(consumer));
+	}
+
+	/**
+	 * Add a stage with two {@link Consumer Consumers} that run in parallel.
+	 *
+	 * @param first  the first {@code Consumer} of the stage
+	 * @param second the second {@code Consumer} of the stage
+	 * @return {@literal this}
+	 * @see #stage(List)
+	 */
+	public ProcessorSpec<T> stage(Consumer<T> first, Consumer<T> second) {
+		List<Consumer<T>> consumers = new ArrayList<Consumer<T>>(2);
+		consumers.add(first);
+		consumers.add(second);
+		return stage(consumers);
+	}
+
 	/**
 	 * Assign the given {@link Consumer} as an error handler for exceptions of the given type.
 	 *
@@ -108,11 +223,20 @@ public class ProcessorSpec<T> implements Supplier<Processor<T>> {
 
 	@Override
 	public Processor<T> get() {
+		List<List<Consumer<T>>> stages = new ArrayList<List<Consumer<T>>>(this.stages);
+		if (null != consumer || stages.isEmpty()) {
+			stages.add(Collections.singletonList(consumer));
+		}
+		Assert.isTrue(workers == 1 || null != consumer, "Workers can only be used with a consumer.");
 		return new Processor<T>(dataSupplier,
-														consumer,
+														stages,
+														workers,
 														errorConsumers,
 														multiThreadedProducer,
-														dataBufferSize);
+														dataBufferSize,
+														waitStrategy,
+														threadFactory,
+														executor);
 	}
 
 }
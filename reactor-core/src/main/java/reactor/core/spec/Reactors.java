@@ -17,6 +17,7 @@
 package reactor.core.spec;
 
 import reactor.core.Observable;
+import reactor.core.Reactor;
 import reactor.event.Event;
 import reactor.function.Consumer;
 import reactor.tuple.Tuple;
@@ -47,8 +48,13 @@ public abstract class Reactors {
 	 * @param data       The data to pass to the consumer.
 	 * @param observable The {@literal Observable} that will be used to invoke the {@literal Consumer}
 	 * @param <T>        The type of the data.
+	 * @see Reactor#schedule(reactor.function.Consumer, Object)
 	 */
 	public static <T> void schedule(final Consumer<T> consumer, T data, Observable observable) {
-		observable.notify(Event.wrap(Tuple.of(consumer, data)));
+		if (observable instanceof Reactor) {
+			((Reactor) observable).schedule(consumer, data);
+		} else {
+			observable.notify(Event.wrap(Tuple.of(consumer, data)));
+		}
 	}
 }
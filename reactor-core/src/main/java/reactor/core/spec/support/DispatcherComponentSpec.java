@@ -17,8 +17,10 @@
 package reactor.core.spec.support;
 
 import reactor.core.Environment;
+import reactor.event.dispatch.ConflatingDispatcher;
 import reactor.event.dispatch.Dispatcher;
 import reactor.event.dispatch.SynchronousDispatcher;
+import reactor.event.selector.Selector;
 import reactor.function.Supplier;
 
 /**
@@ -36,6 +38,7 @@ public abstract class DispatcherComponentSpec<SPEC extends DispatcherComponentSp
 
 	private Environment env;
 	private Dispatcher  dispatcher;
+	private Selector    conflate;
 
 	/**
 	 * Configures the spec, and potentially the component being configured, to use the given
@@ -107,9 +110,25 @@ public abstract class DispatcherComponentSpec<SPEC extends DispatcherComponentSp
 		return (SPEC) this;
 	}
 
+	/**
+	 * Configures the component to only deliver the latest event for each key matched by the given selector, dropping
+	 * events that are superseded by a newer one with the same key before they could be delivered
+	 *
+	 * @param keys The selector that matches the keys whose events may be conflated
+	 *
+	 * @return {@code this}
+	 *
+	 * @see ConflatingDispatcher
+	 */
+	public final SPEC conflate(Selector keys) {
+		this.conflate = keys;
+		return (SPEC) this;
+	}
+
 	@Override
 	public final TARGET get() {
-		return configure(getDispatcher(), this.env);
+		Dispatcher dispatcher = getDispatcher();
+		return configure((null != conflate ? new ConflatingDispatcher(dispatcher, conflate) : dispatcher), this.env);
 	}
 
 	private final Dispatcher getDispatcher() {
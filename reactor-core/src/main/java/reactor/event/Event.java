@@ -24,6 +24,10 @@ import java.util.List;
 import java.util.Map;
 import java.util.TreeMap;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
 
 import reactor.function.Consumer;
 import reactor.tuple.Tuple;
@@ -46,6 +50,10 @@ public class Event<T> implements Serializable {
 	 */
 	public static final Event<Void> NULL_EVENT = new Event<Void>(null);
 
+	@SuppressWarnings("rawtypes")
+	private static final AtomicReferenceFieldUpdater<Event, Headers> HEADERS =
+			AtomicReferenceFieldUpdater.newUpdater(Event.class, Headers.class, "headers");
+
 	private volatile UUID    id;
 	private volatile Headers headers;
 	private volatile Object  replyTo;
@@ -130,13 +138,74 @@ public class Event<T> implements Serializable {
 	 *
 	 * @return The Event's Headers
 	 */
-	public synchronized Headers getHeaders() {
+	public Headers getHeaders() {
+		Headers headers = this.headers;
 		if (null == headers) {
 			headers = new Headers();
+			if (!HEADERS.compareAndSet(this, null, headers)) {
+				headers = this.headers;
+			}
 		}
 		return headers;
 	}
 
+	/**
+	 * Get the value of a header of this event. Unlike going through {@link #getHeaders()}, this doesn't create the
+	 * event's headers if it has none, which makes it the cheaper choice on a hot path.
+	 *
+	 * @param name The header name
+	 *
+	 * @return The value of the header, or {@code null} if none exists
+	 */
+	public String getHeader(String name) {
+		Headers headers = this.headers;
+		return (null != headers ? headers.get(name) : null);
+	}
+
+	/**
+	 * Give this event a deadline, the given amount of time from now, after which it is no longer worth processing. An
+	 * expired event is dropped by dispatchers and event routers instead of being passed to its consumers.
+	 *
+	 * @param ttl      How long the event is worth processing for
+	 * @param timeUnit The unit of {@code ttl}
+	 * @return {@literal this}
+	 * @see Headers#DEADLINE
+	 */
+	public Event<T> setTimeToLive(long ttl, TimeUnit timeUnit) {
+		getHeaders().setDeadline(System.currentTimeMillis() + timeUnit.toMillis(ttl));
+		return this;
+	}
+
+	/**
+	 * Get the deadline of this event.
+	 *
+	 * @return The deadline, in milliseconds since the epoch, or {@literal 0} if the event has none
+	 * @see Headers#DEADLINE
+	 */
+	public long getDeadline() {
+		String deadline = getHeader(Headers.DEADLINE);
+		if (null == deadline) {
+			return 0;
+		}
+		try {
+			return Long.parseLong(deadline);
+		} catch (NumberFormatException e) {
+			return 0;
+		}
+	}
+
+	/**
+	 * Whether the deadline of this event has passed.
+	 *
+	 * @return {@literal true} if the event has a deadline and it has passed, {@literal false} otherwise
+	 * @see #setTimeToLive(long, TimeUnit)
+	 */
+	public boolean isExpired() {
+		long deadline = getDeadline();
+		// Read the system clock rather than the cached one, which is only as precise as a timer tick
+		return deadline > 0 && System.currentTimeMillis() > deadline;
+	}
+
 	/**
 	 * Get the key to send replies to.
 	 *
@@ -197,11 +266,13 @@ public class Event<T> implements Serializable {
 	}
 
 	/**
-	 * Create a copy of this event, reusing same headers and replyTo
+	 * Create a copy of this event, reusing same headers and replyTo. The copy's headers share their storage with
+	 * this event's headers until either of them is modified.
 	 *
 	 * @return {@literal event copy}
 	 */
 	public <E> Event<E> copy(E data) {
+		Headers headers = (null != this.headers ? this.headers.copy() : null);
 		if (null != replyTo)
 			return new Event<E>(headers, data, errorConsumer).setReplyTo(replyTo);
 		else
@@ -219,6 +290,46 @@ public class Event<T> implements Serializable {
 	  }
   }
 
+	/**
+	 * Get the id of this event, without creating one if it has none yet.
+	 *
+	 * @return the id, or {@code null}
+	 */
+	UUID peekId() {
+		return id;
+	}
+
+	/**
+	 * Get the headers of this event, without creating them if it has none yet.
+	 *
+	 * @return the headers, or {@code null}
+	 */
+	Headers peekHeaders() {
+		return headers;
+	}
+
+	/**
+	 * Restore the id of an event that has been read back, as by an {@link EventSerializer}.
+	 *
+	 * @param id the id
+	 */
+	void setId(UUID id) {
+		this.id = id;
+	}
+
+	/**
+	 * Clear the id, headers, reply-to key and data of this event so that the instance can be reused. Only pooled
+	 * events, which are never handed out while they're still referenced, should ever be recycled.
+	 *
+	 * @see reactor.event.support.PooledEvent
+	 */
+	protected void recycle() {
+		id = null;
+		headers = null;
+		replyTo = null;
+		data = null;
+	}
+
 
 	@Override
 	public String toString() {
@@ -234,6 +345,11 @@ public class Event<T> implements Serializable {
 	 * Headers are a Map-like structure of name-value pairs. Header names are case-insensitive,
 	 * as determined by {@link String#CASE_INSENSITIVE_ORDER}. A header can be removed by
 	 * setting its value to {@code null}.
+	 * <p>
+	 * The name-value pairs are kept in a single, compact array that is never modified once it
+	 * has been published. Reads are therefore unsynchronized, writes atomically swap in an
+	 * updated copy of the array, and {@link #copy() copies} share the array until either side
+	 * is written to.
 	 */
 	public static class Headers implements Serializable, Iterable<Tuple2<String, String>> {
 
@@ -246,19 +362,34 @@ public class Event<T> implements Serializable {
 		 */
 		public static final String ORIGIN = "x-reactor-origin";
 
-		private static final long serialVersionUID = 4984692586458514948L;
+		/**
+		 * The name of the priority header, read by a {@link reactor.event.dispatch.PriorityDispatcher} to choose the
+		 * lane of an event
+		 */
+		public static final String PRIORITY = "x-reactor-priority";
 
-		private final Object monitor = UUIDUtils.create();
-		private final Map<String, String> headers;
+		/**
+		 * The name of the deadline header, the time in milliseconds since the epoch after which the event is no longer
+		 * worth processing
+		 */
+		public static final String DEADLINE = "x-reactor-deadline";
 
-		private Headers(boolean sealed, Map<String, String> headers) {
-			Map<String, String> copy = new TreeMap<String, String>(String.CASE_INSENSITIVE_ORDER);
-			copyHeaders(headers, copy);
-			if (sealed) {
-				this.headers = Collections.unmodifiableMap(copy);
-			} else {
-				this.headers = copy;
-			}
+		private static final long serialVersionUID = -2309738216637513519L;
+
+		private static final String[] EMPTY              = new String[0];
+		private static final int      MAX_INTERNED_NAMES = 1024;
+
+		private static final ConcurrentMap<String, String>                 NAMES   =
+				new ConcurrentHashMap<String, String>();
+		private static final AtomicReferenceFieldUpdater<Headers, String[]> ENTRIES =
+				AtomicReferenceFieldUpdater.newUpdater(Headers.class, String[].class, "entries");
+
+		private final    boolean  sealed;
+		private volatile String[] entries;
+
+		private Headers(boolean sealed, String[] entries) {
+			this.sealed = sealed;
+			this.entries = entries;
 		}
 
 		/**
@@ -269,14 +400,14 @@ public class Event<T> implements Serializable {
 		 * @param headers The map to copy.
 		 */
 		public Headers(Map<String, String> headers) {
-			this(false, headers);
+			this(false, (null == headers ? EMPTY : setAll(EMPTY, headers)));
 		}
 
 		/**
 		 * Create an empty Headers
 		 */
 		public Headers() {
-			this(false, null);
+			this(false, EMPTY);
 		}
 
 		/**
@@ -290,12 +421,15 @@ public class Event<T> implements Serializable {
 		public Headers setAll(Map<String, String> headers) {
 			if (null == headers || headers.isEmpty()) {
 				return this;
-			} else {
-				synchronized (this.monitor) {
-					copyHeaders(headers, this.headers);
+			}
+			assertNotSealed();
+			for (; ; ) {
+				String[] current = entries;
+				String[] updated = setAll(current, headers);
+				if (updated == current || ENTRIES.compareAndSet(this, current, updated)) {
+					return this;
 				}
 			}
-			return this;
 		}
 
 		/**
@@ -307,10 +441,14 @@ public class Event<T> implements Serializable {
 		 * @return {@code this}
 		 */
 		public Headers set(String name, String value) {
-			synchronized (this.monitor) {
-				setHeader(name, value, headers);
+			assertNotSealed();
+			for (; ; ) {
+				String[] current = entries;
+				String[] updated = set(current, name, value);
+				if (updated == current || ENTRIES.compareAndSet(this, current, updated)) {
+					return this;
+				}
 			}
-			return this;
 		}
 
 		/**
@@ -333,10 +471,17 @@ public class Event<T> implements Serializable {
 		 * @return {@code this}
 		 */
 		public Headers setOrigin(String id) {
-			synchronized (this.monitor) {
-				setHeader(ORIGIN, id, headers);
-			}
-			return this;
+			return set(ORIGIN, id);
+		}
+
+		/**
+		 * Set the deadline header. If {@code deadline} is {@literal 0} the deadline header will be removed.
+		 *
+		 * @param deadline The time in milliseconds since the epoch after which the event is no longer worth processing
+		 * @return {@code this}
+		 */
+		public Headers setDeadline(long deadline) {
+			return set(DEADLINE, (deadline > 0 ? String.valueOf(deadline) : null));
 		}
 
 		/**
@@ -345,9 +490,7 @@ public class Event<T> implements Serializable {
 		 * @return The origin header, may be {@code null}.
 		 */
 		public String getOrigin() {
-			synchronized (this.monitor) {
-				return headers.get(ORIGIN);
-			}
+			return get(ORIGIN);
 		}
 
 		/**
@@ -357,9 +500,9 @@ public class Event<T> implements Serializable {
 		 * @return The value of the header, or {@code null} if none exists.
 		 */
 		public String get(String name) {
-			synchronized (monitor) {
-				return headers.get(name);
-			}
+			String[] entries = this.entries;
+			int idx = indexOf(entries, name);
+			return (idx < 0 ? null : entries[idx + 1]);
 		}
 
 		/**
@@ -369,20 +512,21 @@ public class Event<T> implements Serializable {
 		 * @return {@code true} if a value exists, {@code false} otherwise.
 		 */
 		public boolean contains(String name) {
-			synchronized (monitor) {
-				return headers.containsKey(name);
-			}
+			return indexOf(entries, name) >= 0;
 		}
 
 		/**
-		 * Get these headers as an unmodifiable {@link Map}.
+		 * Get a snapshot of these headers as an unmodifiable {@link Map}.
 		 *
 		 * @return The unmodifiable header map
 		 */
 		public Map<String, String> asMap() {
-			synchronized (monitor) {
-				return Collections.unmodifiableMap(headers);
+			String[] entries = this.entries;
+			Map<String, String> map = new TreeMap<String, String>(String.CASE_INSENSITIVE_ORDER);
+			for (int i = 0; i < entries.length; i += 2) {
+				map.put(entries[i], entries[i + 1]);
 			}
+			return Collections.unmodifiableMap(map);
 		}
 
 		/**
@@ -391,9 +535,17 @@ public class Event<T> implements Serializable {
 		 * @return A read-only version of the headers.
 		 */
 		public Headers readOnly() {
-			synchronized (monitor) {
-				return new Headers(true, headers);
-			}
+			return new Headers(true, entries);
+		}
+
+		/**
+		 * Create a writable copy of these headers. The copy shares its storage with this instance
+		 * until either of them is modified, so copying is cheap.
+		 *
+		 * @return A copy of the headers.
+		 */
+		public Headers copy() {
+			return new Headers(false, entries);
 		}
 
 		/**
@@ -401,29 +553,86 @@ public class Event<T> implements Serializable {
 		 */
 		@Override
 		public Iterator<Tuple2<String, String>> iterator() {
-			synchronized (this.monitor) {
-				List<Tuple2<String, String>> headers = new ArrayList<Tuple2<String, String>>(this.headers.size());
-				for (Map.Entry<String, String> header : this.headers.entrySet()) {
-					headers.add(Tuple.of(header.getKey(), header.getValue()));
-				}
-				return Collections.unmodifiableList(headers).iterator();
+			String[] entries = this.entries;
+			List<Tuple2<String, String>> headers = new ArrayList<Tuple2<String, String>>(entries.length / 2);
+			for (int i = 0; i < entries.length; i += 2) {
+				headers.add(Tuple.of(entries[i], entries[i + 1]));
 			}
+			return Collections.unmodifiableList(headers).iterator();
 		}
 
-		private void copyHeaders(Map<String, String> source, Map<String, String> target) {
-			if (source != null) {
-				for (Map.Entry<String, String> entry : source.entrySet()) {
-					setHeader(entry.getKey(), entry.getValue(), target);
-				}
+		@Override
+		public String toString() {
+			return asMap().toString();
+		}
+
+		private void assertNotSealed() {
+			if (sealed) {
+				throw new UnsupportedOperationException("These Headers are read-only");
+			}
+		}
+
+		private static String[] setAll(String[] source, Map<String, String> headers) {
+			String[] target = source;
+			for (Map.Entry<String, String> entry : headers.entrySet()) {
+				target = set(target, entry.getKey(), entry.getValue());
 			}
+			return target;
 		}
 
-		private void setHeader(String name, String value, Map<String, String> target) {
+		private static String[] set(String[] source, String name, String value) {
+			int idx = indexOf(source, name);
+			String[] target;
 			if (value == null) {
-				target.remove(name);
+				if (idx < 0) {
+					return source;
+				}
+				target = new String[source.length - 2];
+				System.arraycopy(source, 0, target, 0, idx);
+				System.arraycopy(source, idx + 2, target, idx, source.length - idx - 2);
+			} else if (idx < 0) {
+				target = new String[source.length + 2];
+				System.arraycopy(source, 0, target, 0, source.length);
+				target[source.length] = intern(name);
+				target[source.length + 1] = value;
 			} else {
-				target.put(name, value);
+				if (value.equals(source[idx + 1])) {
+					return source;
+				}
+				target = source.clone();
+				target[idx + 1] = value;
+			}
+			return target;
+		}
+
+		private static int indexOf(String[] entries, String name) {
+			for (int i = 0; i < entries.length; i += 2) {
+				if (entries[i] == name) {
+					return i;
+				}
+			}
+			for (int i = 0; i < entries.length; i += 2) {
+				if (entries[i].equalsIgnoreCase(name)) {
+					return i;
+				}
+			}
+			return -1;
+		}
+
+		/*
+		 * Header names come from a small, mostly fixed vocabulary, so share a single instance of each name between
+		 * all Headers. This saves memory for retained events and lets most lookups succeed on an identity check.
+		 */
+		private static String intern(String name) {
+			String interned = NAMES.get(name);
+			if (null != interned) {
+				return interned;
+			}
+			if (NAMES.size() >= MAX_INTERNED_NAMES) {
+				return name;
 			}
+			interned = NAMES.putIfAbsent(name, name);
+			return (null != interned ? interned : name);
 		}
 	}
 
@@ -0,0 +1,81 @@
+/*
+ * Copyright (c) 2011-2013 GoPivotal, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package reactor.event;
+
+import java.util.Map;
+import java.util.UUID;
+
+import reactor.io.Buffer;
+import reactor.io.CodecRegistry;
+import reactor.io.Serializer;
+
+/**
+ * A {@link Serializer} for {@link Event Events}, which writes an event's id and headers only if it has any, and its
+ * reply-to key and data through the {@link CodecRegistry}. An event's error {@link reactor.function.Consumer} is not
+ * written, as with Java serialization. Events are always read back as plain {@link Event Events}.
+ */
+public class EventSerializer implements Serializer<Event<?>> {
+
+	private static final int HAS_ID      = 1;
+	private static final int HAS_HEADERS = 1 << 1;
+
+	@Override
+	public void write(Event<?> ev, Buffer out, CodecRegistry registry) {
+		UUID id = ev.peekId();
+		Event.Headers headers = ev.peekHeaders();
+		out.append((byte)((null != id ? HAS_ID : 0) | (null != headers ? HAS_HEADERS : 0)));
+		if(null != id) {
+			out.append(id.getMostSignificantBits());
+			out.append(id.getLeastSignificantBits());
+		}
+		if(null != headers) {
+			Map<String, String> entries = headers.asMap();
+			out.appendVarLong(entries.size());
+			for(Map.Entry<String, String> header : entries.entrySet()) {
+				CodecRegistry.writeString(header.getKey(), out);
+				CodecRegistry.writeString(header.getValue(), out);
+			}
+		}
+		registry.write(ev.getReplyTo(), out);
+		registry.write(ev.getData(), out);
+	}
+
+	@Override
+	public Event<?> read(Buffer in, CodecRegistry registry) {
+		int flags = in.read();
+		UUID id = null;
+		if((flags & HAS_ID) != 0) {
+			id = new UUID(in.readLong(), in.readLong());
+		}
+		Event.Headers headers = null;
+		if((flags & HAS_HEADERS) != 0) {
+			headers = new Event.Headers();
+			for(long count = in.readVarLong(); count > 0; count--) {
+				headers.set(CodecRegistry.readString(in), CodecRegistry.readString(in));
+			}
+		}
+		Object replyTo = registry.read(in);
+		Event<Object> ev = new Event<Object>(headers, registry.read(in));
+		if(null != replyTo) {
+			ev.setReplyTo(replyTo);
+		}
+		ev.setId(id);
+		return ev;
+	}
+
+}
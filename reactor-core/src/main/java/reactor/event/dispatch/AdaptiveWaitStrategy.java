@@ -0,0 +1,108 @@
+/*
+ * Copyright (c) 2011-2013 GoPivotal, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package reactor.event.dispatch;
+
+import com.lmax.disruptor.AlertException;
+import com.lmax.disruptor.Sequence;
+import com.lmax.disruptor.SequenceBarrier;
+import com.lmax.disruptor.WaitStrategy;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * A {@link WaitStrategy} that spins, then yields, then blocks, tuning how long each phase lasts from how long the
+ * consumer has had to wait in the past. Publishers only take the lock to signal the consumer when it has asked to be
+ * signalled before blocking, so under load this strategy costs about as much as a yielding one, while an idle consumer
+ * doesn't keep a core busy.
+ * <p>
+ * Only supports a ring buffer with a single consumer, as is the case in a {@link RingBufferDispatcher}. A {@link
+ * reactor.core.processor.Processor} rejects it when it has more than one.
+ * </p>
+ */
+public final class AdaptiveWaitStrategy implements WaitStrategy {
+
+	private final PhasedBackoff backoff      = new PhasedBackoff();
+	private final Lock          lock         = new ReentrantLock();
+	private final Condition     available    = lock.newCondition();
+	private final AtomicBoolean signalNeeded = new AtomicBoolean();
+
+	@Override
+	public long waitFor(long sequence, Sequence cursor, Sequence dependentSequence, SequenceBarrier barrier)
+			throws AlertException, InterruptedException {
+		long availableSequence;
+		if((availableSequence = dependentSequence.get()) >= sequence) {
+			return availableSequence;
+		}
+
+		long start = System.nanoTime();
+		try {
+			for(; ; ) {
+				barrier.checkAlert();
+				if((availableSequence = dependentSequence.get()) >= sequence) {
+					return availableSequence;
+				}
+
+				switch(backoff.phase(System.nanoTime() - start)) {
+					case SPIN:
+						break;
+					case YIELD:
+						Thread.yield();
+						break;
+					default:
+						block(sequence, cursor, barrier);
+				}
+			}
+		} finally {
+			backoff.observe(System.nanoTime() - start);
+		}
+	}
+
+	@Override
+	public void signalAllWhenBlocking() {
+		if(signalNeeded.getAndSet(false)) {
+			lock.lock();
+			try {
+				available.signalAll();
+			} finally {
+				lock.unlock();
+			}
+		}
+	}
+
+	private void block(long sequence, Sequence cursor, SequenceBarrier barrier)
+			throws AlertException, InterruptedException {
+		lock.lock();
+		try {
+			for(; ; ) {
+				// Both sides read-modify-write the flag, which orders it with the cursor: either the publisher sees
+				// the request and signals once we await, or we see the cursor it moved before clearing the flag
+				signalNeeded.getAndSet(true);
+				if(cursor.get() >= sequence) {
+					break;
+				}
+				barrier.checkAlert();
+				available.await();
+			}
+		} finally {
+			lock.unlock();
+		}
+	}
+
+}
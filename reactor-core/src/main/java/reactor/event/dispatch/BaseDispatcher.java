@@ -19,10 +19,21 @@ package reactor.event.dispatch;
 import reactor.event.Event;
 import reactor.event.registry.Registry;
 import reactor.event.routing.EventRouter;
+import reactor.event.support.PooledEvent;
 import reactor.function.Consumer;
 
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
 abstract class BaseDispatcher implements Dispatcher {
 
+	private final AtomicLong expired = new AtomicLong();
+
+	private volatile LoadShedding loadShedding;
+	private volatile Object       expiryKey;
+
 	@Override
 	public <E extends Event<?>> void dispatch(E event,
 																						EventRouter eventRouter,
@@ -41,21 +52,66 @@ abstract class BaseDispatcher implements Dispatcher {
 		if (!alive()) {
 			throw new IllegalStateException("This Dispatcher has been shutdown");
 		}
+		PooledEvent<?> pooled = null;
+		if (event instanceof PooledEvent) {
+			// Hold on to the event until it has been routed, the producer may release it as soon as we return
+			pooled = ((PooledEvent<?>) event).retain();
+		}
 
-		Task<E> task = createTask();
+		Task<E> task = null;
+		try {
+			task = createTask();
+
+			if (null != loadShedding) {
+				task.setDispatchedNanos(System.nanoTime());
+			}
+			task.setKey(key);
+			task.setEvent(event);
+			task.setConsumerRegistry(consumerRegistry);
+			task.setErrorConsumer(errorConsumer);
+			task.setEventRouter(eventRouter);
+			task.setCompletionConsumer(completionConsumer);
+			task.setRetained(pooled);
+
+			task.submit();
+		} catch (RuntimeException e) {
+			// The task was never run, or was run and has released the event already
+			if (null != pooled && (null == task || task.release(pooled))) {
+				pooled.release();
+			}
+			throw e;
+		}
+	}
+
+	void setLoadShedding(CoDel coDel, Object deadLetterKey) {
+		this.loadShedding = (null != coDel ? new LoadShedding(coDel, deadLetterKey) : null);
+	}
 
-		task.setKey(key);
-		task.setEvent(event);
-		task.setConsumerRegistry(consumerRegistry);
-		task.setErrorConsumer(errorConsumer);
-		task.setEventRouter(eventRouter);
-		task.setCompletionConsumer(completionConsumer);
+	CoDel getCoDel() {
+		LoadShedding ls = loadShedding;
+		return (null != ls ? ls.coDel : null);
+	}
 
-		task.submit();
+	void setExpiryKey(Object expiryKey) {
+		this.expiryKey = expiryKey;
+	}
+
+	long getExpiredCount() {
+		return expired.get();
 	}
 
 	protected abstract <E extends Event<?>> Task<E> createTask();
 
+	private static final class LoadShedding {
+		private final CoDel  coDel;
+		private final Object deadLetterKey;
+
+		private LoadShedding(CoDel coDel, Object deadLetterKey) {
+			this.coDel = coDel;
+			this.deadLetterKey = deadLetterKey;
+		}
+	}
+
 	protected abstract class Task<E extends Event<?>> {
 
 		private volatile Object                                 key;
@@ -64,6 +120,8 @@ abstract class BaseDispatcher implements Dispatcher {
 		private volatile Consumer<E>                            completionConsumer;
 		private volatile Consumer<Throwable>                    errorConsumer;
 		private volatile EventRouter                            eventRouter;
+		private volatile long                                   dispatchedNanos;
+		private final    AtomicReference<PooledEvent<?>>        retained = new AtomicReference<PooledEvent<?>>();
 
 		Task<E> setKey(Object key) {
 			this.key = key;
@@ -95,22 +153,96 @@ abstract class BaseDispatcher implements Dispatcher {
 			return this;
 		}
 
+		Task<E> setRetained(PooledEvent<?> retained) {
+			this.retained.set(retained);
+			return this;
+		}
+
+		boolean release(PooledEvent<?> event) {
+			return retained.compareAndSet(event, null);
+		}
+
+		Task<E> setDispatchedNanos(long dispatchedNanos) {
+			this.dispatchedNanos = dispatchedNanos;
+			return this;
+		}
+
+		Object getKey() {
+			return key;
+		}
+
+		E getEvent() {
+			return event;
+		}
+
 		protected void reset() {
 			key = null;
 			consumerRegistry = null;
 			event = null;
 			completionConsumer = null;
 			errorConsumer = null;
+			dispatchedNanos = 0;
 		}
 
 		protected abstract void submit();
 
 		protected void execute() {
-			eventRouter.route(key,
-												event,
-												(null != consumerRegistry ? consumerRegistry.select(key) : null),
-												completionConsumer,
-												errorConsumer);
+			try {
+				if (null != event && event.isExpired()) {
+					expire();
+					return;
+				}
+				LoadShedding ls = loadShedding;
+				long sojourn;
+				if (null != ls && dispatchedNanos != 0 && canShed(ls.deadLetterKey)
+						&& ls.coDel.shouldShed(sojourn = System.nanoTime() - dispatchedNanos)) {
+					shed(ls.deadLetterKey, sojourn);
+					return;
+				}
+				eventRouter.route(key,
+													event,
+													(null != consumerRegistry ? consumerRegistry.select(key) : null),
+													completionConsumer,
+													errorConsumer);
+			} finally {
+				PooledEvent<?> pooled = retained.getAndSet(null);
+				if (null != pooled) {
+					pooled.release();
+				}
+			}
+		}
+
+		private void expire() {
+			expired.incrementAndGet();
+			Object expiryKey = BaseDispatcher.this.expiryKey;
+			if (null == expiryKey || null == consumerRegistry) {
+				return;
+			}
+			// Route a copy without the deadline, or the router would drop it as well
+			Event<?> ev = event.copy();
+			ev.getHeaders().setDeadline(0);
+			eventRouter.route(expiryKey, ev, consumerRegistry.select(expiryKey), null, errorConsumer);
+		}
+
+		private boolean canShed(Object deadLetterKey) {
+			// Never shed an event silently, such as an error that is being reported
+			return (null != deadLetterKey && null != consumerRegistry)
+					|| null != errorConsumer
+					|| null != event.getErrorConsumer();
+		}
+
+		private void shed(Object deadLetterKey, long sojourn) {
+			if (null != deadLetterKey && null != consumerRegistry) {
+				eventRouter.route(deadLetterKey, event, consumerRegistry.select(deadLetterKey), null, errorConsumer);
+				return;
+			}
+			RejectedExecutionException e = new RejectedExecutionException(
+					"Event for key " + key + " shed after waiting " + TimeUnit.NANOSECONDS.toMillis(sojourn) + "ms");
+			if (null != event.getErrorConsumer()) {
+				event.consumeError(e);
+			} else if (null != errorConsumer) {
+				errorConsumer.accept(e);
+			}
 		}
 	}
 
@@ -0,0 +1,230 @@
+/*
+ * Copyright (c) 2011-2013 GoPivotal, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package reactor.event.dispatch;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import reactor.cache.Cache;
+import reactor.cache.ObjectPool;
+import reactor.event.Event;
+import reactor.function.Consumer;
+import reactor.function.Supplier;
+import reactor.queue.MpscArrayQueue;
+import reactor.support.NamedDaemonThreadFactory;
+import reactor.util.Assert;
+
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Base implementation of an event loop {@link Dispatcher} whose single thread drains one or more bounded {@link
+ * MpscArrayQueue MpscArrayQueues} of tasks and, when there is nothing left to do, idles according to an {@link
+ * IdleStrategy}. Subclasses decide which queue each task goes to and how the queues are drained.
+ * <p>
+ * When a queue is full, producers yield until there is room in it again. A task that is submitted to a full queue from
+ * the event loop's own thread is executed straight away, as waiting for the loop to make room would never end. A
+ * producer waiting for room when the dispatcher is shut down or halted gets a {@link RejectedExecutionException}.
+ * </p>
+ * <p>
+ * Subclasses must call {@link #startEventLoop()} once they have been fully constructed.
+ * </p>
+ */
+@SuppressWarnings("rawtypes")
+abstract class BaseEventLoopDispatcher extends BaseLifecycleDispatcher {
+
+	private final Logger         log          = LoggerFactory.getLogger(getClass());
+	private final Consumer<Task> taskExecutor = new Consumer<Task>() {
+		@Override
+		public void accept(Task t) {
+			run(t);
+		}
+	};
+	private final Cache<Task>  readyTasks;
+	private final IdleStrategy idleStrategy;
+	private final Thread       loopThread;
+
+	private volatile boolean waiting = false;
+	private volatile boolean halted  = false;
+
+	/**
+	 * Creates a new {@literal BaseEventLoopDispatcher}.
+	 *
+	 * @param threadName
+	 * 		The prefix of the name of the event loop's thread
+	 * @param idleStrategy
+	 * 		What to do when there are no tasks to execute
+	 * @param backlog
+	 * 		The number of tasks to preload the task pool with
+	 * @param maxReadyTasks
+	 * 		The maximum number of idle tasks to keep in the task pool
+	 */
+	protected BaseEventLoopDispatcher(String threadName, IdleStrategy idleStrategy, int backlog, int maxReadyTasks) {
+		Assert.notNull(idleStrategy, "IdleStrategy cannot be null.");
+		this.readyTasks = new ObjectPool<Task>(
+				new Supplier<Task>() {
+					@Override
+					public Task get() {
+						return new EventLoopTask();
+					}
+				},
+				backlog,
+				maxReadyTasks
+		);
+		this.idleStrategy = idleStrategy;
+		this.loopThread = new NamedDaemonThreadFactory(threadName).newThread(new EventLoop());
+	}
+
+	@Override
+	public boolean awaitAndShutdown(long timeout, TimeUnit timeUnit) {
+		long deadline = System.nanoTime() + timeUnit.toNanos(timeout);
+		while(!isEmpty()) {
+			if(System.nanoTime() - deadline >= 0) {
+				shutdown();
+				return false;
+			}
+			LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(1));
+			if(Thread.interrupted()) {
+				Thread.currentThread().interrupt();
+				return false;
+			}
+		}
+		shutdown();
+		return true;
+	}
+
+	@Override
+	public void shutdown() {
+		super.shutdown();
+		LockSupport.unpark(loopThread);
+	}
+
+	@Override
+	public void halt() {
+		halted = true;
+		super.halt();
+		LockSupport.unpark(loopThread);
+	}
+
+	@SuppressWarnings("unchecked")
+	@Override
+	protected <E extends Event<?>> Task<E> createTask() {
+		return readyTasks.allocate();
+	}
+
+	/**
+	 * Start the event loop's thread.
+	 */
+	protected final void startEventLoop() {
+		loopThread.start();
+	}
+
+	/**
+	 * Get the queue the given task should be submitted to.
+	 *
+	 * @param task
+	 * 		The task to submit
+	 *
+	 * @return the task's queue
+	 */
+	protected abstract MpscArrayQueue<Task> queueFor(Task task);
+
+	/**
+	 * Execute the next batch of tasks from the queues.
+	 *
+	 * @param executor
+	 * 		Executes a task and returns it to the pool
+	 *
+	 * @return the number of tasks executed
+	 */
+	protected abstract int drain(Consumer<Task> executor);
+
+	/**
+	 * Whether all the queues are empty.
+	 *
+	 * @return {@literal true} if there are no tasks waiting, {@literal false} otherwise
+	 */
+	protected abstract boolean isEmpty();
+
+	private void run(Task t) {
+		try {
+			t.execute();
+		} catch(Exception e) {
+			if(log.isErrorEnabled()) {
+				log.error(e.getMessage(), e);
+			}
+		} finally {
+			t.reset();
+			readyTasks.deallocate(t);
+		}
+	}
+
+	private class EventLoopTask<E extends Event<?>> extends Task<E> {
+		@Override
+		public void submit() {
+			MpscArrayQueue<Task> queue = queueFor(this);
+			if(!queue.offer(this)) {
+				if(Thread.currentThread() == loopThread) {
+					run(this);
+					return;
+				}
+				do {
+					if(halted || !alive()) {
+						// The loop has stopped, or will once it has drained the queues, so it may never make room
+						reset();
+						readyTasks.deallocate(this);
+						throw new RejectedExecutionException("This Dispatcher has been shutdown");
+					}
+					LockSupport.unpark(loopThread);
+					Thread.yield();
+				} while(!queue.offer(this));
+			}
+			if(waiting) {
+				LockSupport.unpark(loopThread);
+			}
+		}
+	}
+
+	private class EventLoop implements Runnable {
+		@Override
+		public void run() {
+			boolean parks = idleStrategy.mayPark();
+			int idleCount = 0;
+			while(!halted) {
+				if(drain(taskExecutor) > 0) {
+					idleCount = 0;
+					continue;
+				}
+				if(!alive()) {
+					break;
+				}
+				if(parks) {
+					waiting = true;
+					// Re-check now that producers can see we're waiting, or we could miss their wake-up
+					if(!isEmpty() || !alive()) {
+						waiting = false;
+						continue;
+					}
+				}
+				idleStrategy.idle(++idleCount);
+				waiting = false;
+			}
+		}
+	}
+
+}
@@ -48,4 +48,46 @@ public abstract class BaseLifecycleDispatcher extends BaseDispatcher {
 	public void halt() {
 		alive.compareAndSet(true, false);
 	}
+
+	/**
+	 * Shed events that have waited too long to be executed, as decided by the given {@link CoDel}, rather than letting
+	 * an ever longer queue build up when overloaded. Shed events are routed to the consumers of the {@code
+	 * deadLetterKey} if one is given, otherwise a {@link java.util.concurrent.RejectedExecutionException} is passed to
+	 * the event's error consumer. Events that have neither a dead-letter key nor an error consumer to go to are never
+	 * shed.
+	 *
+	 * @param coDel         Decides when to shed events, or {@code null} to stop shedding them
+	 * @param deadLetterKey The key to route shed events to. May be {@code null}
+	 */
+	public void setLoadShedding(CoDel coDel, Object deadLetterKey) {
+		super.setLoadShedding(coDel, deadLetterKey);
+	}
+
+	/**
+	 * Route events whose {@link reactor.event.Event#isExpired() deadline} has passed before they could be executed to the consumers
+	 * of the given key, instead of just dropping them. Expired events are routed without their deadline.
+	 *
+	 * @param expiryKey The key to route expired events to, or {@code null} to drop them
+	 */
+	public void setExpiryKey(Object expiryKey) {
+		super.setExpiryKey(expiryKey);
+	}
+
+	/**
+	 * Get the number of events that were not executed because their deadline had passed.
+	 *
+	 * @return the number of expired events
+	 */
+	public long getExpiredCount() {
+		return super.getExpiredCount();
+	}
+
+	/**
+	 * Get the {@link CoDel} this dispatcher sheds events with.
+	 *
+	 * @return the {@link CoDel}, or {@code null} if this dispatcher doesn't shed events
+	 */
+	public CoDel getLoadShedding() {
+		return getCoDel();
+	}
 }
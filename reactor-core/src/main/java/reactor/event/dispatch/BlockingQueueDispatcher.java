@@ -19,7 +19,7 @@ package reactor.event.dispatch;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import reactor.cache.Cache;
-import reactor.cache.LoadingCache;
+import reactor.cache.ObjectPool;
 import reactor.event.Event;
 import reactor.function.Supplier;
 import reactor.queue.BlockingQueueFactory;
@@ -27,6 +27,7 @@ import reactor.queue.BlockingQueueFactory;
 import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
 
 /**
  * Implementation of {@link Dispatcher} that uses a {@link BlockingQueue} to queue tasks to be executed.
@@ -42,17 +43,35 @@ public final class BlockingQueueDispatcher extends BaseLifecycleDispatcher {
 
 	private final ThreadGroup         threadGroup = new ThreadGroup("eventloop");
 	private final BlockingQueue<Task> taskQueue   = BlockingQueueFactory.createQueue();
-	private final Cache<Task> readyTasks;
-	private final Thread      taskExecutor;
+	private final Cache<Task>  readyTasks;
+	private final IdleStrategy idleStrategy;
+	private final Thread       taskExecutor;
+
+	private volatile boolean waiting = false;
 
 	/**
-	 * Creates a new {@literal BlockingQueueDispatcher} with the given {@literal name} and {@literal backlog}.
+	 * Creates a new {@literal BlockingQueueDispatcher} with the given {@literal name} and {@literal backlog}. Its thread
+	 * blocks on the task queue while there are no tasks to execute.
 	 *
 	 * @param name    The name
 	 * @param backlog The backlog size
 	 */
 	public BlockingQueueDispatcher(String name, int backlog) {
-		this.readyTasks = new LoadingCache<Task>(
+		this(name, backlog, null);
+	}
+
+	/**
+	 * Creates a new {@literal BlockingQueueDispatcher} with the given {@literal name}, {@literal backlog} and {@link
+	 * IdleStrategy}.
+	 *
+	 * @param name         The name
+	 * @param backlog      The backlog size
+	 * @param idleStrategy What to do when there are no tasks to execute. May be {@code null}, in which case the thread
+	 *                     blocks on the task queue.
+	 */
+	public BlockingQueueDispatcher(String name, int backlog, IdleStrategy idleStrategy) {
+		this.idleStrategy = idleStrategy;
+		this.readyTasks = new ObjectPool<Task>(
 				new Supplier<Task>() {
 					@Override
 					public Task get() {
@@ -60,7 +79,7 @@ public final class BlockingQueueDispatcher extends BaseLifecycleDispatcher {
 					}
 				},
 				backlog,
-				150l
+				backlog
 		);
 		String threadName = name + "-dispatcher-" + INSTANCE_COUNT.incrementAndGet();
 
@@ -111,16 +130,22 @@ public final class BlockingQueueDispatcher extends BaseLifecycleDispatcher {
 		@Override
 		public void submit() {
 			taskQueue.add(this);
+			if (waiting) {
+				LockSupport.unpark(taskExecutor);
+			}
 		}
 	}
 
 	private class TaskExecutingRunnable implements Runnable {
+		private int idleCount = 0;
+
 		@Override
 		public void run() {
-			Task t = null;
+			Task t;
 			for (; ; ) {
+				t = null;
 				try {
-					t = taskQueue.poll(200, TimeUnit.MILLISECONDS);
+					t = (null != idleStrategy ? pollOrIdle() : taskQueue.poll(200, TimeUnit.MILLISECONDS));
 					if (null != t) {
 						t.execute();
 					}
@@ -145,6 +170,26 @@ public final class BlockingQueueDispatcher extends BaseLifecycleDispatcher {
 			}
 			Thread.currentThread().interrupt();
 		}
+
+		private Task pollOrIdle() throws InterruptedException {
+			Task t = taskQueue.poll();
+			if (null == t && idleStrategy.mayPark()) {
+				waiting = true;
+				// Re-check now that producers can see we're waiting, or we could miss their wake-up
+				t = taskQueue.poll();
+			}
+			if (null != t) {
+				waiting = false;
+				idleCount = 0;
+				return t;
+			}
+			idleStrategy.idle(++idleCount);
+			waiting = false;
+			if (Thread.interrupted()) {
+				throw new InterruptedException();
+			}
+			return null;
+		}
 	}
 
 }
@@ -0,0 +1,141 @@
+/*
+ * Copyright (c) 2011-2013 GoPivotal, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package reactor.event.dispatch;
+
+import reactor.util.Assert;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Decides when a {@link Dispatcher} should shed load, based on how long its tasks wait before being executed rather
+ * than on how many of them are queued, after the CoDel ("controlled delay") queue management algorithm.
+ * <p>
+ * The sojourn time of every task, the time from being dispatched to being executed, is reported to {@link
+ * #shouldShed(long)}. If even the shortest sojourn time over an interval was above the target, the queue never drained
+ * during that interval, so it is a standing queue and the dispatcher is overloaded. Throughout the next interval, tasks
+ * that waited longer than the target are then shed, which quickly brings the queue back to a length that can be
+ * handled within the target. Short bursts, which are drained within an interval, are never shed.
+ * </p>
+ * <p>
+ * Rather than dropping a task now and then, like the original algorithm does for network packets, everything that has
+ * waited too long is shed while overloaded, in the manner of adaptive server-side CoDel implementations: an event that
+ * missed its target is usually worth less than the capacity to handle a fresh one in time.
+ * </p>
+ *
+ * @see BaseLifecycleDispatcher#setLoadShedding(CoDel, Object)
+ */
+public class CoDel {
+
+	private final AtomicLong intervalStart = new AtomicLong(System.nanoTime());
+	private final AtomicLong minSojourn    = new AtomicLong(Long.MAX_VALUE);
+	private final AtomicLong shed          = new AtomicLong();
+	private final long       targetNanos;
+	private final long       intervalNanos;
+
+	private volatile boolean overloaded = false;
+
+	/**
+	 * Create a new {@literal CoDel}.
+	 *
+	 * @param target
+	 * 		How long tasks may wait before being executed, typically a few milliseconds
+	 * @param interval
+	 * 		The interval over which the minimum sojourn time is measured, typically around a hundred milliseconds
+	 * @param timeUnit
+	 * 		The unit of {@code target} and {@code interval}
+	 */
+	public CoDel(long target, long interval, TimeUnit timeUnit) {
+		Assert.isTrue(target > 0, "Target must be greater than 0");
+		Assert.isTrue(interval > target, "Interval must be greater than the target");
+		this.targetNanos = timeUnit.toNanos(target);
+		this.intervalNanos = timeUnit.toNanos(interval);
+	}
+
+	/**
+	 * Report the sojourn time of a task that is about to be executed, and decide whether it should be shed instead.
+	 *
+	 * @param sojournNanos
+	 * 		How long the task has waited, in nanoseconds
+	 *
+	 * @return {@literal true} if the task should be shed, {@literal false} if it should be executed
+	 */
+	public boolean shouldShed(long sojournNanos) {
+		long now = System.nanoTime();
+		long start = intervalStart.get();
+		if(now - start >= intervalNanos && intervalStart.compareAndSet(start, now)) {
+			long min = minSojourn.getAndSet(Long.MAX_VALUE);
+			overloaded = (min != Long.MAX_VALUE && min > targetNanos);
+		}
+
+		long min;
+		while(sojournNanos < (min = minSojourn.get())) {
+			if(minSojourn.compareAndSet(min, sojournNanos)) {
+				break;
+			}
+		}
+
+		if(overloaded && sojournNanos > targetNanos) {
+			shed.incrementAndGet();
+			return true;
+		}
+		return false;
+	}
+
+	/**
+	 * Whether the shortest sojourn time over the last interval was above the target.
+	 *
+	 * @return {@literal true} if tasks are currently being shed
+	 */
+	public boolean isOverloaded() {
+		return overloaded;
+	}
+
+	/**
+	 * Get the number of tasks that were shed.
+	 *
+	 * @return the number of tasks shed
+	 */
+	public long getShedCount() {
+		return shed.get();
+	}
+
+	/**
+	 * Get how long tasks may wait before being executed.
+	 *
+	 * @param timeUnit
+	 * 		The unit to return the target in
+	 *
+	 * @return the target sojourn time
+	 */
+	public long getTarget(TimeUnit timeUnit) {
+		return timeUnit.convert(targetNanos, TimeUnit.NANOSECONDS);
+	}
+
+	/**
+	 * Get the interval over which the minimum sojourn time is measured.
+	 *
+	 * @param timeUnit
+	 * 		The unit to return the interval in
+	 *
+	 * @return the interval
+	 */
+	public long getInterval(TimeUnit timeUnit) {
+		return timeUnit.convert(intervalNanos, TimeUnit.NANOSECONDS);
+	}
+
+}
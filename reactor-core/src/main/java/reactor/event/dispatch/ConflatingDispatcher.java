@@ -0,0 +1,229 @@
+/*
+ * Copyright (c) 2011-2013 GoPivotal, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package reactor.event.dispatch;
+
+import reactor.event.Event;
+import reactor.event.registry.Registration;
+import reactor.event.registry.Registry;
+import reactor.event.routing.EventRouter;
+import reactor.event.selector.Selector;
+import reactor.event.support.PooledEvent;
+import reactor.function.Consumer;
+import reactor.util.Assert;
+
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A {@link Dispatcher} that only delivers the latest event for each key. It keeps at most one pending event per key:
+ * an event that is dispatched while an earlier one with the same key is still waiting to be delivered replaces it in
+ * place, and the earlier one is dropped. The delivery itself is done by another {@link Dispatcher}, so only the
+ * newest value of a burst of updates takes up room in its queue and gets routed to the consumers.
+ * <p>
+ * This suits feeds, such as market data, where consumers only care about the current value for a key. Only the events
+ * whose key is matched by the {@link Selector} the dispatcher was created with are conflated, so that the keys the
+ * Reactor uses internally, such as those of errors and replies, are never dropped. Events that have a completion
+ * consumer or a {@link Event#getReplyTo() replyTo} are never conflated either, since someone is waiting for them to be
+ * handled. All other events are handed straight to the delegate.
+ * </p>
+ * <p>
+ * Shutting down a {@literal ConflatingDispatcher} shuts down its delegate.
+ * </p>
+ */
+public class ConflatingDispatcher implements Dispatcher {
+
+	private final ConcurrentMap<Object, Pending> pending     = new ConcurrentHashMap<Object, Pending>();
+	private final AtomicLong                     conflated   = new AtomicLong();
+	private final EventRouter                    flushRouter = new EventRouter() {
+		@Override
+		public void route(Object key,
+		                  Event<?> event,
+		                  List<Registration<? extends Consumer<? extends Event<?>>>> consumers,
+		                  Consumer<?> completionConsumer,
+		                  Consumer<Throwable> errorConsumer) {
+			flush(event.getData());
+		}
+	};
+	private final Dispatcher delegate;
+	private final Selector   keys;
+
+	/**
+	 * Creates a new {@literal ConflatingDispatcher} that delivers events using the given {@link Dispatcher} and
+	 * conflates the events whose key is matched by the given {@link Selector}.
+	 *
+	 * @param delegate
+	 * 		The dispatcher to deliver events with
+	 * @param keys
+	 * 		The selector that matches the keys whose events may be conflated
+	 */
+	public ConflatingDispatcher(Dispatcher delegate, Selector keys) {
+		Assert.notNull(delegate, "Delegate Dispatcher cannot be null.");
+		Assert.notNull(keys, "Selector cannot be null.");
+		this.delegate = delegate;
+		this.keys = keys;
+	}
+
+	/**
+	 * Get the number of events that were replaced by a newer event with the same key before they could be delivered.
+	 *
+	 * @return the number of conflated events
+	 */
+	public long getConflatedCount() {
+		return conflated.get();
+	}
+
+	/**
+	 * Get the number of keys that have an event waiting to be delivered.
+	 *
+	 * @return the number of pending keys
+	 */
+	public int getPendingCount() {
+		return pending.size();
+	}
+
+	/**
+	 * Get the dispatcher that events are delivered with.
+	 *
+	 * @return the delegate dispatcher
+	 */
+	public Dispatcher getDelegate() {
+		return delegate;
+	}
+
+	@Override
+	public boolean alive() {
+		return delegate.alive();
+	}
+
+	@Override
+	public boolean awaitAndShutdown() {
+		return delegate.awaitAndShutdown();
+	}
+
+	@Override
+	public boolean awaitAndShutdown(long timeout, TimeUnit timeUnit) {
+		return delegate.awaitAndShutdown(timeout, timeUnit);
+	}
+
+	@Override
+	public void shutdown() {
+		delegate.shutdown();
+	}
+
+	@Override
+	public void halt() {
+		delegate.halt();
+		for(Object key : pending.keySet()) {
+			Pending p = pending.remove(key);
+			if(null != p) {
+				release(p.event);
+			}
+		}
+	}
+
+	@SuppressWarnings({"unchecked", "rawtypes"})
+	@Override
+	public <E extends Event<?>> void dispatch(Object key,
+	                                          E event,
+	                                          Registry<Consumer<? extends Event<?>>> consumerRegistry,
+	                                          Consumer<Throwable> errorConsumer,
+	                                          EventRouter eventRouter,
+	                                          Consumer<E> completionConsumer) {
+		if(null == key || null != completionConsumer || null != event.getReplyTo() || !keys.matches(key)) {
+			delegate.dispatch(key, event, consumerRegistry, errorConsumer, eventRouter, completionConsumer);
+			return;
+		}
+		if(!alive()) {
+			throw new IllegalStateException("This Dispatcher has been shutdown");
+		}
+		if(event instanceof PooledEvent) {
+			// Hold on to the event until it has been routed or replaced
+			((PooledEvent<?>)event).retain();
+		}
+
+		Pending p = new Pending(event, consumerRegistry, errorConsumer, eventRouter, (Consumer)completionConsumer);
+		Pending prev = pending.put(key, p);
+		if(null != prev) {
+			// The delivery scheduled for the previous event will pick up this one instead
+			conflated.incrementAndGet();
+			release(prev.event);
+			return;
+		}
+		try {
+			delegate.dispatch(Event.wrap(key), flushRouter, null, errorConsumer);
+		} catch(RuntimeException e) {
+			if(pending.remove(key, p)) {
+				release(event);
+			}
+			throw e;
+		}
+	}
+
+	@Override
+	public <E extends Event<?>> void dispatch(E event,
+	                                          EventRouter eventRouter,
+	                                          Consumer<E> consumer,
+	                                          Consumer<Throwable> errorConsumer) {
+		delegate.dispatch(event, eventRouter, consumer, errorConsumer);
+	}
+
+	private void flush(Object key) {
+		Pending p = pending.remove(key);
+		if(null == p) {
+			return;
+		}
+		try {
+			p.eventRouter.route(key,
+			                    p.event,
+			                    (null != p.consumerRegistry ? p.consumerRegistry.select(key) : null),
+			                    p.completionConsumer,
+			                    p.errorConsumer);
+		} finally {
+			release(p.event);
+		}
+	}
+
+	private static void release(Event<?> event) {
+		if(event instanceof PooledEvent) {
+			((PooledEvent<?>)event).release();
+		}
+	}
+
+	private static final class Pending {
+		private final Event<?>                               event;
+		private final Registry<Consumer<? extends Event<?>>> consumerRegistry;
+		private final Consumer<Throwable>                    errorConsumer;
+		private final EventRouter                            eventRouter;
+		private final Consumer<?>                            completionConsumer;
+
+		private Pending(Event<?> event,
+		                Registry<Consumer<? extends Event<?>>> consumerRegistry,
+		                Consumer<Throwable> errorConsumer,
+		                EventRouter eventRouter,
+		                Consumer<?> completionConsumer) {
+			this.event = event;
+			this.consumerRegistry = consumerRegistry;
+			this.errorConsumer = errorConsumer;
+			this.eventRouter = eventRouter;
+			this.completionConsumer = completionConsumer;
+		}
+	}
+
+}
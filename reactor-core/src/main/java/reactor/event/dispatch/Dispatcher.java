@@ -27,6 +27,11 @@ import java.util.concurrent.TimeUnit;
  * A {@code Dispatcher} is used to {@link Dispatcher#dispatch(Object, Event, Registry, Consumer, EventRouter, Consumer)
  * dispatch} {@link Event}s to {@link Consumer}s. The details of how the dispatching is performed, for example on the
  * same thread or using a different thread, are determined by the implementation.
+ * <p>
+ * A {@link reactor.event.support.PooledEvent} must be {@link reactor.event.support.PooledEvent#retain() retained} by
+ * the dispatcher when it is accepted and {@link reactor.event.support.PooledEvent#release() released} once it has been
+ * routed, so that the producer is free to release its own reference as soon as {@code dispatch} returns.
+ * </p>
  *
  * @author Jon Brisbin
  * @author Andy Wilkinson
@@ -0,0 +1,174 @@
+/*
+ * Copyright (c) 2011-2013 GoPivotal, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package reactor.event.dispatch;
+
+import reactor.util.Assert;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Factory methods for the standard {@link IdleStrategy IdleStrategies}.
+ */
+public abstract class IdleStrategies {
+
+	private static final long DEFAULT_MAX_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+
+	private IdleStrategies() {
+	}
+
+	/**
+	 * Busy spin. Gives the lowest latency at the cost of keeping a core fully busy even when there is no work.
+	 *
+	 * @return a spinning idle strategy
+	 */
+	public static IdleStrategy spin() {
+		return SpinIdleStrategy.INSTANCE;
+	}
+
+	/**
+	 * {@link Thread#yield() Yield} to other threads. Latency stays low and other threads can make progress, but an
+	 * idle event loop still uses CPU.
+	 *
+	 * @return a yielding idle strategy
+	 */
+	public static IdleStrategy yielding() {
+		return YieldingIdleStrategy.INSTANCE;
+	}
+
+	/**
+	 * Park the thread until a producer submits work, or until 100ms have passed.
+	 *
+	 * @return a parking idle strategy
+	 */
+	public static IdleStrategy parking() {
+		return parking(DEFAULT_MAX_PARK_NANOS, TimeUnit.NANOSECONDS);
+	}
+
+	/**
+	 * Park the thread until a producer submits work, or until {@code maxPark} has passed.
+	 *
+	 * @param maxPark
+	 * 		the longest time to park for
+	 * @param timeUnit
+	 * 		the unit of {@code maxPark}
+	 *
+	 * @return a parking idle strategy
+	 */
+	public static IdleStrategy parking(long maxPark, TimeUnit timeUnit) {
+		Assert.isTrue(maxPark > 0, "Maximum park time must be greater than 0");
+		return new ParkingIdleStrategy(timeUnit.toNanos(maxPark));
+	}
+
+	/**
+	 * Spin, then yield, then park until a producer submits work, tuning how long each phase lasts from how long the
+	 * event loop has been idle in the past. Gives low latency under load without burning a core when idle. Each event
+	 * loop needs an instance of its own.
+	 *
+	 * @return a new adaptive idle strategy
+	 */
+	public static IdleStrategy adaptive() {
+		return new AdaptiveIdleStrategy(DEFAULT_MAX_PARK_NANOS);
+	}
+
+	private static final class SpinIdleStrategy implements IdleStrategy {
+		private static final SpinIdleStrategy INSTANCE = new SpinIdleStrategy();
+
+		@Override
+		public void idle(int idleCount) {
+		}
+
+		@Override
+		public boolean mayPark() {
+			return false;
+		}
+	}
+
+	private static final class YieldingIdleStrategy implements IdleStrategy {
+		private static final YieldingIdleStrategy INSTANCE = new YieldingIdleStrategy();
+
+		@Override
+		public void idle(int idleCount) {
+			Thread.yield();
+		}
+
+		@Override
+		public boolean mayPark() {
+			return false;
+		}
+	}
+
+	private static final class ParkingIdleStrategy implements IdleStrategy {
+		private final long maxParkNanos;
+
+		private ParkingIdleStrategy(long maxParkNanos) {
+			this.maxParkNanos = maxParkNanos;
+		}
+
+		@Override
+		public void idle(int idleCount) {
+			LockSupport.parkNanos(this, maxParkNanos);
+		}
+
+		@Override
+		public boolean mayPark() {
+			return true;
+		}
+	}
+
+	private static final class AdaptiveIdleStrategy implements IdleStrategy {
+		private final PhasedBackoff backoff = new PhasedBackoff();
+		private final long maxParkNanos;
+		private       boolean      idled;
+		private       long         idleStart;
+		private       long         lastIdle;
+
+		private AdaptiveIdleStrategy(long maxParkNanos) {
+			this.maxParkNanos = maxParkNanos;
+		}
+
+		@Override
+		public void idle(int idleCount) {
+			long now = System.nanoTime();
+			if(idleCount == 1) {
+				if(idled) {
+					// Work arrived shortly after the last pass of the previous idle period
+					backoff.observe(lastIdle - idleStart);
+				}
+				idled = true;
+				idleStart = now;
+			}
+			lastIdle = now;
+
+			switch(backoff.phase(now - idleStart)) {
+				case SPIN:
+					break;
+				case YIELD:
+					Thread.yield();
+					break;
+				default:
+					LockSupport.parkNanos(this, maxParkNanos);
+			}
+		}
+
+		@Override
+		public boolean mayPark() {
+			return true;
+		}
+	}
+
+}
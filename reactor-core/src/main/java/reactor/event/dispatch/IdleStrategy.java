@@ -0,0 +1,43 @@
+/*
+ * Copyright (c) 2011-2013 GoPivotal, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package reactor.event.dispatch;
+
+/**
+ * An {@code IdleStrategy} decides what a dispatcher's event loop does when it finds no work to do: spin, yield the
+ * CPU or park its thread.
+ *
+ * @see IdleStrategies
+ */
+public interface IdleStrategy {
+
+	/**
+	 * Idle for a while after a pass of the event loop that found no work.
+	 *
+	 * @param idleCount
+	 * 		the number of consecutive passes, including this one, that found no work
+	 */
+	void idle(int idleCount);
+
+	/**
+	 * Whether {@link #idle(int)} may park the calling thread, in which case producers must {@link
+	 * java.util.concurrent.locks.LockSupport#unpark(Thread) unpark} it when they submit work.
+	 *
+	 * @return {@literal true} if this strategy parks
+	 */
+	boolean mayPark();
+
+}
@@ -0,0 +1,105 @@
+/*
+ * Copyright (c) 2011-2013 GoPivotal, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package reactor.event.dispatch;
+
+import reactor.function.Consumer;
+import reactor.queue.MpscArrayQueue;
+import reactor.util.Assert;
+
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Implementation of an event loop {@link Dispatcher} that queues tasks in a bounded {@link MpscArrayQueue}. Its
+ * single thread drains the queue in batches and, when there is nothing left to do, idles according to an {@link
+ * IdleStrategy}. Submitting a task neither allocates nor takes a lock.
+ * <p>
+ * When the queue is full, producers yield until there is room in it again. A task that is submitted to a full queue
+ * from the event loop's own thread is executed straight away, as waiting for the loop to make room would never end. A
+ * producer waiting for room when the dispatcher is shut down or halted gets a {@link RejectedExecutionException}.
+ * </p>
+ */
+@SuppressWarnings("rawtypes")
+public final class MpscEventLoopDispatcher extends BaseEventLoopDispatcher {
+
+	private static final int DEFAULT_BATCH_SIZE = 64;
+
+	private final MpscArrayQueue<Task> taskQueue;
+	private final int                  batchSize;
+	/**
+	 * Creates a new {@literal MpscEventLoopDispatcher} with the given {@literal name} and {@literal backlog} that parks
+	 * its thread when idle.
+	 *
+	 * @param name
+	 * 		The name
+	 * @param backlog
+	 * 		The capacity of the task queue
+	 */
+	public MpscEventLoopDispatcher(String name, int backlog) {
+		this(name, backlog, IdleStrategies.parking());
+	}
+
+	/**
+	 * Creates a new {@literal MpscEventLoopDispatcher} with the given {@literal name}, {@literal backlog} and {@link
+	 * IdleStrategy}.
+	 *
+	 * @param name
+	 * 		The name
+	 * @param backlog
+	 * 		The capacity of the task queue
+	 * @param idleStrategy
+	 * 		What to do when there are no tasks to execute
+	 */
+	public MpscEventLoopDispatcher(String name, int backlog, IdleStrategy idleStrategy) {
+		this(name, backlog, idleStrategy, DEFAULT_BATCH_SIZE);
+	}
+
+	/**
+	 * Creates a new {@literal MpscEventLoopDispatcher}.
+	 *
+	 * @param name
+	 * 		The name
+	 * @param backlog
+	 * 		The capacity of the task queue
+	 * @param idleStrategy
+	 * 		What to do when there are no tasks to execute
+	 * @param batchSize
+	 * 		The maximum number of tasks to execute in one pass of the event loop
+	 */
+	public MpscEventLoopDispatcher(String name, int backlog, IdleStrategy idleStrategy, int batchSize) {
+		super(name + "-dispatcher", idleStrategy, backlog, backlog);
+		Assert.isTrue(batchSize > 0, "Batch size must be greater than 0");
+		this.taskQueue = new MpscArrayQueue<Task>(backlog);
+		this.batchSize = batchSize;
+		startEventLoop();
+	}
+
+	@Override
+	protected MpscArrayQueue<Task> queueFor(Task task) {
+		return taskQueue;
+	}
+
+	@Override
+	protected int drain(Consumer<Task> executor) {
+		return taskQueue.drain(executor, batchSize);
+	}
+
+	@Override
+	protected boolean isEmpty() {
+		return taskQueue.isEmpty();
+	}
+
+}
@@ -0,0 +1,98 @@
+/*
+ * Copyright (c) 2011-2013 GoPivotal, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package reactor.event.dispatch;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Decides whether a waiting thread should spin, yield or park, based on how long it has been waiting so far and on
+ * how long it has usually had to wait in the past. When work tends to arrive within a few microseconds, the spin and
+ * yield phases are stretched so that the thread catches it without paying for a park and an unpark. When the thread
+ * tends to wait for a long time, they shrink so that it parks almost straight away rather than burning a core.
+ * <p>
+ * Not thread-safe: each waiting thread needs its own instance.
+ * </p>
+ */
+final class PhasedBackoff {
+
+	enum Phase {
+		SPIN, YIELD, PARK
+	}
+
+	static final long MIN_SPIN_NANOS  = TimeUnit.MICROSECONDS.toNanos(1);
+	static final long MAX_SPIN_NANOS  = TimeUnit.MICROSECONDS.toNanos(50);
+	static final long MIN_YIELD_NANOS = TimeUnit.MICROSECONDS.toNanos(10);
+	static final long MAX_YIELD_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+
+	// Weight of a new observation in the moving average, as a shift: 1/8th
+	private static final int EWMA_SHIFT = 3;
+
+	private long meanWaitNanos = MAX_SPIN_NANOS;
+	private long spinNanos     = MAX_SPIN_NANOS;
+	private long yieldNanos    = MAX_SPIN_NANOS + MAX_YIELD_NANOS;
+
+	/**
+	 * Get the phase a thread that has been waiting for {@code waitedNanos} should be in.
+	 *
+	 * @param waitedNanos
+	 * 		how long the thread has been waiting
+	 *
+	 * @return the phase to be in
+	 */
+	Phase phase(long waitedNanos) {
+		if(waitedNanos < spinNanos) {
+			return Phase.SPIN;
+		} else if(waitedNanos < yieldNanos) {
+			return Phase.YIELD;
+		} else {
+			return Phase.PARK;
+		}
+	}
+
+	/**
+	 * Record how long a wait that has just ended lasted, and retune the phases accordingly.
+	 *
+	 * @param waitedNanos
+	 * 		how long the wait lasted
+	 */
+	void observe(long waitedNanos) {
+		meanWaitNanos += (Math.max(0, waitedNanos) - meanWaitNanos) >> EWMA_SHIFT;
+
+		long expected = meanWaitNanos << 1;
+		spinNanos = (meanWaitNanos <= MAX_SPIN_NANOS ? clamp(expected, MIN_SPIN_NANOS, MAX_SPIN_NANOS) : MIN_SPIN_NANOS);
+		yieldNanos = spinNanos + (meanWaitNanos <= MAX_YIELD_NANOS ?
+		                          clamp(expected, MIN_YIELD_NANOS, MAX_YIELD_NANOS) :
+		                          MIN_YIELD_NANOS);
+	}
+
+	long getMeanWaitNanos() {
+		return meanWaitNanos;
+	}
+
+	long getSpinNanos() {
+		return spinNanos;
+	}
+
+	long getYieldNanos() {
+		return yieldNanos;
+	}
+
+	private static long clamp(long value, long min, long max) {
+		return Math.max(min, Math.min(max, value));
+	}
+
+}
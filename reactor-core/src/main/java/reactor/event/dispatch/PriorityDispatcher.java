@@ -0,0 +1,168 @@
+/*
+ * Copyright (c) 2011-2013 GoPivotal, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package reactor.event.dispatch;
+
+import reactor.event.Event;
+import reactor.function.Consumer;
+import reactor.queue.MpscArrayQueue;
+import reactor.util.Assert;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * An event loop {@link Dispatcher} with several lanes, each with a queue of its own, so that latency-sensitive events
+ * such as heartbeats or admin commands don't wait behind a backlog of bulk data. Lane {@literal 0} has the highest
+ * priority.
+ * <p>
+ * The lane of an event is taken from its {@link Event.Headers#PRIORITY priority header} if it has one, then from the
+ * lane its notification key has been {@link #setLane(Object, int) mapped to}, and is otherwise the lowest priority
+ * lane. On each pass, the event loop executes up to its lane's weight in tasks from each lane in turn, highest
+ * priority first, so high-priority events overtake lower-priority ones while lower-priority lanes still make
+ * progress.
+ * </p>
+ * <p>
+ * Events are executed in order within a lane, but not across lanes.
+ * </p>
+ */
+@SuppressWarnings("rawtypes")
+public final class PriorityDispatcher extends BaseEventLoopDispatcher {
+
+	private final ConcurrentMap<Object, Integer> keyLanes = new ConcurrentHashMap<Object, Integer>();
+	private final MpscArrayQueue<Task>[]         lanes;
+	private final int[]                          weights;
+
+	/**
+	 * Creates a new {@literal PriorityDispatcher} with the given {@literal name} and {@literal lanes} lanes, each with a
+	 * queue of {@literal backlog} tasks. Each lane's weight is twice that of the next lane down.
+	 *
+	 * @param name
+	 * 		The name
+	 * @param lanes
+	 * 		The number of lanes
+	 * @param backlog
+	 * 		The capacity of each lane's task queue
+	 */
+	public PriorityDispatcher(String name, int lanes, int backlog) {
+		this(name, backlog, defaultWeights(lanes), IdleStrategies.parking());
+	}
+
+	/**
+	 * Creates a new {@literal PriorityDispatcher} with one lane per weight.
+	 *
+	 * @param name
+	 * 		The name
+	 * @param backlog
+	 * 		The capacity of each lane's task queue
+	 * @param weights
+	 * 		The maximum number of tasks to execute from each lane in one pass of the event loop, highest priority
+	 * 		lane first
+	 * @param idleStrategy
+	 * 		What to do when there are no tasks to execute
+	 */
+	@SuppressWarnings("unchecked")
+	public PriorityDispatcher(String name, int backlog, int[] weights, IdleStrategy idleStrategy) {
+		super(name + "-priority", idleStrategy, backlog, backlog * checkLanes(weights));
+		this.weights = weights.clone();
+		this.lanes = new MpscArrayQueue[weights.length];
+		for(int i = 0; i < weights.length; i++) {
+			Assert.isTrue(weights[i] > 0, "Lane weights must be greater than 0");
+			lanes[i] = new MpscArrayQueue<Task>(backlog);
+		}
+		startEventLoop();
+	}
+
+	/**
+	 * Route the events notified with the given key to the given lane, unless they have a priority header.
+	 *
+	 * @param key
+	 * 		The notification key
+	 * @param lane
+	 * 		The lane, {@literal 0} being the highest priority
+	 *
+	 * @return {@literal this}
+	 */
+	public PriorityDispatcher setLane(Object key, int lane) {
+		Assert.notNull(key, "Key cannot be null.");
+		Assert.isTrue(lane >= 0 && lane < lanes.length, "Lane must be between 0 and " + (lanes.length - 1));
+		keyLanes.put(key, lane);
+		return this;
+	}
+
+	/**
+	 * Get the number of lanes.
+	 *
+	 * @return the number of lanes
+	 */
+	public int getLaneCount() {
+		return lanes.length;
+	}
+
+	@Override
+	protected MpscArrayQueue<Task> queueFor(Task task) {
+		return lanes[laneOf(task)];
+	}
+
+	@Override
+	protected int drain(Consumer<Task> executor) {
+		int executed = 0;
+		for(int i = 0; i < lanes.length; i++) {
+			executed += lanes[i].drain(executor, weights[i]);
+		}
+		return executed;
+	}
+
+	@Override
+	protected boolean isEmpty() {
+		for(MpscArrayQueue<Task> lane : lanes) {
+			if(!lane.isEmpty()) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private int laneOf(Task t) {
+		Event<?> ev = t.getEvent();
+		String priority = (null != ev ? ev.getHeader(Event.Headers.PRIORITY) : null);
+		if(null != priority) {
+			try {
+				return Math.max(0, Math.min(lanes.length - 1, Integer.parseInt(priority)));
+			} catch(NumberFormatException e) {
+				// Fall through to the key's lane
+			}
+		}
+		Object key = t.getKey();
+		Integer lane = (null != key && !keyLanes.isEmpty() ? keyLanes.get(key) : null);
+		return (null != lane ? lane : lanes.length - 1);
+	}
+
+	private static int[] defaultWeights(int lanes) {
+		Assert.isTrue(lanes > 0 && lanes < 31, "Number of lanes must be between 1 and 30");
+		int[] weights = new int[lanes];
+		for(int i = 0; i < lanes; i++) {
+			weights[i] = 1 << (lanes - 1 - i);
+		}
+		return weights;
+	}
+
+	private static int checkLanes(int[] weights) {
+		Assert.isTrue(null != weights && weights.length > 0, "At least one lane is required");
+		return weights.length;
+	}
+
+}
@@ -0,0 +1,405 @@
+/*
+ * Copyright (c) 2011-2013 GoPivotal, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package reactor.event.dispatch;
+
+import reactor.core.HashWheelTimer;
+import reactor.core.TokenBucket;
+import reactor.event.Event;
+import reactor.event.registry.Registration;
+import reactor.event.registry.Registry;
+import reactor.event.routing.EventRouter;
+import reactor.event.selector.Selector;
+import reactor.event.support.PooledEvent;
+import reactor.function.Consumer;
+import reactor.util.Assert;
+
+import java.util.Collections;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A {@link Dispatcher} that limits how many events are delivered per period of time, either in total or for each key.
+ * Delivery is done by another {@link Dispatcher}; each event takes a token from a {@link TokenBucket}, and the buckets
+ * are refilled once per period by a task scheduled on a {@link HashWheelTimer}.
+ * <p>
+ * What happens to events that arrive when there are no tokens left depends on the {@link Overflow} policy: they can be
+ * held back and delivered, in order, as tokens become available, dropped, or redirected to an overflow key, whose
+ * consumers are not rate limited.
+ * </p>
+ * <p>
+ * Only the events whose key is matched by the {@link Selector} the dispatcher was created with are limited, so that the
+ * keys the Reactor uses internally, such as those of errors and replies, are never held back or dropped. Events that
+ * have a completion consumer or a {@link Event#getReplyTo() replyTo} are never limited either, since someone is waiting
+ * for them to be handled. When limiting per key, a bucket is kept for every key that has been seen, so this is best
+ * suited to a bounded set of keys. Held back events are delivered from the timer's thread.
+ * </p>
+ */
+public class RateLimitingDispatcher implements Dispatcher {
+
+	/**
+	 * What to do with an event that is over the rate limit.
+	 */
+	public enum Overflow {
+		/**
+		 * Hold the event back until a token is available
+		 */
+		DELAY,
+		/**
+		 * Drop the event
+		 */
+		DROP,
+		/**
+		 * Dispatch the event to the overflow key instead
+		 */
+		REDIRECT
+	}
+
+	private final ConcurrentMap<Object, Bucket>          buckets    = new ConcurrentHashMap<Object, Bucket>();
+	private final AtomicLong                             delayed    = new AtomicLong();
+	private final AtomicLong                             dropped    = new AtomicLong();
+	private final AtomicLong                             redirected = new AtomicLong();
+	private final AtomicInteger                          backlog    = new AtomicInteger();
+	private final Dispatcher                             delegate;
+	private final Selector                               keys;
+	private final int                                    permits;
+	private final boolean                                perKey;
+	private final Overflow                               overflow;
+	private final Object                                 overflowKey;
+	private final Bucket                                 globalBucket;
+	private final Registration<? extends Consumer<Long>> refills;
+
+	/**
+	 * Creates a new {@literal RateLimitingDispatcher} that delivers at most {@literal permits} events per period in total
+	 * for the keys matched by the given {@link Selector}, holding back any others.
+	 *
+	 * @param delegate
+	 * 		The dispatcher to deliver events with
+	 * @param keys
+	 * 		The selector that matches the keys whose events are limited
+	 * @param timer
+	 * 		The timer to refill tokens with
+	 * @param permits
+	 * 		The number of events to deliver per period
+	 * @param period
+	 * 		The length of the period
+	 * @param timeUnit
+	 * 		The unit of the period
+	 */
+	public RateLimitingDispatcher(Dispatcher delegate,
+	                              Selector keys,
+	                              HashWheelTimer timer,
+	                              int permits,
+	                              long period,
+	                              TimeUnit timeUnit) {
+		this(delegate, keys, timer, permits, period, timeUnit, false, Overflow.DELAY, null);
+	}
+
+	/**
+	 * Creates a new {@literal RateLimitingDispatcher} that limits the events whose key is matched by the given {@link
+	 * Selector}.
+	 *
+	 * @param delegate
+	 * 		The dispatcher to deliver events with
+	 * @param keys
+	 * 		The selector that matches the keys whose events are limited
+	 * @param timer
+	 * 		The timer to refill tokens with
+	 * @param permits
+	 * 		The number of events to deliver per period
+	 * @param period
+	 * 		The length of the period
+	 * @param timeUnit
+	 * 		The unit of the period
+	 * @param perKey
+	 * 		{@literal true} to limit each key separately, {@literal false} to limit all events together
+	 * @param overflow
+	 * 		What to do with events that are over the limit
+	 * @param overflowKey
+	 * 		The key to redirect events that are over the limit to, required for {@link Overflow#REDIRECT}
+	 */
+	public RateLimitingDispatcher(Dispatcher delegate,
+	                              Selector keys,
+	                              HashWheelTimer timer,
+	                              int permits,
+	                              long period,
+	                              TimeUnit timeUnit,
+	                              boolean perKey,
+	                              Overflow overflow,
+	                              Object overflowKey) {
+		Assert.notNull(delegate, "Delegate Dispatcher cannot be null.");
+		Assert.notNull(keys, "Selector cannot be null.");
+		Assert.notNull(timer, "HashWheelTimer cannot be null.");
+		Assert.isTrue(permits > 0, "Permits must be greater than 0");
+		Assert.isTrue(period > 0, "Period must be greater than 0");
+		Assert.notNull(overflow, "Overflow policy cannot be null.");
+		Assert.isTrue(overflow != Overflow.REDIRECT || null != overflowKey,
+		              "An overflow key is required to redirect events");
+		this.delegate = delegate;
+		this.keys = keys;
+		this.permits = permits;
+		this.perKey = perKey;
+		this.overflow = overflow;
+		this.overflowKey = overflowKey;
+		this.globalBucket = (perKey ? null : new Bucket(permits));
+		this.refills = timer.schedule(new Consumer<Long>() {
+			@Override
+			public void accept(Long now) {
+				refill();
+			}
+		}, period, timeUnit, timeUnit.toMillis(period));
+	}
+
+	/**
+	 * Get the number of events that were held back because they were over the limit.
+	 *
+	 * @return the number of delayed events
+	 */
+	public long getDelayedCount() {
+		return delayed.get();
+	}
+
+	/**
+	 * Get the number of events that were dropped because they were over the limit.
+	 *
+	 * @return the number of dropped events
+	 */
+	public long getDroppedCount() {
+		return dropped.get();
+	}
+
+	/**
+	 * Get the number of events that were redirected to the overflow key because they were over the limit.
+	 *
+	 * @return the number of redirected events
+	 */
+	public long getRedirectedCount() {
+		return redirected.get();
+	}
+
+	/**
+	 * Get the number of events that are being held back, waiting for a token.
+	 *
+	 * @return the number of events waiting
+	 */
+	public int getBacklog() {
+		return backlog.get();
+	}
+
+	/**
+	 * Get the dispatcher that events are delivered with.
+	 *
+	 * @return the delegate dispatcher
+	 */
+	public Dispatcher getDelegate() {
+		return delegate;
+	}
+
+	@Override
+	public boolean alive() {
+		return delegate.alive();
+	}
+
+	@Override
+	public boolean awaitAndShutdown() {
+		return awaitAndShutdown(Integer.MAX_VALUE, TimeUnit.SECONDS);
+	}
+
+	@Override
+	public boolean awaitAndShutdown(long timeout, TimeUnit timeUnit) {
+		long deadline = System.nanoTime() + timeUnit.toNanos(timeout);
+		try {
+			while(backlog.get() > 0) {
+				if(System.nanoTime() - deadline >= 0) {
+					return false;
+				}
+				Thread.sleep(10);
+			}
+		} catch(InterruptedException e) {
+			Thread.currentThread().interrupt();
+			return false;
+		} finally {
+			refills.cancel();
+		}
+		return delegate.awaitAndShutdown(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+	}
+
+	@Override
+	public void shutdown() {
+		refills.cancel();
+		delegate.shutdown();
+	}
+
+	@Override
+	public void halt() {
+		refills.cancel();
+		delegate.halt();
+		for(Bucket bucket : buckets()) {
+			PendingDispatch p;
+			while(null != (p = bucket.pending.poll())) {
+				backlog.decrementAndGet();
+				release(p.event);
+			}
+		}
+	}
+
+	@SuppressWarnings({"unchecked", "rawtypes"})
+	@Override
+	public <E extends Event<?>> void dispatch(Object key,
+	                                          E event,
+	                                          Registry<Consumer<? extends Event<?>>> consumerRegistry,
+	                                          Consumer<Throwable> errorConsumer,
+	                                          EventRouter eventRouter,
+	                                          Consumer<E> completionConsumer) {
+		if(null == key || null != completionConsumer || null != event.getReplyTo() || !keys.matches(key)) {
+			delegate.dispatch(key, event, consumerRegistry, errorConsumer, eventRouter, completionConsumer);
+			return;
+		}
+		Bucket bucket = bucketFor(key);
+		// Don't let an event overtake those that are already being held back
+		if(bucket.pending.isEmpty() && bucket.tokens.tryAcquire()) {
+			delegate.dispatch(key, event, consumerRegistry, errorConsumer, eventRouter, completionConsumer);
+			return;
+		}
+
+		if(overflow == Overflow.DELAY && !alive()) {
+			throw new IllegalStateException("This Dispatcher has been shutdown");
+		}
+		if(event instanceof PooledEvent) {
+			// Hold on to the event until it has been handed to the delegate or dropped
+			((PooledEvent<?>)event).retain();
+		}
+		switch(overflow) {
+			case DELAY:
+				delayed.incrementAndGet();
+				backlog.incrementAndGet();
+				bucket.pending.add(new PendingDispatch(key, event, consumerRegistry, errorConsumer, eventRouter,
+				                                       (Consumer)completionConsumer));
+				break;
+			case DROP:
+				dropped.incrementAndGet();
+				release(event);
+				break;
+			case REDIRECT:
+				redirected.incrementAndGet();
+				try {
+					delegate.dispatch(overflowKey, event, consumerRegistry, errorConsumer, eventRouter, completionConsumer);
+				} finally {
+					// The delegate has retained the event itself if it accepted it
+					release(event);
+				}
+				break;
+		}
+	}
+
+	@Override
+	public <E extends Event<?>> void dispatch(E event,
+	                                          EventRouter eventRouter,
+	                                          Consumer<E> consumer,
+	                                          Consumer<Throwable> errorConsumer) {
+		delegate.dispatch(event, eventRouter, consumer, errorConsumer);
+	}
+
+	private Bucket bucketFor(Object key) {
+		if(!perKey) {
+			return globalBucket;
+		}
+		Bucket bucket = buckets.get(key);
+		if(null == bucket) {
+			Bucket newBucket = new Bucket(permits);
+			bucket = buckets.putIfAbsent(key, newBucket);
+			if(null == bucket) {
+				bucket = newBucket;
+			}
+		}
+		return bucket;
+	}
+
+	private Iterable<Bucket> buckets() {
+		return (perKey ? buckets.values() : Collections.singletonList(globalBucket));
+	}
+
+	@SuppressWarnings("unchecked")
+	private void refill() {
+		for(Bucket bucket : buckets()) {
+			bucket.tokens.refill();
+			PendingDispatch p;
+			while(null != bucket.pending.peek() && bucket.tokens.tryAcquire()) {
+				if(null == (p = bucket.pending.poll())) {
+					bucket.tokens.release();
+					break;
+				}
+				backlog.decrementAndGet();
+				try {
+					delegate.dispatch(p.key, p.event, p.consumerRegistry, p.errorConsumer, p.eventRouter,
+					                  p.completionConsumer);
+				} catch(IllegalStateException e) {
+					// The delegate has been shut down
+					if(null != p.errorConsumer) {
+						p.errorConsumer.accept(e);
+					}
+				} finally {
+					release(p.event);
+				}
+			}
+		}
+	}
+
+	private static void release(Event<?> event) {
+		if(event instanceof PooledEvent) {
+			((PooledEvent<?>)event).release();
+		}
+	}
+
+	private static final class Bucket {
+		private final TokenBucket            tokens;
+		private final Queue<PendingDispatch> pending = new ConcurrentLinkedQueue<PendingDispatch>();
+
+		private Bucket(int permits) {
+			this.tokens = new TokenBucket(permits);
+		}
+	}
+
+	@SuppressWarnings("rawtypes")
+	private static final class PendingDispatch {
+		private final Object                                 key;
+		private final Event                                  event;
+		private final Registry<Consumer<? extends Event<?>>> consumerRegistry;
+		private final Consumer<Throwable>                    errorConsumer;
+		private final EventRouter                            eventRouter;
+		private final Consumer                               completionConsumer;
+
+		private PendingDispatch(Object key,
+		                        Event event,
+		                        Registry<Consumer<? extends Event<?>>> consumerRegistry,
+		                        Consumer<Throwable> errorConsumer,
+		                        EventRouter eventRouter,
+		                        Consumer completionConsumer) {
+			this.key = key;
+			this.event = event;
+			this.consumerRegistry = consumerRegistry;
+			this.errorConsumer = errorConsumer;
+			this.eventRouter = eventRouter;
+			this.completionConsumer = completionConsumer;
+		}
+	}
+
+}
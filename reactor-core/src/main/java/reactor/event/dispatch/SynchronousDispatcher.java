@@ -28,6 +28,13 @@ import java.util.concurrent.TimeUnit;
  */
 public class SynchronousDispatcher extends BaseDispatcher {
 
+	private final ThreadLocal<SyncTask> tasks = new ThreadLocal<SyncTask>() {
+		@Override
+		protected SyncTask initialValue() {
+			return new SyncTask();
+		}
+	};
+
 	@Override
 	public boolean alive() {
 		return true;
@@ -54,13 +61,23 @@ public class SynchronousDispatcher extends BaseDispatcher {
 	@SuppressWarnings({"unchecked"})
 	@Override
 	protected <E extends Event<?>> Task<E> createTask() {
-		return (Task<E>) new SyncTask();
+		SyncTask task = tasks.get();
+		// A consumer that notifies in turn re-enters the dispatcher while its task is still running
+		return (Task<E>) (task.inUse ? new SyncTask() : task);
 	}
 
 	private final class SyncTask extends Task<Event<?>> {
+		private boolean inUse;
+
 		@Override
 		public void submit() {
-			execute();
+			inUse = true;
+			try {
+				execute();
+			} finally {
+				reset();
+				inUse = false;
+			}
 		}
 	}
 
@@ -17,7 +17,7 @@
 package reactor.event.dispatch;
 
 import reactor.cache.Cache;
-import reactor.cache.LoadingCache;
+import reactor.cache.ObjectPool;
 import reactor.event.Event;
 import reactor.function.Supplier;
 import reactor.support.NamedDaemonThreadFactory;
@@ -54,7 +54,7 @@ public final class ThreadPoolExecutorDispatcher extends BaseLifecycleDispatcher
 				poolSize,
 				new NamedDaemonThreadFactory(threadName)
 		);
-		this.readyTasks = new LoadingCache<ThreadPoolTask>(
+		this.readyTasks = new ObjectPool<ThreadPoolTask>(
 				new Supplier<ThreadPoolTask>() {
 					@Override
 					public ThreadPoolTask get() {
@@ -62,7 +62,7 @@ public final class ThreadPoolExecutorDispatcher extends BaseLifecycleDispatcher
 					}
 				},
 				backlog,
-				200l
+				backlog
 		);
 	}
 
@@ -0,0 +1,221 @@
+/*
+ * Copyright (c) 2011-2013 GoPivotal, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package reactor.event.dispatch;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import reactor.event.Event;
+import reactor.util.Assert;
+
+import java.lang.reflect.Method;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A {@code Dispatcher} that runs each task on a new virtual thread, for consumers that have to block on I/O. A
+ * {@link Semaphore} limits how many tasks may run at once; once the limit has been reached, dispatched tasks are queued
+ * and started in order as running tasks complete, so dispatching never blocks the caller. Halting the dispatcher drops
+ * the queued tasks.
+ * <p>
+ * Virtual threads are only available from Java 21 onwards and are looked up reflectively, so this class can be loaded
+ * on any JVM. Use {@link #isAvailable()} to check whether it can be used on the current one.
+ * </p>
+ */
+public final class VirtualThreadDispatcher extends BaseLifecycleDispatcher {
+
+	private static final AtomicInteger INSTANCE_COUNT  = new AtomicInteger();
+	private static final Method        OF_VIRTUAL      = findMethod(Thread.class, "ofVirtual");
+	private static final Method        BUILDER_NAME    = findMethod("java.lang.Thread$Builder", "name", String.class, long.class);
+	private static final Method        BUILDER_FACTORY = findMethod("java.lang.Thread$Builder", "factory");
+
+	private final Logger log = LoggerFactory.getLogger(VirtualThreadDispatcher.class);
+	private final ThreadFactory            threadFactory;
+	private final Semaphore                permits;
+	private final int                      maxConcurrency;
+	private final Queue<VirtualThreadTask> backlog = new ConcurrentLinkedQueue<VirtualThreadTask>();
+	private volatile boolean halted = false;
+
+	/**
+	 * Creates a new {@literal VirtualThreadDispatcher} with the given {@literal name}, that runs at most {@literal
+	 * maxConcurrency} tasks at once.
+	 *
+	 * @param name           the name
+	 * @param maxConcurrency the maximum number of tasks to run at once
+	 *
+	 * @throws IllegalStateException if virtual threads are not available
+	 */
+	public VirtualThreadDispatcher(String name, int maxConcurrency) {
+		this(createVirtualThreadFactory(name + "-virtual-" + INSTANCE_COUNT.incrementAndGet() + "-"), maxConcurrency);
+	}
+
+	VirtualThreadDispatcher(ThreadFactory threadFactory, int maxConcurrency) {
+		Assert.isTrue(maxConcurrency > 0, "Maximum concurrency must be greater than 0");
+		this.threadFactory = threadFactory;
+		this.maxConcurrency = maxConcurrency;
+		this.permits = new Semaphore(maxConcurrency);
+	}
+
+	/**
+	 * Whether virtual threads are available on the current JVM.
+	 *
+	 * @return {@literal true} if virtual threads are available, {@literal false} otherwise
+	 */
+	public static boolean isAvailable() {
+		return null != OF_VIRTUAL && null != BUILDER_NAME && null != BUILDER_FACTORY;
+	}
+
+	/**
+	 * Get the number of tasks currently running.
+	 *
+	 * @return the number of running tasks
+	 */
+	public int getActiveCount() {
+		return maxConcurrency - permits.availablePermits();
+	}
+
+	/**
+	 * Get the number of tasks waiting for a running task to complete before they can be started.
+	 *
+	 * @return the number of queued tasks
+	 */
+	public int getBacklog() {
+		return backlog.size();
+	}
+
+	@Override
+	public boolean awaitAndShutdown(long timeout, TimeUnit timeUnit) {
+		shutdown();
+		long deadline = System.nanoTime() + timeUnit.toNanos(timeout);
+		try {
+			// All the permits are back once every running task has completed
+			while (permits.tryAcquire(maxConcurrency, deadline - System.nanoTime(), TimeUnit.NANOSECONDS)) {
+				permits.release(maxConcurrency);
+				if (backlog.isEmpty()) {
+					return true;
+				}
+				// A task completed while we held the permits, so nothing started the queued tasks
+				drainBacklog();
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+		return false;
+	}
+
+	@Override
+	public void halt() {
+		halted = true;
+		super.halt();
+		backlog.clear();
+	}
+
+	@SuppressWarnings("unchecked")
+	@Override
+	protected <E extends Event<?>> Task<E> createTask() {
+		return (Task<E>) new VirtualThreadTask();
+	}
+
+	private void drainBacklog() {
+		if (halted) {
+			// A task may have been queued while halting
+			backlog.clear();
+			return;
+		}
+		while (!backlog.isEmpty() && permits.tryAcquire()) {
+			VirtualThreadTask task = backlog.poll();
+			if (null == task) {
+				permits.release();
+				continue;
+			}
+			try {
+				threadFactory.newThread(task).start();
+			} catch (RuntimeException e) {
+				permits.release();
+				if (log.isErrorEnabled()) {
+					log.error(e.getMessage(), e);
+				}
+			}
+		}
+	}
+
+	private static ThreadFactory createVirtualThreadFactory(String prefix) {
+		if (!isAvailable()) {
+			throw new IllegalStateException("Virtual threads require Java 21 or later");
+		}
+		try {
+			Object builder = OF_VIRTUAL.invoke(null);
+			builder = BUILDER_NAME.invoke(builder, prefix, 0L);
+			return (ThreadFactory) BUILDER_FACTORY.invoke(builder);
+		} catch (Exception e) {
+			throw new IllegalStateException("Failed to create a virtual thread factory", e);
+		}
+	}
+
+	private static Method findMethod(String className, String name, Class<?>... parameterTypes) {
+		try {
+			return findMethod(Class.forName(className), name, parameterTypes);
+		} catch (ClassNotFoundException e) {
+			return null;
+		}
+	}
+
+	private static Method findMethod(Class<?> type, String name, Class<?>... parameterTypes) {
+		try {
+			return type.getMethod(name, parameterTypes);
+		} catch (NoSuchMethodException e) {
+			return null;
+		}
+	}
+
+	private class VirtualThreadTask extends Task<Event<Object>> implements Runnable {
+		@Override
+		public void submit() {
+			// Don't let this task overtake those already waiting for a permit
+			if (!backlog.isEmpty() || !permits.tryAcquire()) {
+				backlog.add(this);
+				// Every running task may have completed before this one was queued
+				drainBacklog();
+				return;
+			}
+			try {
+				threadFactory.newThread(this).start();
+			} catch (RuntimeException e) {
+				permits.release();
+				throw e;
+			}
+		}
+
+		@Override
+		public void run() {
+			try {
+				execute();
+			} catch (Throwable t) {
+				if (log.isErrorEnabled()) {
+					log.error(t.getMessage(), t);
+				}
+			} finally {
+				permits.release();
+				drainBacklog();
+			}
+		}
+	}
+
+}
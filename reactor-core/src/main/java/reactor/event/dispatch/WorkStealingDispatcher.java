@@ -0,0 +1,138 @@
+/*
+ * Copyright (c) 2011-2013 GoPivotal, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package reactor.event.dispatch;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import reactor.event.Event;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A {@code Dispatcher} that uses a {@link ForkJoinPool} in async mode to dispatch events. A task that is dispatched
+ * from one of the pool's own threads, typically by a consumer that notifies further events, is pushed onto that
+ * thread's local deque rather than onto a queue shared with every other producer, and idle threads steal work from
+ * busy ones. This suits recursive fan-out workloads far better than a {@link ThreadPoolExecutorDispatcher}.
+ * <p>
+ * Tasks are executed in FIFO order per thread, but there is no ordering across threads. Requires Java 7 or later.
+ * </p>
+ */
+public final class WorkStealingDispatcher extends BaseLifecycleDispatcher {
+
+	private static final AtomicInteger INSTANCE_COUNT = new AtomicInteger();
+
+	private final Logger log = LoggerFactory.getLogger(WorkStealingDispatcher.class);
+	private final ForkJoinPool pool;
+
+	/**
+	 * Creates a new {@literal WorkStealingDispatcher} with the given {@literal name} and as many threads as there are
+	 * processors.
+	 *
+	 * @param name the name
+	 */
+	public WorkStealingDispatcher(String name) {
+		this(name, Runtime.getRuntime().availableProcessors());
+	}
+
+	/**
+	 * Creates a new {@literal WorkStealingDispatcher} with the given {@literal name} and {@literal parallelism}.
+	 *
+	 * @param name        the name
+	 * @param parallelism the number of threads
+	 */
+	public WorkStealingDispatcher(String name, int parallelism) {
+		this.pool = new ForkJoinPool(parallelism, new NamedWorkerThreadFactory(name), null, true);
+	}
+
+	@Override
+	public boolean awaitAndShutdown(long timeout, TimeUnit timeUnit) {
+		shutdown();
+		try {
+			return pool.awaitTermination(timeout, timeUnit);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+		return false;
+	}
+
+	@Override
+	public void shutdown() {
+		pool.shutdown();
+		super.shutdown();
+	}
+
+	@Override
+	public void halt() {
+		pool.shutdownNow();
+		super.halt();
+	}
+
+	@SuppressWarnings("unchecked")
+	@Override
+	protected <E extends Event<?>> Task<E> createTask() {
+		// A forked task can't be safely reused until the pool has finished with it, so tasks aren't pooled
+		return (Task<E>) new WorkStealingTask();
+	}
+
+	private class WorkStealingTask extends Task<Event<Object>> {
+		private final RecursiveAction action = new RecursiveAction() {
+			private static final long serialVersionUID = -5473812946542541624L;
+
+			@Override
+			protected void compute() {
+				try {
+					execute();
+				} catch (Throwable t) {
+					if (log.isErrorEnabled()) {
+						log.error(t.getMessage(), t);
+					}
+				}
+			}
+		};
+
+		@Override
+		public void submit() {
+			Thread current = Thread.currentThread();
+			if (current instanceof ForkJoinWorkerThread && ((ForkJoinWorkerThread) current).getPool() == pool) {
+				action.fork();
+			} else {
+				pool.execute(action);
+			}
+		}
+	}
+
+	private static class NamedWorkerThreadFactory implements ForkJoinPool.ForkJoinWorkerThreadFactory {
+		private final String prefix;
+
+		private NamedWorkerThreadFactory(String name) {
+			this.prefix = name + "-workstealing-" + INSTANCE_COUNT.incrementAndGet();
+		}
+
+		@Override
+		public ForkJoinWorkerThread newThread(ForkJoinPool pool) {
+			ForkJoinWorkerThread t = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+			t.setName(prefix + "-" + t.getPoolIndex());
+			t.setDaemon(true);
+			return t;
+		}
+	}
+
+}
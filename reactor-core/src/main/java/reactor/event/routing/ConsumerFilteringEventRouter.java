@@ -26,10 +26,11 @@ import reactor.function.support.CancelConsumerException;
 import reactor.util.Assert;
 
 import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * An {@link reactor.event.routing.EventRouter} that {@link Filter#filter filters} consumers before routing events to
- * them.
+ * them. Events whose {@link Event#isExpired() deadline has passed} are dropped without being routed to any consumer.
  *
  * @author Andy Wilkinson
  * @author Stephane Maldini
@@ -37,6 +38,7 @@ import java.util.List;
 public class ConsumerFilteringEventRouter implements EventRouter {
 
 	private final Logger logger = LoggerFactory.getLogger(getClass());
+	private final AtomicLong      expired = new AtomicLong();
 	private final Filter          filter;
 	private final ConsumerInvoker consumerInvoker;
 
@@ -60,8 +62,15 @@ public class ConsumerFilteringEventRouter implements EventRouter {
 										List<Registration<? extends Consumer<? extends Event<?>>>> consumers,
 										Consumer<?> completionConsumer,
 										Consumer<Throwable> errorConsumer) {
+		if (null != event && event.isExpired()) {
+			expired.incrementAndGet();
+			return;
+		}
 		if (null != consumers) {
-			for (Registration<? extends Consumer<? extends Event<?>>> consumer : filter.filter(consumers, key)) {
+			List<Registration<? extends Consumer<? extends Event<?>>>> filtered = filter.filter(consumers, key);
+			// Index rather than iterate so that routing doesn't allocate an Iterator per event
+			for (int i = 0, size = filtered.size(); i < size; i++) {
+				Registration<? extends Consumer<? extends Event<?>>> consumer = filtered.get(i);
 				try {
 					invokeConsumer(key, event, consumer);
 				} catch (Throwable t) {
@@ -111,6 +120,15 @@ public class ConsumerFilteringEventRouter implements EventRouter {
 		return (!registration.isCancelled() && !registration.isPaused());
 	}
 
+	/**
+	 * Returns the number of events that were dropped because their deadline had passed
+	 *
+	 * @return The number of expired events
+	 */
+	public long getExpiredCount() {
+		return expired.get();
+	}
+
 	/**
 	 * Returns the {@code Filter} being used
 	 *
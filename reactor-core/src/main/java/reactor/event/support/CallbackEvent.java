@@ -29,9 +29,9 @@ public class CallbackEvent<T> extends Event<T>{
 	@Override
 	public <X> Event<X> copy(X data) {
 		if (null != getReplyTo())
-			return new CallbackEvent<X>(getHeaders(), data, callback, getErrorConsumer()).setReplyTo(getReplyTo());
+			return new CallbackEvent<X>(getHeaders().copy(), data, callback, getErrorConsumer()).setReplyTo(getReplyTo());
 		else
-			return new CallbackEvent<X>(getHeaders(), data, callback, getErrorConsumer());
+			return new CallbackEvent<X>(getHeaders().copy(), data, callback, getErrorConsumer());
 	}
 
 
@@ -0,0 +1,122 @@
+/*
+ * Copyright (c) 2011-2013 GoPivotal, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package reactor.event.support;
+
+import reactor.cache.ObjectPool;
+import reactor.function.Supplier;
+
+/**
+ * A bounded, lock-free pool of {@link PooledEvent PooledEvents}. Events are created on demand when the pool is empty
+ * and are kept for reuse when they're released, up to the pool's capacity, so that a steady stream of notifications
+ * doesn't create any garbage once the pool has warmed up.
+ * <pre>
+ * PooledEvent&lt;String&gt; ev = pool.allocate("Hello World!");
+ * try {
+ *   reactor.notify("greeting", ev);
+ * } finally {
+ *   ev.release();
+ * }
+ * </pre>
+ * Subclasses can override {@link #newEvent()} to pool their own {@link PooledEvent} subclass.
+ *
+ * @see ObjectPool
+ */
+public class EventPool {
+
+	private final ObjectPool<PooledEvent<?>> events;
+
+	/**
+	 * Create a new {@literal EventPool} that keeps up to {@code capacity} released events for reuse.
+	 *
+	 * @param capacity
+	 * 		the maximum number of idle events to keep in the pool's shared stack
+	 */
+	public EventPool(int capacity) {
+		this.events = new ObjectPool<PooledEvent<?>>(
+				new Supplier<PooledEvent<?>>() {
+					@Override
+					public PooledEvent<?> get() {
+						return newEvent();
+					}
+				},
+				0,
+				capacity
+		);
+	}
+
+	/**
+	 * Allocate an event from the pool. The caller holds the only reference to the event and must {@link
+	 * PooledEvent#release() release} it when done.
+	 *
+	 * @param data
+	 * 		the event's data
+	 * @param <T>
+	 * 		the type of the data
+	 *
+	 * @return a pooled event carrying the given data
+	 */
+	@SuppressWarnings("unchecked")
+	public <T> PooledEvent<T> allocate(T data) {
+		PooledEvent<T> ev = (PooledEvent<T>)events.allocate();
+		ev.acquire();
+		ev.setData(data);
+		return ev;
+	}
+
+	/**
+	 * Allocate an event from the pool and set its reply-to key.
+	 *
+	 * @param data
+	 * 		the event's data
+	 * @param replyTo
+	 * 		the key to reply to
+	 * @param <T>
+	 * 		the type of the data
+	 *
+	 * @return a pooled event carrying the given data
+	 *
+	 * @see #allocate(Object)
+	 */
+	public <T> PooledEvent<T> allocate(T data, Object replyTo) {
+		PooledEvent<T> ev = allocate(data);
+		ev.setReplyTo(replyTo);
+		return ev;
+	}
+
+	/**
+	 * Get the ratio of allocations that reused a pooled event.
+	 *
+	 * @return the hit rate, between {@literal 0} and {@literal 1}
+	 */
+	public double getHitRate() {
+		return events.getHitRate();
+	}
+
+	/**
+	 * Create a new event belonging to this pool.
+	 *
+	 * @return a new event
+	 */
+	protected PooledEvent<?> newEvent() {
+		return new PooledEvent<Object>(this);
+	}
+
+	void deallocate(PooledEvent<?> ev) {
+		events.deallocate(ev);
+	}
+
+}
@@ -0,0 +1,117 @@
+/*
+ * Copyright (c) 2011-2013 GoPivotal, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package reactor.event.support;
+
+import reactor.event.Event;
+
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+
+/**
+ * An {@link Event} that is allocated from, and returned to, an {@link EventPool}. A pooled event is reference counted:
+ * it is handed out by {@link EventPool#allocate(Object)} with a count of one, every {@link
+ * reactor.event.dispatch.Dispatcher} that accepts it {@link #retain() retains} it until the event has been routed,
+ * and once the last reference has been {@link #release() released} the event is cleared and goes back to its pool.
+ * <p>
+ * An event must therefore not be used by a producer after it has released it, nor by a consumer after the consumer
+ * has returned, unless it has been retained. {@link #copy() Copies} of a pooled event are ordinary events and can be
+ * held on to freely.
+ * </p>
+ *
+ * @param <T>
+ * 		the type of the event's data
+ */
+public class PooledEvent<T> extends Event<T> {
+
+	private static final long serialVersionUID = 2966498233946209421L;
+
+	@SuppressWarnings("rawtypes")
+	private static final AtomicIntegerFieldUpdater<PooledEvent> REF_COUNT =
+			AtomicIntegerFieldUpdater.newUpdater(PooledEvent.class, "refCount");
+
+	private final transient EventPool pool;
+	private volatile        int       refCount;
+
+	/**
+	 * Create a new {@literal PooledEvent} that will return to the given pool once it has been released.
+	 *
+	 * @param pool
+	 * 		the pool the event belongs to
+	 */
+	protected PooledEvent(EventPool pool) {
+		super(null);
+		this.pool = pool;
+	}
+
+	/**
+	 * Add a reference to this event.
+	 *
+	 * @return {@literal this}
+	 *
+	 * @throws IllegalStateException
+	 * 		if the event has already been released back to its pool
+	 */
+	public PooledEvent<T> retain() {
+		for(; ; ) {
+			int cnt = refCount;
+			if(cnt < 1) {
+				throw new IllegalStateException("Event has already been released");
+			}
+			if(REF_COUNT.compareAndSet(this, cnt, cnt + 1)) {
+				return this;
+			}
+		}
+	}
+
+	/**
+	 * Drop a reference to this event, returning the event to its pool if it was the last one.
+	 *
+	 * @return {@literal true} if the event went back to its pool, {@literal false} if it is still referenced
+	 *
+	 * @throws IllegalStateException
+	 * 		if the event has already been released back to its pool
+	 */
+	public boolean release() {
+		for(; ; ) {
+			int cnt = refCount;
+			if(cnt < 1) {
+				throw new IllegalStateException("Event has already been released");
+			}
+			if(REF_COUNT.compareAndSet(this, cnt, cnt - 1)) {
+				if(cnt > 1) {
+					return false;
+				}
+				recycle();
+				pool.deallocate(this);
+				return true;
+			}
+		}
+	}
+
+	/**
+	 * Get the number of outstanding references to this event.
+	 *
+	 * @return the reference count
+	 */
+	public int refCount() {
+		return refCount;
+	}
+
+	void acquire() {
+		refCount = 1;
+	}
+
+}
@@ -117,10 +117,26 @@ public class Buffer implements Comparable<Buffer>,
 	 * @param bufferToStartWith The {@link ByteBuffer} to start with.
 	 */
 	public Buffer(ByteBuffer bufferToStartWith) {
-		this.dynamic = true;
+		this(bufferToStartWith, true);
+	}
+
+	private Buffer(ByteBuffer bufferToStartWith, boolean dynamic) {
+		this.dynamic = dynamic;
 		this.buffer = bufferToStartWith;
 	}
 
+	/**
+	 * Create a fixed-length, read-only {@literal Buffer} over the remaining content of the given {@link ByteBuffer},
+	 * without copying it. The content is shared with the given {@link ByteBuffer}, which may be a memory-mapped region,
+	 * so the view is only valid for as long as that content is.
+	 *
+	 * @param bytes The bytes to create a view of.
+	 * @return The new, read-only {@literal Buffer}.
+	 */
+	public static Buffer readOnly(ByteBuffer bytes) {
+		return new Buffer(bytes.slice().asReadOnlyBuffer(), false);
+	}
+
 	/**
 	 * Convenience method to create a new, fixed-length {@literal Buffer} and putting the given byte array into the
 	 * buffer.
@@ -271,6 +287,16 @@ public class Buffer implements Comparable<Buffer>,
 		return dynamic;
 	}
 
+	/**
+	 * Whether this {@literal Buffer} is a read-only view.
+	 *
+	 * @return {@literal true} if the content of this {@literal Buffer} cannot be changed, {@literal false} otherwise.
+	 * @see #readOnly(ByteBuffer)
+	 */
+	public boolean isReadOnly() {
+		return (null != buffer && buffer.isReadOnly());
+	}
+
 	/**
 	 * Provides the current position in the internal {@link ByteBuffer}.
 	 *
@@ -615,6 +641,24 @@ public class Buffer implements Comparable<Buffer>,
 		return this;
 	}
 
+	/**
+	 * Append the given {@code long} to this {@literal Buffer} as an unsigned variable-length integer, which takes one
+	 * byte for every 7 significant bits, so that small values take a single byte.
+	 *
+	 * @param l The {@code long} to append.
+	 * @return {@literal this}
+	 * @see #readVarLong()
+	 */
+	public Buffer appendVarLong(long l) {
+		ensureCapacity(10);
+		while ((l & ~0x7FL) != 0) {
+			buffer.put((byte) ((l & 0x7F) | 0x80));
+			l >>>= 7;
+		}
+		buffer.put((byte) l);
+		return this;
+	}
+
 	/**
 	 * Append the given {@code char} to this {@literal Buffer}.
 	 *
@@ -760,6 +804,27 @@ public class Buffer implements Comparable<Buffer>,
 		throw new BufferUnderflowException();
 	}
 
+	/**
+	 * Read the next unsigned variable-length integer from the underlying {@link ByteBuffer}.
+	 *
+	 * @return The next variable-length {@code long}.
+	 * @see #appendVarLong(long)
+	 */
+	public long readVarLong() {
+		if (null == buffer) {
+			throw new BufferUnderflowException();
+		}
+		long l = 0;
+		for (int shift = 0; shift < 64; shift += 7) {
+			byte b = buffer.get();
+			l |= (long) (b & 0x7F) << shift;
+			if (b >= 0) {
+				return l;
+			}
+		}
+		throw new IllegalStateException("Malformed variable-length integer");
+	}
+
 	/**
 	 * Read the next {@code float} from the underlying {@link ByteBuffer}.
 	 *
@@ -1083,30 +1148,24 @@ public class Buffer implements Comparable<Buffer>,
 
 	private synchronized void ensureCapacity(int atLeast) {
 		if (null == buffer) {
-			buffer = ByteBuffer.allocate(SMALL_BUFFER_SIZE);
+			buffer = ByteBuffer.allocate(Math.max(atLeast, SMALL_BUFFER_SIZE));
 			return;
 		}
 		int pos = buffer.position();
-		int cap = buffer.capacity();
 		if (dynamic && buffer.remaining() < atLeast) {
-			if (buffer.limit() < cap) {
-				// there's remaining capacity that hasn't been used yet
-				if (pos + atLeast > cap) {
-					expand();
-					cap = buffer.capacity();
-				}
-				buffer.limit(Math.min(pos + atLeast, cap));
-			} else {
-				expand();
+			if (pos + atLeast > buffer.capacity()) {
+				expand(pos + atLeast);
 			}
+			// use the capacity that hasn't been used yet
+			buffer.limit(pos + atLeast);
 		} else if (pos + SMALL_BUFFER_SIZE > MAX_BUFFER_SIZE) {
 			throw new BufferOverflowException();
 		}
 	}
 
-	private void expand() {
+	private void expand(int minCapacity) {
 		snapshot();
-		ByteBuffer newBuff = ByteBuffer.allocate(buffer.limit() + SMALL_BUFFER_SIZE);
+		ByteBuffer newBuff = ByteBuffer.allocate(Math.max(buffer.limit() + SMALL_BUFFER_SIZE, minCapacity));
 		buffer.flip();
 		newBuff.put(buffer);
 		buffer = newBuff;
@@ -1158,40 +1217,34 @@ public class Buffer implements Comparable<Buffer>,
 	}
 
 	private class BufferInputStream extends InputStream {
-		ByteBuffer buffer = Buffer.this.buffer.slice();
+		final int        start  = Buffer.this.buffer.position();
+		final ByteBuffer buffer = Buffer.this.buffer.slice();
 
 		@Override
 		public int read(byte[] b) throws IOException {
-			int pos = buffer.position();
-			buffer.get(b);
-			syncPos();
-			return buffer.position() - pos;
+			return read(b, 0, b.length);
 		}
 
 		@Override
 		public int read(byte[] b, int off, int len) throws IOException {
-			if (null == buffer || buffer.remaining() == 0) {
-				return -1;
+			if (len == 0) {
+				return 0;
 			}
-			byte[] bytes = asBytes();
-			int bytesLen = bytes.length;
-			System.arraycopy(bytes, 0, b, off, bytesLen);
-			if (len < bytesLen) {
-				buffer.position(position + len);
+			if (!buffer.hasRemaining()) {
+				return -1;
 			}
+			int n = Math.min(len, buffer.remaining());
+			buffer.get(b, off, n);
 			syncPos();
-			return bytesLen;
+			return n;
 		}
 
 		@Override
 		public long skip(long n) throws IOException {
-			if (n < buffer.remaining()) {
-				throw new IOException(new BufferUnderflowException());
-			}
-			int pos = buffer.position();
-			buffer.position((int) (pos + n));
+			int skipped = (int) Math.max(0, Math.min(n, buffer.remaining()));
+			buffer.position(buffer.position() + skipped);
 			syncPos();
-			return buffer.position() - pos;
+			return skipped;
 		}
 
 		@Override
@@ -1227,13 +1280,16 @@ public class Buffer implements Comparable<Buffer>,
 
 		@Override
 		public int read() throws IOException {
-			int b = buffer.get();
+			if (!buffer.hasRemaining()) {
+				return -1;
+			}
+			int b = buffer.get() & 0xff;
 			syncPos();
 			return b;
 		}
 
 		private void syncPos() {
-			Buffer.this.buffer.position(buffer.position());
+			Buffer.this.buffer.position(start + buffer.position());
 		}
 	}
 
@@ -0,0 +1,601 @@
+/*
+ * Copyright (c) 2011-2013 GoPivotal, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package reactor.io;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import reactor.event.Event;
+import reactor.event.EventSerializer;
+import reactor.function.Function;
+import reactor.util.Assert;
+
+/**
+ * A {@literal CodecRegistry} writes objects to a {@link Buffer} in a compact binary form, and reads them back, using
+ * the {@link Serializer} registered for each type. Every type is registered under a numeric id, which is written
+ * before each object as a variable-length integer, so an object takes as little as one byte more than its content,
+ * rather than carrying the name of its class the way Java serialization does.
+ * <p>
+ * A new registry knows about {@code null}, the primitive wrappers, {@code String}, {@code byte[]}, {@link UUID},
+ * {@link ArrayList}, {@link LinkedList}, {@link HashSet}, {@link LinkedHashSet}, {@link HashMap}, {@link
+ * LinkedHashMap} and {@link Event}. Integers are written as zig-zag variable-length integers, so that small values of
+ * either sign stay small. The built-in types are only used for objects of exactly that class, so that every object is
+ * read back as the class it was written as: objects of any other {@link Serializable} type, such as a {@code TreeMap}
+ * or a subclass of {@code Event}, are written with Java serialization, until a {@link Serializer} is registered for
+ * them.
+ * </p>
+ * <p>
+ * Reading Java-serialized objects lets whoever wrote the data create objects of any class on the classpath, so a
+ * registry that reads data from an untrusted source, such as a network peer, should be created {@link
+ * #CodecRegistry(boolean) without Java serialization}.
+ * </p>
+ * <p>
+ * Ids below {@link #FIRST_USER_ID} are reserved. Both ends of a conversation, or the writer and later readers of a
+ * persistent queue, must register the same types under the same ids. A {@link Serializer} registered for a type is
+ * also used for its subtypes, unless they have one of their own.
+ * </p>
+ */
+public class CodecRegistry {
+
+	/**
+	 * The lowest id that may be used to {@link #register(int, Class, Serializer) register} a type.
+	 */
+	public static final int FIRST_USER_ID = 32;
+
+	private static final Charset UTF8            = Charset.forName("UTF-8");
+	private static final int     NULL_ID         = 0;
+	private static final int     SERIALIZABLE_ID = FIRST_USER_ID - 1;
+
+	private final ConcurrentMap<Class<?>, Entry> registered = new ConcurrentHashMap<Class<?>, Entry>();
+	private final ConcurrentMap<Class<?>, Entry> resolved   = new ConcurrentHashMap<Class<?>, Entry>();
+	private final List<Entry>                    entries    = new CopyOnWriteArrayList<Entry>();
+	private final ThreadLocal<Buffer>            scratch    = new ThreadLocal<Buffer>() {
+		@Override
+		protected Buffer initialValue() {
+			return new Buffer(Buffer.SMALL_BUFFER_SIZE, false);
+		}
+	};
+	private final Entry serializable;
+	private volatile Entry[] byId = new Entry[FIRST_USER_ID];
+
+	/**
+	 * Create a new {@literal CodecRegistry} that knows about the built-in types, and falls back to Java serialization
+	 * for other {@link Serializable} types.
+	 */
+	public CodecRegistry() {
+		this(true);
+	}
+
+	/**
+	 * Create a new {@literal CodecRegistry} that knows about the built-in types.
+	 *
+	 * @param javaSerialization
+	 * 		whether to write and read {@link Serializable} types that have no {@link Serializer} with Java
+	 * 		serialization; if not, such objects can't be written and their id is rejected when read
+	 */
+	public CodecRegistry(boolean javaSerialization) {
+		if(javaSerialization) {
+			serializable = new Entry(SERIALIZABLE_ID, Serializable.class, new JavaSerializer(), true);
+			byId[SERIALIZABLE_ID] = serializable;
+		} else {
+			serializable = null;
+		}
+		add(1, Boolean.class, new BooleanSerializer(), true);
+		add(2, Byte.class, new ByteSerializer(), true);
+		add(3, Short.class, new ShortSerializer(), true);
+		add(4, Character.class, new CharacterSerializer(), true);
+		add(5, Integer.class, new IntegerSerializer(), true);
+		add(6, Long.class, new LongSerializer(), true);
+		add(7, Float.class, new FloatSerializer(), true);
+		add(8, Double.class, new DoubleSerializer(), true);
+		add(9, String.class, new StringSerializer(), true);
+		add(10, byte[].class, new BytesSerializer(), true);
+		add(11, UUID.class, new UUIDSerializer(), true);
+		add(12, ArrayList.class, new CollectionSerializer<ArrayList<Object>>() {
+			@Override
+			protected ArrayList<Object> create(int size) {
+				return new ArrayList<Object>(size);
+			}
+		}, true);
+		add(13, LinkedList.class, new CollectionSerializer<LinkedList<Object>>() {
+			@Override
+			protected LinkedList<Object> create(int size) {
+				return new LinkedList<Object>();
+			}
+		}, true);
+		add(14, HashSet.class, new CollectionSerializer<HashSet<Object>>() {
+			@Override
+			protected HashSet<Object> create(int size) {
+				return new HashSet<Object>(size * 2);
+			}
+		}, true);
+		add(15, LinkedHashSet.class, new CollectionSerializer<LinkedHashSet<Object>>() {
+			@Override
+			protected LinkedHashSet<Object> create(int size) {
+				return new LinkedHashSet<Object>(size * 2);
+			}
+		}, true);
+		add(16, HashMap.class, new MapSerializer<HashMap<Object, Object>>() {
+			@Override
+			protected HashMap<Object, Object> create(int size) {
+				return new HashMap<Object, Object>(size * 2);
+			}
+		}, true);
+		add(17, LinkedHashMap.class, new MapSerializer<LinkedHashMap<Object, Object>>() {
+			@Override
+			protected LinkedHashMap<Object, Object> create(int size) {
+				return new LinkedHashMap<Object, Object>(size * 2);
+			}
+		}, true);
+		add(18, Event.class, new EventSerializer(), true);
+	}
+
+	/**
+	 * Register the {@link Serializer} to use for objects of the given type, and of its subtypes that don't have one of
+	 * their own.
+	 *
+	 * @param id
+	 * 		the id to write before each object, at least {@link #FIRST_USER_ID}
+	 * @param type
+	 * 		the type of objects
+	 * @param serializer
+	 * 		the {@link Serializer} for them
+	 * @param <T>
+	 * 		the type of objects
+	 *
+	 * @return {@literal this}
+	 *
+	 * @throws IllegalArgumentException
+	 * 		if the id is reserved or already in use, or the type already has a {@link Serializer}
+	 */
+	public <T> CodecRegistry register(int id, Class<T> type, Serializer<? super T> serializer) {
+		Assert.isTrue(id >= FIRST_USER_ID, "Ids below " + FIRST_USER_ID + " are reserved.");
+		add(id, type, serializer, false);
+		return this;
+	}
+
+	/**
+	 * Write the given object, preceded by the id of its type, to the buffer.
+	 *
+	 * @param obj
+	 * 		the object to write, may be {@code null}
+	 * @param out
+	 * 		the buffer to write to
+	 *
+	 * @throws IllegalArgumentException
+	 * 		if there is no {@link Serializer} for the object's type
+	 */
+	@SuppressWarnings("unchecked")
+	public void write(Object obj, Buffer out) {
+		if(null == obj) {
+			out.appendVarLong(NULL_ID);
+			return;
+		}
+		Entry entry = entry(obj.getClass());
+		out.appendVarLong(entry.id);
+		((Serializer<Object>)entry.serializer).write(obj, out, this);
+	}
+
+	/**
+	 * Read an object written by {@link #write(Object, Buffer)} from the buffer.
+	 *
+	 * @param in
+	 * 		the buffer to read from
+	 *
+	 * @return the object read, may be {@code null}
+	 *
+	 * @throws IllegalStateException
+	 * 		if the object's type id is unknown, or a length read is longer than what is left in the buffer
+	 */
+	public Object read(Buffer in) {
+		long id = in.readVarLong();
+		if(id == NULL_ID) {
+			return null;
+		}
+		Entry[] byId = this.byId;
+		Entry entry = (id < byId.length ? byId[(int)id] : null);
+		if(null == entry) {
+			throw new IllegalStateException("No Serializer registered for id " + id);
+		}
+		return entry.serializer.read(in, this);
+	}
+
+	/**
+	 * Get a {@link Function} that writes objects to new {@link Buffer Buffers}, such as the encoder of a {@link
+	 * reactor.queue.QueuePersistor}.
+	 *
+	 * @param <T>
+	 * 		the type of objects
+	 *
+	 * @return an encoder
+	 */
+	public <T> Function<T, Buffer> encoder() {
+		return new Function<T, Buffer>() {
+			@Override
+			public Buffer apply(T obj) {
+				// Write to a per-thread buffer and copy out exactly what was written
+				Buffer buff = scratch.get().clear();
+				write(obj, buff);
+				buff.flip();
+				ByteBuffer bytes = ByteBuffer.allocate(buff.remaining());
+				bytes.put(buff.byteBuffer());
+				bytes.flip();
+				return new Buffer(bytes);
+			}
+		};
+	}
+
+	/**
+	 * Get a {@link Function} that reads objects from {@link Buffer Buffers}, such as the decoder of a {@link
+	 * reactor.queue.QueuePersistor}.
+	 *
+	 * @param <T>
+	 * 		the type of objects
+	 *
+	 * @return a decoder
+	 */
+	public <T> Function<Buffer, T> decoder() {
+		return new Function<Buffer, T>() {
+			@SuppressWarnings("unchecked")
+			@Override
+			public T apply(Buffer buff) {
+				return (T)read(buff);
+			}
+		};
+	}
+
+	/**
+	 * Write a {@code String}, without a type id, as its length in UTF-8 bytes followed by the bytes.
+	 *
+	 * @param s
+	 * 		the {@code String} to write
+	 * @param out
+	 * 		the buffer to write to
+	 */
+	public static void writeString(String s, Buffer out) {
+		byte[] bytes = s.getBytes(UTF8);
+		out.appendVarLong(bytes.length);
+		out.append(bytes);
+	}
+
+	/**
+	 * Read a {@code String} written by {@link #writeString(String, Buffer)}.
+	 *
+	 * @param in
+	 * 		the buffer to read from
+	 *
+	 * @return the {@code String}
+	 */
+	public static String readString(Buffer in) {
+		byte[] bytes = new byte[readLength(in)];
+		in.read(bytes);
+		return new String(bytes, UTF8);
+	}
+
+	/**
+	 * Read a length, of bytes or of objects that each take at least one byte, and check that the buffer holds that
+	 * many bytes before anything is allocated for it.
+	 */
+	private static int readLength(Buffer in) {
+		long len = in.readVarLong();
+		if(len < 0 || len > in.remaining()) {
+			throw new IllegalStateException("Length " + len + " exceeds the " + in.remaining() + " bytes left");
+		}
+		return (int)len;
+	}
+
+	private static long zigZag(long l) {
+		return (l << 1) ^ (l >> 63);
+	}
+
+	private static long unZigZag(long l) {
+		return (l >>> 1) ^ -(l & 1);
+	}
+
+	private Entry entry(Class<?> type) {
+		Entry entry = resolved.get(type);
+		if(null != entry) {
+			return entry;
+		}
+		entry = registered.get(type);
+		if(null == entry) {
+			// The most recently registered supertype wins, built-in types only being used for their exact class
+			for(int i = entries.size() - 1; i >= 0 && null == entry; i--) {
+				if(!entries.get(i).exact && entries.get(i).type.isAssignableFrom(type)) {
+					entry = entries.get(i);
+				}
+			}
+		}
+		if(null == entry && null != serializable && Serializable.class.isAssignableFrom(type)) {
+			entry = serializable;
+		}
+		if(null == entry) {
+			throw new IllegalArgumentException("No Serializer registered for " + type.getName());
+		}
+		resolved.put(type, entry);
+		return entry;
+	}
+
+	private synchronized void add(int id, Class<?> type, Serializer<?> serializer, boolean exact) {
+		Assert.notNull(type, "Type cannot be null.");
+		Assert.notNull(serializer, "Serializer cannot be null.");
+		Assert.isTrue(!registered.containsKey(type), type.getName() + " already has a Serializer.");
+		Entry[] byId = this.byId;
+		Assert.isTrue(id >= byId.length || null == byId[id], "Id " + id + " is already in use.");
+		if(id >= byId.length) {
+			Entry[] grown = new Entry[Math.max(id + 1, byId.length * 2)];
+			System.arraycopy(byId, 0, grown, 0, byId.length);
+			byId = grown;
+		}
+		Entry entry = new Entry(id, type, serializer, exact);
+		byId[id] = entry;
+		registered.put(type, entry);
+		entries.add(entry);
+		resolved.clear();
+		this.byId = byId;
+	}
+
+	private static final class Entry {
+		final int           id;
+		final Class<?>      type;
+		final Serializer<?> serializer;
+		final boolean       exact;
+
+		private Entry(int id, Class<?> type, Serializer<?> serializer, boolean exact) {
+			this.id = id;
+			this.type = type;
+			this.serializer = serializer;
+			this.exact = exact;
+		}
+	}
+
+	private static class BooleanSerializer implements Serializer<Boolean> {
+		@Override
+		public void write(Boolean b, Buffer out, CodecRegistry registry) {
+			out.append((byte)(b ? 1 : 0));
+		}
+
+		@Override
+		public Boolean read(Buffer in, CodecRegistry registry) {
+			return in.read() != 0;
+		}
+	}
+
+	private static class ByteSerializer implements Serializer<Byte> {
+		@Override
+		public void write(Byte b, Buffer out, CodecRegistry registry) {
+			out.append(b.byteValue());
+		}
+
+		@Override
+		public Byte read(Buffer in, CodecRegistry registry) {
+			return in.read();
+		}
+	}
+
+	private static class ShortSerializer implements Serializer<Short> {
+		@Override
+		public void write(Short s, Buffer out, CodecRegistry registry) {
+			out.appendVarLong(zigZag(s));
+		}
+
+		@Override
+		public Short read(Buffer in, CodecRegistry registry) {
+			return (short)unZigZag(in.readVarLong());
+		}
+	}
+
+	private static class CharacterSerializer implements Serializer<Character> {
+		@Override
+		public void write(Character c, Buffer out, CodecRegistry registry) {
+			out.appendVarLong(c);
+		}
+
+		@Override
+		public Character read(Buffer in, CodecRegistry registry) {
+			return (char)in.readVarLong();
+		}
+	}
+
+	private static class IntegerSerializer implements Serializer<Integer> {
+		@Override
+		public void write(Integer i, Buffer out, CodecRegistry registry) {
+			out.appendVarLong(zigZag(i));
+		}
+
+		@Override
+		public Integer read(Buffer in, CodecRegistry registry) {
+			return (int)unZigZag(in.readVarLong());
+		}
+	}
+
+	private static class LongSerializer implements Serializer<Long> {
+		@Override
+		public void write(Long l, Buffer out, CodecRegistry registry) {
+			out.appendVarLong(zigZag(l));
+		}
+
+		@Override
+		public Long read(Buffer in, CodecRegistry registry) {
+			return unZigZag(in.readVarLong());
+		}
+	}
+
+	private static class FloatSerializer implements Serializer<Float> {
+		@Override
+		public void write(Float f, Buffer out, CodecRegistry registry) {
+			out.append(Float.floatToRawIntBits(f));
+		}
+
+		@Override
+		public Float read(Buffer in, CodecRegistry registry) {
+			return Float.intBitsToFloat(in.readInt());
+		}
+	}
+
+	private static class DoubleSerializer implements Serializer<Double> {
+		@Override
+		public void write(Double d, Buffer out, CodecRegistry registry) {
+			out.append(Double.doubleToRawLongBits(d));
+		}
+
+		@Override
+		public Double read(Buffer in, CodecRegistry registry) {
+			return Double.longBitsToDouble(in.readLong());
+		}
+	}
+
+	private static class StringSerializer implements Serializer<String> {
+		@Override
+		public void write(String s, Buffer out, CodecRegistry registry) {
+			writeString(s, out);
+		}
+
+		@Override
+		public String read(Buffer in, CodecRegistry registry) {
+			return readString(in);
+		}
+	}
+
+	private static class BytesSerializer implements Serializer<byte[]> {
+		@Override
+		public void write(byte[] bytes, Buffer out, CodecRegistry registry) {
+			out.appendVarLong(bytes.length);
+			out.append(bytes);
+		}
+
+		@Override
+		public byte[] read(Buffer in, CodecRegistry registry) {
+			byte[] bytes = new byte[readLength(in)];
+			in.read(bytes);
+			return bytes;
+		}
+	}
+
+	private static class UUIDSerializer implements Serializer<UUID> {
+		@Override
+		public void write(UUID id, Buffer out, CodecRegistry registry) {
+			out.append(id.getMostSignificantBits());
+			out.append(id.getLeastSignificantBits());
+		}
+
+		@Override
+		public UUID read(Buffer in, CodecRegistry registry) {
+			return new UUID(in.readLong(), in.readLong());
+		}
+	}
+
+	private static abstract class CollectionSerializer<C extends Collection<Object>> implements Serializer<C> {
+		@Override
+		public void write(C objs, Buffer out, CodecRegistry registry) {
+			out.appendVarLong(objs.size());
+			for(Object obj : objs) {
+				registry.write(obj, out);
+			}
+		}
+
+		@Override
+		public C read(Buffer in, CodecRegistry registry) {
+			int size = readLength(in);
+			C objs = create(size);
+			for(int i = 0; i < size; i++) {
+				objs.add(registry.read(in));
+			}
+			return objs;
+		}
+
+		protected abstract C create(int size);
+	}
+
+	private static abstract class MapSerializer<M extends Map<Object, Object>> implements Serializer<M> {
+		@Override
+		public void write(M map, Buffer out, CodecRegistry registry) {
+			out.appendVarLong(map.size());
+			for(Map.Entry<?, ?> entry : map.entrySet()) {
+				registry.write(entry.getKey(), out);
+				registry.write(entry.getValue(), out);
+			}
+		}
+
+		@Override
+		public M read(Buffer in, CodecRegistry registry) {
+			int size = readLength(in);
+			M map = create(size);
+			for(int i = 0; i < size; i++) {
+				map.put(registry.read(in), registry.read(in));
+			}
+			return map;
+		}
+
+		protected abstract M create(int size);
+	}
+
+	/**
+	 * Writes its objects with Java serialization, preceded by their length, and reads them straight from the buffer.
+	 */
+	private static class JavaSerializer implements Serializer<Object> {
+		@Override
+		public void write(Object obj, Buffer out, CodecRegistry registry) {
+			ByteArrayOutputStream baos = new ByteArrayOutputStream();
+			try {
+				ObjectOutputStream oos = new ObjectOutputStream(baos);
+				oos.writeObject(obj);
+				oos.close();
+			} catch(IOException e) {
+				throw new IllegalStateException(e.getMessage(), e);
+			}
+			out.appendVarLong(baos.size());
+			out.append(baos.toByteArray());
+		}
+
+		@Override
+		public Object read(Buffer in, CodecRegistry registry) {
+			int len = readLength(in);
+			ByteBuffer bytes = in.byteBuffer().duplicate();
+			bytes.limit(bytes.position() + len);
+			try {
+				return new ObjectInputStream(Buffer.readOnly(bytes).inputStream()).readObject();
+			} catch(IOException e) {
+				throw new IllegalStateException(e.getMessage(), e);
+			} catch(ClassNotFoundException e) {
+				throw new IllegalStateException(e.getMessage(), e);
+			} finally {
+				in.skip(len);
+			}
+		}
+	}
+
+}
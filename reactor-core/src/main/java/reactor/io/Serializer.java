@@ -0,0 +1,55 @@
+/*
+ * Copyright (c) 2011-2013 GoPivotal, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package reactor.io;
+
+/**
+ * A {@literal Serializer} writes objects of one type to a {@link Buffer} in a compact binary form, and reads them back.
+ * Serializers are {@link CodecRegistry#register(int, Class, Serializer) registered} with a {@link CodecRegistry},
+ * which takes care of telling types apart, so a serializer only writes the content of an object. Objects it contains
+ * can be written, and read back, through the registry.
+ *
+ * @param <T>
+ * 		the type of objects serialized
+ */
+public interface Serializer<T> {
+
+	/**
+	 * Write the given object to the buffer.
+	 *
+	 * @param obj
+	 * 		the object to write, never {@code null}
+	 * @param out
+	 * 		the buffer to write to
+	 * @param registry
+	 * 		the registry to write contained objects with
+	 */
+	void write(T obj, Buffer out, CodecRegistry registry);
+
+	/**
+	 * Read an object written by {@link #write(Object, Buffer, CodecRegistry)} from the buffer.
+	 *
+	 * @param in
+	 * 		the buffer to read from
+	 * @param registry
+	 * 		the registry to read contained objects with
+	 *
+	 * @return the object read
+	 */
+	T read(Buffer in, CodecRegistry registry);
+
+}
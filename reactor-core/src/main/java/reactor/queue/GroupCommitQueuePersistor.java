@@ -0,0 +1,248 @@
+/*
+ * Copyright (c) 2011-2013 GoPivotal, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package reactor.queue;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+import javax.annotation.Nonnull;
+
+import reactor.function.Function;
+import reactor.function.Supplier;
+import reactor.util.Assert;
+
+/**
+ * A {@link QueuePersistor} that gathers the items offered by concurrent producers into batches, which it persists
+ * through the {@link QueuePersistor#offerAll() offerAll} of the {@link QueuePersistor} it wraps.
+ * <p>
+ * An offering thread queues its item and commits, unless another thread is committing already, in which case it waits
+ * to be woken up. The committing thread commits every item queued so far, its own and those of the threads waiting for
+ * it, wakes them up, and hands over to a thread whose item came too late for its batch, so that while one batch is
+ * being written, and possibly forced to disk, the next one builds up. With a persistor that forces every batch, such as
+ * a {@link MappedFileQueuePersistor} with {@link MappedFileQueuePersistor.ForcePolicy#BATCH}, durable throughput is
+ * then bounded by the number of batches, rather than items, that can be forced per second.
+ * </p>
+ * <p>
+ * If a batch can't be persisted, its items are offered again one at a time, so that only the producers whose items
+ * can't be persisted get an exception.
+ * </p>
+ * <p>
+ * Batches offered by {@link #offerAll()} are written as they are, between group commits. Every other operation goes
+ * straight to the wrapped persistor.
+ * </p>
+ */
+public class GroupCommitQueuePersistor<T> implements QueuePersistor<T> {
+
+	private final ConcurrentLinkedQueue<Pending<T>> pending     = new ConcurrentLinkedQueue<Pending<T>>();
+	private final ReentrantLock                     commitLock  = new ReentrantLock();
+	private final AtomicLong                        commitCount = new AtomicLong();
+	private final QueuePersistor<T>             delegate;
+	private final int                           maxBatchSize;
+	private final Function<T, Long>             offerFun;
+	private final Function<Collection<T>, Long> offerAllFun;
+
+	/**
+	 * Create a {@link GroupCommitQueuePersistor} that commits batches of any size to the given persistor.
+	 *
+	 * @param delegate
+	 * 		The persistor to commit batches to.
+	 */
+	public GroupCommitQueuePersistor(@Nonnull QueuePersistor<T> delegate) {
+		this(delegate, Integer.MAX_VALUE);
+	}
+
+	/**
+	 * Create a {@link GroupCommitQueuePersistor} that commits batches of up to {@code maxBatchSize} items to the given
+	 * persistor.
+	 *
+	 * @param delegate
+	 * 		The persistor to commit batches to.
+	 * @param maxBatchSize
+	 * 		The maximum number of items to commit in one batch.
+	 */
+	public GroupCommitQueuePersistor(@Nonnull QueuePersistor<T> delegate, int maxBatchSize) {
+		Assert.notNull(delegate, "Delegate QueuePersistor cannot be null.");
+		Assert.isTrue(maxBatchSize > 0, "Maximum batch size must be greater than 0.");
+		this.delegate = delegate;
+		this.maxBatchSize = maxBatchSize;
+		this.offerFun = new GroupCommitOfferFunction();
+		this.offerAllFun = new GroupCommitOfferAllFunction();
+	}
+
+	/**
+	 * Get the number of batches committed so far.
+	 *
+	 * @return the number of commits
+	 */
+	public long getCommitCount() {
+		return commitCount.get();
+	}
+
+	@Override public long lastId() {
+		return delegate.lastId();
+	}
+
+	@Override public long firstId() {
+		return delegate.firstId();
+	}
+
+	@Override public long size() {
+		return delegate.size();
+	}
+
+	@Nonnull @Override public Function<T, Long> offer() {
+		return offerFun;
+	}
+
+	@Nonnull @Override public Function<Collection<T>, Long> offerAll() {
+		return offerAllFun;
+	}
+
+	@Nonnull @Override public Function<Long, T> get() {
+		return delegate.get();
+	}
+
+	@Nonnull @Override public Supplier<T> remove() {
+		return delegate.remove();
+	}
+
+	@Override public long offset(@Nonnull String tailer) {
+		return delegate.offset(tailer);
+	}
+
+	@Override public void commitOffset(@Nonnull String tailer, long offset) {
+		delegate.commitOffset(tailer, offset);
+	}
+
+	@Nonnull @Override public Map<String, Long> offsets() {
+		return delegate.offsets();
+	}
+
+	@Override public Iterator<T> iterator() {
+		return delegate.iterator();
+	}
+
+	@Override public void close() {
+		delegate.close();
+	}
+
+	private void commit() {
+		List<Pending<T>> batch = new ArrayList<Pending<T>>();
+		List<T> items = new ArrayList<T>();
+		Pending<T> p;
+		while(batch.size() < maxBatchSize && null != (p = pending.poll())) {
+			batch.add(p);
+			items.add(p.item);
+		}
+		if(batch.isEmpty()) {
+			return;
+		}
+
+		long lastId = delegate.lastId();
+		try {
+			long id = delegate.offerAll().apply(items) - batch.size() + 1;
+			for(Pending<T> done : batch) {
+				done.id = id++;
+			}
+		} catch(RuntimeException e) {
+			// Some persistors write a batch one item at a time, so keep the items written before the failure
+			int written = (int)Math.max(0, Math.min(batch.size(), delegate.lastId() - lastId));
+			for(int i = 0; i < written; i++) {
+				batch.get(i).id = lastId + 1 + i;
+			}
+			for(int i = written; i < batch.size(); i++) {
+				Pending<T> retry = batch.get(i);
+				try {
+					retry.id = delegate.offer().apply(retry.item);
+				} catch(RuntimeException itemError) {
+					retry.error = itemError;
+				}
+			}
+		}
+		commitCount.incrementAndGet();
+		for(Pending<T> done : batch) {
+			LockSupport.unpark(done.thread);
+		}
+	}
+
+	private void unlockAndHandOver() {
+		commitLock.unlock();
+		// Wake a producer whose item is still queued, as it may have parked while the lock was held
+		Pending<T> next = pending.peek();
+		if(null != next) {
+			LockSupport.unpark(next.thread);
+		}
+	}
+
+	private class GroupCommitOfferFunction implements Function<T, Long> {
+		@Override public Long apply(T t) {
+			Pending<T> p = new Pending<T>(t);
+			pending.add(p);
+			for(; ; ) {
+				if(null == p.id && null == p.error && commitLock.tryLock()) {
+					try {
+						if(null == p.id && null == p.error) {
+							// Commit everything queued so far, which includes this item unless the batch is full
+							commit();
+						}
+					} finally {
+						unlockAndHandOver();
+					}
+				}
+				if(null != p.error) {
+					throw p.error;
+				}
+				if(null != p.id) {
+					return p.id;
+				}
+				// Wait for the producer that is committing to either commit this item or hand over
+				LockSupport.park(this);
+			}
+		}
+	}
+
+	private class GroupCommitOfferAllFunction implements Function<Collection<T>, Long> {
+		@Override public Long apply(Collection<T> items) {
+			// A failed commit works out which items it wrote from the ids written meanwhile, so no one else may write
+			commitLock.lock();
+			try {
+				return delegate.offerAll().apply(items);
+			} finally {
+				unlockAndHandOver();
+			}
+		}
+	}
+
+	private static class Pending<T> {
+		final T      item;
+		final Thread thread = Thread.currentThread();
+		volatile Long             id;
+		volatile RuntimeException error;
+
+		private Pending(T item) {
+			this.item = item;
+		}
+	}
+
+}
@@ -16,10 +16,13 @@
 
 package reactor.queue;
 
+import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.atomic.AtomicLong;
 import javax.annotation.Nonnull;
 
@@ -35,19 +38,28 @@ public class InMemoryQueuePersistor<T> implements QueuePersistor<T> {
 
 	private final Map<Long, T> objects   = Collections.synchronizedMap(new HashMap<Long, T>());
 	private final AtomicLong   counter   = new AtomicLong();
+	private final AtomicLong   published = new AtomicLong();
 	private final AtomicLong   currentId = new AtomicLong();
-	private final Function<T, Long> offerFun;
-	private final Function<Long, T> getFun;
-	private final Supplier<T>       removeFun;
+	private final ConcurrentMap<String, Long> offsets = new ConcurrentHashMap<String, Long>();
+	private final Function<T, Long>             offerFun;
+	private final Function<Collection<T>, Long> offerAllFun;
+	private final Function<Long, T>             getFun;
+	private final Supplier<T>                   removeFun;
 
 	public InMemoryQueuePersistor() {
 		this.offerFun = new MapOfferFunction();
+		this.offerAllFun = new MapOfferAllFunction();
 		this.getFun = new MapGetFunction();
 		this.removeFun = new MapRemoveFunction();
 	}
 
 	@Override
 	public long lastId() {
+		return published.get() - 1;
+	}
+
+	@Override
+	public long firstId() {
 		return currentId.get();
 	}
 
@@ -67,6 +79,12 @@ public class InMemoryQueuePersistor<T> implements QueuePersistor<T> {
 		return offerFun;
 	}
 
+	@Nonnull
+	@Override
+	public Function<Collection<T>, Long> offerAll() {
+		return offerAllFun;
+	}
+
 	@Nonnull
 	@Override
 	public Function<Long, T> get() {
@@ -79,18 +97,65 @@ public class InMemoryQueuePersistor<T> implements QueuePersistor<T> {
 		return removeFun;
 	}
 
+	@Override
+	public long offset(@Nonnull String tailer) {
+		Long offset = offsets.get(tailer);
+		return (null == offset ? -1 : offset);
+	}
+
+	@Override
+	public void commitOffset(@Nonnull String tailer, long offset) {
+		offsets.put(tailer, offset);
+	}
+
+	@Nonnull
+	@Override
+	public Map<String, Long> offsets() {
+		return new HashMap<String, Long>(offsets);
+	}
+
 	@Override public void close() {
 	}
 
+	private void publish(long first, long next) {
+		// Only count ids up to the last one whose item has been put, waiting for producers holding earlier ids
+		while(!published.compareAndSet(first, next)) {
+			Thread.yield();
+		}
+	}
+
 	private class MapOfferFunction implements Function<T, Long> {
 		@Override
 		public Long apply(T obj) {
-			Long id = counter.getAndIncrement();
-			objects.put(id, obj);
+			long id = counter.getAndIncrement();
+			try {
+				objects.put(id, obj);
+			} finally {
+				publish(id, id + 1);
+			}
 			return id;
 		}
 	}
 
+	private class MapOfferAllFunction implements Function<Collection<T>, Long> {
+		@SuppressWarnings("unchecked")
+		@Override
+		public Long apply(Collection<T> objs) {
+			// Reserve a block of consecutive ids for a snapshot of the objects, as the collection may change meanwhile
+			Object[] snapshot = objs.toArray();
+			long first = counter.getAndAdd(snapshot.length);
+			try {
+				for(int i = 0; i < snapshot.length; i++) {
+					objects.put(first + i, (T)snapshot[i]);
+				}
+			} finally {
+				// Later producers wait for these ids, so they are published even if storing the items failed
+				publish(first, first + snapshot.length);
+			}
+			return first + snapshot.length - 1;
+		}
+	}
+
 	private class MapGetFunction implements Function<Long, T> {
 		@Override
 		public T apply(Long l) {
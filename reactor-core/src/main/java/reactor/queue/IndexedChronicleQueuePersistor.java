@@ -1,11 +1,12 @@
 package reactor.queue;
 
-import java.io.ByteArrayInputStream;
-import java.io.ByteArrayOutputStream;
+import java.io.File;
 import java.io.IOException;
-import java.io.ObjectInputStream;
-import java.io.ObjectOutputStream;
+import java.nio.ByteBuffer;
+import java.util.Collection;
 import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
 import java.util.concurrent.atomic.AtomicLong;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
@@ -22,6 +23,11 @@ import reactor.io.Buffer;
 /**
  * A {@link QueuePersistor} implementation that uses a <a href="https://github.com/peter-lawrey/Java-Chronicle">Java
  * Chronicle</a> {@literal IndexedChronicle} to persist items in the queue.
+ * <p>
+ * Items are never deleted from a Chronicle, as an {@literal IndexedChronicle} can only be cleared as a whole, and the
+ * items removed are only tracked until the persistor is closed. The offsets committed by {@link QueueTailer tailers}
+ * are kept in a directory next to the Chronicle, named after its base path with a {@literal .tailers} suffix.
+ * </p>
  *
  * @author Jon Brisbin
  * @see <a href="https://github.com/peter-lawrey/Java-Chronicle">Java Chronicle</a>
@@ -31,13 +37,16 @@ public class IndexedChronicleQueuePersistor<T> implements QueuePersistor<T> {
 	private static final Logger     LOG    = LoggerFactory.getLogger(IndexedChronicleQueuePersistor.class);
 	private final        AtomicLong count  = new AtomicLong();
 	private final        AtomicLong lastId = new AtomicLong();
-	private final String                  basePath;
-	private final boolean                 deleteOnExit;
-	private final Function<T, Buffer>     encoder;
-	private final Function<Buffer, T>     decoder;
-	private final ChronicleOfferFunction  offerFun;
-	private final ChronicleGetFunction    getFun;
-	private final ChronicleRemoveFunction removeFun;
+	private final        AtomicLong nextId = new AtomicLong();
+	private final String                    basePath;
+	private final boolean                   deleteOnExit;
+	private final Function<T, Buffer>       encoder;
+	private final Function<Buffer, T>       decoder;
+	private final ChronicleOfferFunction    offerFun;
+	private final ChronicleOfferAllFunction offerAllFun;
+	private final ChronicleGetFunction      getFun;
+	private final ChronicleRemoveFunction   removeFun;
+	private final TailerOffsets             tailers;
 
 	/**
 	 * Create an {@link IndexedChronicleQueuePersistor} based on the given base path.
@@ -58,9 +67,9 @@ public class IndexedChronicleQueuePersistor<T> implements QueuePersistor<T> {
 	 * @param basePath
 	 * 		Directory in which to create the Chronicle.
 	 * @param encoder
-	 * 		Encoder to turn objects into a {@link Buffer}.
+	 * 		Encoder to turn objects into a {@link Buffer}, {@code null} to use Java serialization.
 	 * @param decoder
-	 * 		Decoder to turn {@link Buffer Buffers} into an object.
+	 * 		Decoder to turn {@link Buffer Buffers} into an object, {@code null} to use Java serialization.
 	 * @param clearOnStart
 	 * 		Whether or not to clear the Chronicle on start.
 	 * @param deleteOnExit
@@ -74,14 +83,16 @@ public class IndexedChronicleQueuePersistor<T> implements QueuePersistor<T> {
 	                                      boolean clearOnStart,
 	                                      boolean deleteOnExit) throws IOException {
 		this.basePath = basePath;
-		this.encoder = (null == encoder ? new SerializableEncoder<T>() : encoder);
-		this.decoder = (null == decoder ? new SerializableDecoder<T>() : decoder);
+		// Chronicles already on disk were written with Java serialization, so it stays the default
+		this.encoder = (null == encoder ? new SerializableCodec.Encoder<T>() : encoder);
+		this.decoder = (null == decoder ? new SerializableCodec.Decoder<T>() : decoder);
 		this.deleteOnExit = deleteOnExit;
 
 		this.offerFun = new ChronicleOfferFunction(new IndexedChronicle(basePath));
 		if(clearOnStart) {
 			this.offerFun.chronicle.clear();
 		}
+		this.offerAllFun = new ChronicleOfferAllFunction();
 		this.getFun = new ChronicleGetFunction(new IndexedChronicle(basePath));
 		if(clearOnStart) {
 			this.getFun.chronicle.clear();
@@ -90,6 +101,11 @@ public class IndexedChronicleQueuePersistor<T> implements QueuePersistor<T> {
 		if(clearOnStart) {
 			this.removeFun.chronicle.clear();
 		}
+		this.lastId.set(offerFun.chronicle.size() - 1);
+		this.tailers = new TailerOffsets(new File(basePath + ".tailers"));
+		if(clearOnStart) {
+			this.tailers.clear();
+		}
 
 	}
 
@@ -101,8 +117,10 @@ public class IndexedChronicleQueuePersistor<T> implements QueuePersistor<T> {
 		offerFun.chronicle.close();
 		getFun.chronicle.close();
 		removeFun.chronicle.close();
+		tailers.force();
 		if(deleteOnExit) {
 			ChronicleTools.deleteOnExit(basePath);
+			tailers.deleteOnExit();
 		}
 	}
 
@@ -110,6 +128,10 @@ public class IndexedChronicleQueuePersistor<T> implements QueuePersistor<T> {
 		return lastId.get();
 	}
 
+	@Override public long firstId() {
+		return nextId.get();
+	}
+
 	@Override public long size() {
 		return count.get();
 	}
@@ -118,6 +140,10 @@ public class IndexedChronicleQueuePersistor<T> implements QueuePersistor<T> {
 		return offerFun;
 	}
 
+	@Nonnull @Override public Function<Collection<T>, Long> offerAll() {
+		return offerAllFun;
+	}
+
 	@Nonnull @Override public Function<Long, T> get() {
 		return getFun;
 	}
@@ -126,24 +152,39 @@ public class IndexedChronicleQueuePersistor<T> implements QueuePersistor<T> {
 		return removeFun;
 	}
 
+	@Override public long offset(@Nonnull String tailer) {
+		return tailers.get(tailer);
+	}
+
+	@Override public void commitOffset(@Nonnull String tailer, long offset) {
+		tailers.commit(tailer, offset);
+	}
+
+	@Nonnull @Override public Map<String, Long> offsets() {
+		return tailers.snapshot();
+	}
+
 	@Override public Iterator<T> iterator() {
+		// Reads through the shared excerpt of the get function rather than opening another Chronicle
 		return new Iterator<T>() {
-			private final ChronicleRemoveFunction iterFun;
-
-			{
-				try {
-					iterFun = new ChronicleRemoveFunction(new IndexedChronicle(basePath));
-				} catch(IOException e) {
-					throw new IllegalArgumentException(e.getMessage(), e);
-				}
-			}
+			private long index;
+			private T    next;
 
 			public boolean hasNext() {
-				return iterFun.ex.hasNextIndex();
+				if(null == next) {
+					next = getFun.apply(index);
+				}
+				return null != next;
 			}
 
 			@Override public T next() {
-				return iterFun.get();
+				if(!hasNext()) {
+					throw new NoSuchElementException();
+				}
+				T obj = next;
+				next = null;
+				index++;
+				return obj;
 			}
 
 			@Override public void remove() {
@@ -162,11 +203,13 @@ public class IndexedChronicleQueuePersistor<T> implements QueuePersistor<T> {
 		int len = -1;
 		try {
 			len = ex.readInt();
-			byte[] bytes = new byte[len];
+			// The excerpt's own buffer isn't exposed, so this is the only copy made
+			ByteBuffer bytes = ByteBuffer.allocate(len);
 			ex.read(bytes);
 			ex.finish();
+			bytes.flip();
 
-			return decoder.apply(Buffer.wrap(bytes));
+			return decoder.apply(Buffer.readOnly(bytes));
 		} catch(Throwable t) {
 			if(LOG.isDebugEnabled()) {
 				LOG.debug("Asked to read: " + len + "b from index " + ex.index());
@@ -185,12 +228,12 @@ public class IndexedChronicleQueuePersistor<T> implements QueuePersistor<T> {
 			this.ex = chronicle.createExcerpt();
 		}
 
-		@Override public Long apply(T t) {
+		@Override public synchronized Long apply(T t) {
 			Buffer buff = encoder.apply(t);
 
 			ex.startExcerpt(4 + buff.remaining());
 			ex.writeInt(buff.remaining());
-			ex.write(buff.asBytes());
+			ex.write(buff.byteBuffer().duplicate());
 
 			count.incrementAndGet();
 			lastId.set(ex.index());
@@ -205,6 +248,19 @@ public class IndexedChronicleQueuePersistor<T> implements QueuePersistor<T> {
 		}
 	}
 
+	private class ChronicleOfferAllFunction implements Function<Collection<T>, Long> {
+		@Override public Long apply(Collection<T> objs) {
+			// An IndexedChronicle writes one excerpt at a time, so hold the appender for the whole batch
+			synchronized(offerFun) {
+				Long id = lastId();
+				for(T obj : objs) {
+					id = offerFun.apply(obj);
+				}
+				return id;
+			}
+		}
+	}
+
 	private class ChronicleGetFunction implements Function<Long, T> {
 		private final IndexedChronicle chronicle;
 		private final Excerpt          ex;
@@ -214,7 +270,7 @@ public class IndexedChronicleQueuePersistor<T> implements QueuePersistor<T> {
 			this.ex = chronicle.createExcerpt();
 		}
 
-		@Override public T apply(Long id) {
+		@Override public synchronized T apply(Long id) {
 			return read(ex, id);
 		}
 	}
@@ -233,40 +289,10 @@ public class IndexedChronicleQueuePersistor<T> implements QueuePersistor<T> {
 				return null;
 			}
 			T obj = read(ex, ex.index());
+			nextId.set(ex.index() + 1);
 			count.decrementAndGet();
 			return obj;
 		}
 	}
 
-	private static class SerializableEncoder<T> implements Function<T, Buffer> {
-		@Override public Buffer apply(T t) {
-			ByteArrayOutputStream baos = new ByteArrayOutputStream();
-			try {
-				ObjectOutputStream oos = new ObjectOutputStream(baos);
-				oos.writeObject(t);
-				oos.flush();
-				oos.close();
-			} catch(IOException e) {
-				throw new IllegalStateException(e.getMessage(), e);
-			}
-
-			return Buffer.wrap(baos.toByteArray());
-		}
-	}
-
-	private static class SerializableDecoder<T> implements Function<Buffer, T> {
-		@SuppressWarnings("unchecked")
-		@Override public T apply(Buffer buff) {
-			try {
-				ByteArrayInputStream bais = new ByteArrayInputStream(buff.asBytes());
-				ObjectInputStream ois = new ObjectInputStream(bais);
-				return (T)ois.readObject();
-			} catch(IOException e) {
-				throw new IllegalStateException(e.getMessage(), e);
-			} catch(ClassNotFoundException e) {
-				throw new IllegalStateException(e.getMessage(), e);
-			}
-		}
-	}
-
 }
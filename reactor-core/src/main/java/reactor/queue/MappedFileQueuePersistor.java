@@ -0,0 +1,1106 @@
+/*
+ * Copyright (c) 2011-2013 GoPivotal, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package reactor.queue;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import reactor.core.HashWheelTimer;
+import reactor.event.registry.Registration;
+import reactor.function.Consumer;
+import reactor.function.Function;
+import reactor.function.Supplier;
+import reactor.io.Buffer;
+import reactor.io.CodecRegistry;
+import reactor.support.NamedDaemonThreadFactory;
+import reactor.util.Assert;
+
+/**
+ * A {@link QueuePersistor} that appends items to a series of memory-mapped segment files in a directory, without
+ * depending on any third-party library.
+ * <p>
+ * Each item is written to the current segment as its length followed by its encoded bytes, and a new segment is
+ * started once the current one is full. The location of every item is recorded in a series of memory-mapped index
+ * files, so an item is found by its id in constant time, and the header file keeps the ids of the next item to remove
+ * and the next item to write, so that a queue is picked up where it was left off when the directory is opened again.
+ * </p>
+ * <p>
+ * Items are offered under a lock, while {@link #get() getting} and {@link #remove() removing} them is lock-free. A
+ * batch of items {@link #offerAll() offered} together is written in one pass and made visible to readers at once.
+ * </p>
+ * <p>
+ * Writes reach the disk when the operating system flushes the mapped pages, when the persistor is {@link #close()
+ * closed}, or as the {@link ForcePolicy} says: after every offer or batch of offers, or periodically. Forcing every
+ * batch is best combined with a {@link GroupCommitQueuePersistor}, which gathers the offers of concurrent producers
+ * into batches, so that the cost of a force is shared between them.
+ * </p>
+ * <p>
+ * The offsets committed by {@link QueueTailer tailers} are kept in a small mapped file per tailer in the same
+ * directory, and are forced to disk along with the items.
+ * </p>
+ * <p>
+ * Disk space is reclaimed a whole segment at a time by {@link #retain()}, which deletes the oldest segments once
+ * their items have been removed, and, if so configured, once they are older than the {@link #setMaxAge(long,
+ * TimeUnit) maximum age}, once the segments take up more than the {@link #setMaxSize(long) maximum size}, or once
+ * every tailer has {@link #setRetainUntilTailed(boolean) read past them}. Items in segments deleted that way are
+ * removed from the queue. Given a {@link #setCompactionKey(Function) compaction key}, {@link #compact()} also
+ * rewrites the full segments to keep only the latest item for each key. Items that have been compacted away keep
+ * their ids, but can no longer be read, and are skipped when removing items and by tailers. Both are run in the
+ * background by {@link #scheduleReclaim(HashWheelTimer, long, TimeUnit)}, and neither holds up producers.
+ * </p>
+ */
+public class MappedFileQueuePersistor<T> implements QueuePersistor<T> {
+
+	/**
+	 * The default size of a segment file, 16MB.
+	 */
+	public static final int DEFAULT_SEGMENT_SIZE = 16 * 1024 * 1024;
+
+	private static final Logger LOG                  = LoggerFactory.getLogger(MappedFileQueuePersistor.class);
+	private static final String HEADER_FILE          = "queue.idx";
+	private static final String SEGMENT_SUFFIX       = ".seg";
+	private static final String INDEX_SUFFIX         = ".idx";
+	private static final int    READ_ID_OFFSET       = 0;
+	private static final int    WRITE_ID_OFFSET      = 8;
+	private static final int    HEADER_SIZE          = 16;
+	private static final int    INDEX_ENTRY_SIZE     = 8;
+	private static final int    INDEX_REGION_ENTRIES = 1024 * 1024;
+	private static final int    MAX_SEGMENT          = (1 << 24) - 1;
+	// The offset of an item that has been compacted away, or whose index file has been deleted
+	private static final int    NO_OFFSET            = -1;
+
+	private final AtomicLong                            readId       = new AtomicLong();
+	private final AtomicLong                            writeId      = new AtomicLong();
+	private final Object                                writeLock    = new Object();
+	private final Object                                reclaimLock  = new Object();
+	private final AtomicBoolean                         reclaiming   = new AtomicBoolean();
+	private final ConcurrentMap<Long, MappedByteBuffer> segments     = new ConcurrentHashMap<Long, MappedByteBuffer>();
+	private final ConcurrentMap<Integer, MappedByteBuffer> indexRegions = new ConcurrentHashMap<Integer, MappedByteBuffer>();
+	private final File                                  dir;
+	private final int                                   segmentSize;
+	private final boolean                               deleteOnExit;
+	private final Function<T, Buffer>                   encoder;
+	private final Function<Buffer, T>                   decoder;
+	private final MappedByteBuffer                      header;
+	private final Object                                forceLock    = new Object();
+	private final MappedOfferFunction                   offerFun;
+	private final MappedOfferAllFunction                offerAllFun;
+	private final MappedGetFunction                     getFun;
+	private final MappedRemoveFunction                  removeFun;
+	private final TailerOffsets                         tailers;
+	private       int                                   writeSegment;
+	private       int                                   writeOffset;
+	private       int                                   forcedSegment;
+	private       long                                  forcedId;
+	private       ExecutorService                       reclaimer;
+
+	private volatile ForcePolicy                            forcePolicy = ForcePolicy.NONE;
+	private volatile Registration<? extends Consumer<Long>> periodicForce;
+	private volatile Registration<? extends Consumer<Long>> periodicReclaim;
+	private volatile long                                   maxAge;
+	private volatile long                                   maxSize;
+	private volatile boolean                                retainUntilTailed;
+	private volatile Function<T, ?>                         compactionKey;
+	private volatile boolean                                closed;
+
+	/**
+	 * Create a {@link MappedFileQueuePersistor} in the given directory, appending to any queue already persisted there.
+	 *
+	 * @param basePath
+	 * 		Directory in which to keep the segment and index files.
+	 *
+	 * @throws IOException
+	 */
+	public MappedFileQueuePersistor(@Nonnull String basePath) throws IOException {
+		this(basePath, null, null, DEFAULT_SEGMENT_SIZE, false, false);
+	}
+
+	/**
+	 * Create a {@link MappedFileQueuePersistor} in the given directory.
+	 *
+	 * @param basePath
+	 * 		Directory in which to keep the segment and index files.
+	 * @param encoder
+	 * 		Encoder to turn objects into a {@link Buffer}, {@code null} to use a {@link CodecRegistry}.
+	 * @param decoder
+	 * 		Decoder to turn {@link Buffer Buffers} into an object, {@code null} to use a {@link CodecRegistry}. It is given
+	 * 		a {@link Buffer#readOnly(java.nio.ByteBuffer) read-only view} of the item in the mapped file rather than a
+	 * 		copy, which it must not hold on to.
+	 * @param segmentSize
+	 * 		The size of a segment file in bytes, which limits the size of an encoded item.
+	 * @param clearOnStart
+	 * 		Whether or not to delete any queue already persisted in the directory.
+	 * @param deleteOnExit
+	 * 		Whether or not to delete the files when the program exits.
+	 *
+	 * @throws IOException
+	 */
+	public MappedFileQueuePersistor(@Nonnull String basePath,
+	                                @Nullable Function<T, Buffer> encoder,
+	                                @Nullable Function<Buffer, T> decoder,
+	                                int segmentSize,
+	                                boolean clearOnStart,
+	                                boolean deleteOnExit) throws IOException {
+		Assert.notNull(basePath, "Base path cannot be null.");
+		Assert.isTrue(segmentSize > 4, "Segment size must be greater than 4 bytes.");
+		this.dir = new File(basePath);
+		this.segmentSize = segmentSize;
+		CodecRegistry codecs = new CodecRegistry();
+		this.encoder = (null == encoder ? codecs.<T>encoder() : encoder);
+		this.decoder = (null == decoder ? codecs.<T>decoder() : decoder);
+		this.deleteOnExit = deleteOnExit;
+
+		if(clearOnStart) {
+			deleteFiles();
+		}
+		if(!dir.isDirectory() && !dir.mkdirs()) {
+			throw new IOException("Could not create directory " + dir);
+		}
+		this.tailers = new TailerOffsets(dir);
+		if(clearOnStart) {
+			tailers.clear();
+		}
+
+		this.header = map(new File(dir, HEADER_FILE), 0, HEADER_SIZE);
+		readId.set(header.getLong(READ_ID_OFFSET));
+		writeId.set(header.getLong(WRITE_ID_OFFSET));
+		if(writeId.get() > 0) {
+			// Carry on appending right after the last item written, which is never compacted
+			long entry = indexEntry(writeId.get() - 1);
+			writeSegment = segmentOf(entry);
+			writeOffset = offsetOf(entry) + 4 + writableSegment(writeSegment).getInt(offsetOf(entry));
+			forcedSegment = writeSegment;
+			forcedId = writeId.get();
+		}
+
+		this.offerFun = new MappedOfferFunction();
+		this.offerAllFun = new MappedOfferAllFunction();
+		this.getFun = new MappedGetFunction();
+		this.removeFun = new MappedRemoveFunction();
+	}
+
+	/**
+	 * Get the policy for forcing items to disk.
+	 *
+	 * @return the force policy
+	 */
+	public ForcePolicy getForcePolicy() {
+		return forcePolicy;
+	}
+
+	/**
+	 * Set the policy for forcing items to disk to {@link ForcePolicy#NONE} or {@link ForcePolicy#BATCH}.
+	 *
+	 * @param forcePolicy
+	 * 		The force policy.
+	 *
+	 * @see #setForcePolicy(HashWheelTimer, long, TimeUnit)
+	 */
+	public void setForcePolicy(@Nonnull ForcePolicy forcePolicy) {
+		Assert.notNull(forcePolicy, "Force policy cannot be null.");
+		Assert.isTrue(forcePolicy != ForcePolicy.PERIODIC, "A periodic force policy requires a timer.");
+		cancelPeriodicForce();
+		this.forcePolicy = forcePolicy;
+	}
+
+	/**
+	 * Force the items written since the last time to disk every {@code period}, using the given timer. This sets the
+	 * force policy to {@link ForcePolicy#PERIODIC}.
+	 *
+	 * @param timer
+	 * 		The timer to schedule the forces with.
+	 * @param period
+	 * 		The time between forces.
+	 * @param timeUnit
+	 * 		The unit of the period.
+	 */
+	public void setForcePolicy(@Nonnull HashWheelTimer timer, long period, @Nonnull TimeUnit timeUnit) {
+		Assert.notNull(timer, "HashWheelTimer cannot be null.");
+		cancelPeriodicForce();
+		this.forcePolicy = ForcePolicy.PERIODIC;
+		this.periodicForce = timer.schedule(new Consumer<Long>() {
+			@Override
+			public void accept(Long now) {
+				force();
+			}
+		}, period, timeUnit);
+	}
+
+	/**
+	 * Get the age after which a full segment is deleted, in milliseconds.
+	 *
+	 * @return the maximum age, or {@literal 0} if segments are kept regardless of their age
+	 */
+	public long getMaxAge() {
+		return maxAge;
+	}
+
+	/**
+	 * Set the age after which a full segment is deleted by {@link #retain()}, counting from when the segment was filled.
+	 *
+	 * @param maxAge
+	 * 		The maximum age, or {@literal 0} to keep segments regardless of their age.
+	 * @param timeUnit
+	 * 		The unit of the maximum age.
+	 */
+	public void setMaxAge(long maxAge, @Nonnull TimeUnit timeUnit) {
+		Assert.isTrue(maxAge >= 0, "Maximum age cannot be negative.");
+		this.maxAge = timeUnit.toMillis(maxAge);
+	}
+
+	/**
+	 * Get the size beyond which the oldest full segments are deleted, in bytes.
+	 *
+	 * @return the maximum size, or {@literal 0} if segments are kept regardless of their size
+	 */
+	public long getMaxSize() {
+		return maxSize;
+	}
+
+	/**
+	 * Set the size the segment files may take up together, beyond which {@link #retain()} deletes the oldest full
+	 * segments. The segment being written to is never deleted, so the segments may take up more than this if it is
+	 * smaller than a segment.
+	 *
+	 * @param maxSize
+	 * 		The maximum size in bytes, or {@literal 0} to keep segments regardless of their size.
+	 */
+	public void setMaxSize(long maxSize) {
+		Assert.isTrue(maxSize >= 0, "Maximum size cannot be negative.");
+		this.maxSize = maxSize;
+	}
+
+	/**
+	 * Whether full segments are deleted once every tailer has committed an offset past them.
+	 *
+	 * @return {@literal true} if segments are only kept until they have been tailed
+	 */
+	public boolean isRetainUntilTailed() {
+		return retainUntilTailed;
+	}
+
+	/**
+	 * Set whether {@link #retain()} deletes full segments once every {@link QueueTailer tailer} has committed an offset
+	 * past them. Segments are never deleted on that account while the queue has no tailers.
+	 *
+	 * @param retainUntilTailed
+	 * 		{@literal true} to only keep segments until they have been tailed
+	 */
+	public void setRetainUntilTailed(boolean retainUntilTailed) {
+		this.retainUntilTailed = retainUntilTailed;
+	}
+
+	/**
+	 * Set the function giving the key of an item, by which {@link #compact()} keeps only the latest item for each key.
+	 *
+	 * @param compactionKey
+	 * 		The function giving the key of an item, or {@literal null} not to compact the queue.
+	 */
+	public void setCompactionKey(@Nullable Function<T, ?> compactionKey) {
+		this.compactionKey = compactionKey;
+	}
+
+	/**
+	 * Run {@link #retain()} and {@link #compact()} every {@code period}, using the given timer. They are run on a
+	 * thread of their own, so that they don't hold up the timer, and a run is skipped if the previous one is still
+	 * going.
+	 *
+	 * @param timer
+	 * 		The timer to schedule the runs with.
+	 * @param period
+	 * 		The time between runs.
+	 * @param timeUnit
+	 * 		The unit of the period.
+	 */
+	public void scheduleReclaim(@Nonnull HashWheelTimer timer, long period, @Nonnull TimeUnit timeUnit) {
+		Assert.notNull(timer, "HashWheelTimer cannot be null.");
+		cancelPeriodicReclaim();
+		final ExecutorService executor;
+		synchronized(reclaimLock) {
+			if(null == reclaimer) {
+				reclaimer = Executors.newSingleThreadExecutor(new NamedDaemonThreadFactory("mapped-queue-reclaimer"));
+			}
+			executor = reclaimer;
+		}
+		final Runnable reclaim = new Runnable() {
+			@Override
+			public void run() {
+				try {
+					retain();
+					compact();
+				} catch(RuntimeException e) {
+					LOG.error("Could not reclaim space in " + dir + ": " + e.getMessage(), e);
+				} finally {
+					reclaiming.set(false);
+				}
+			}
+		};
+		this.periodicReclaim = timer.schedule(new Consumer<Long>() {
+			@Override
+			public void accept(Long now) {
+				if(reclaiming.compareAndSet(false, true)) {
+					executor.execute(reclaim);
+				}
+			}
+		}, period, timeUnit, timeUnit.toMillis(period));
+	}
+
+	/**
+	 * Delete the oldest full segments, along with the index files, that are no longer to be kept.
+	 *
+	 * @return the number of segments deleted
+	 */
+	public int retain() {
+		synchronized(reclaimLock) {
+			int toSegment;
+			long toId;
+			synchronized(writeLock) {
+				toSegment = writeSegment;
+				toId = writeId.get();
+			}
+			long now = System.currentTimeMillis();
+			long tailed = (retainUntilTailed ? tailedId() : -1);
+			if(closed) {
+				return 0;
+			}
+			SortedMap<Integer, List<File>> files = numberedFiles(SEGMENT_SUFFIX);
+			long size = 0;
+			for(List<File> segmentFiles : files.values()) {
+				for(File f : segmentFiles) {
+					size += f.length();
+				}
+			}
+
+			int deleted = 0;
+			for(Map.Entry<Integer, List<File>> segment : files.entrySet()) {
+				int seg = segment.getKey();
+				if(seg >= toSegment) {
+					break;
+				}
+				long nextId = firstIdAfter(seg, readId.get(), toId);
+				long lastModified = 0;
+				for(File f : segment.getValue()) {
+					lastModified = Math.max(lastModified, f.lastModified());
+				}
+				if(nextId > readId.get()
+						&& (maxAge == 0 || now - lastModified < maxAge)
+						&& (maxSize == 0 || size <= maxSize)
+						&& nextId > tailed) {
+					break;
+				}
+
+				advanceReadId(nextId);
+				for(File f : segment.getValue()) {
+					size -= f.length();
+				}
+				deleteSegment(seg, segment.getValue());
+				deleted++;
+			}
+
+			// Keep the region holding the last id written, from which a reopened queue finds where to append next
+			long keepId = Math.min(readId.get(), toId - 1);
+			for(int region : numberedFiles(INDEX_SUFFIX).keySet()) {
+				if((long)(region + 1) * INDEX_REGION_ENTRIES > keepId) {
+					break;
+				}
+				deleteIndexRegion(region);
+			}
+			if(deleted > 0 && LOG.isDebugEnabled()) {
+				LOG.debug("Deleted " + deleted + " segments from " + dir);
+			}
+			return deleted;
+		}
+	}
+
+	/**
+	 * Rewrite the full segments to keep only the latest item for each {@link #setCompactionKey(Function) key}. Does
+	 * nothing if there is no compaction key.
+	 *
+	 * @return the number of items compacted away
+	 */
+	public int compact() {
+		Function<T, ?> key = compactionKey;
+		if(null == key) {
+			return 0;
+		}
+		synchronized(reclaimLock) {
+			if(closed) {
+				return 0;
+			}
+			int toSegment;
+			long toId;
+			synchronized(writeLock) {
+				toSegment = writeSegment;
+				toId = writeId.get();
+			}
+			long fromId = readId.get();
+			Assert.isTrue(toId - fromId <= Integer.MAX_VALUE, "Too many items to compact.");
+
+			// Find the items that have a later item with the same key
+			BitSet superseded = new BitSet();
+			Map<Object, Long> latest = new HashMap<Object, Long>();
+			for(long id = fromId; id < toId; id++) {
+				T item = read(id);
+				if(null != item) {
+					Long previous = latest.put(key.apply(item), id);
+					if(null != previous) {
+						superseded.set((int)(previous - fromId));
+					}
+				}
+			}
+
+			int compacted = 0;
+			long id = fromId;
+			while(id < toId) {
+				int seg = segmentOf(indexEntry(id));
+				if(seg >= toSegment) {
+					break;
+				}
+				long nextId = firstIdAfter(seg, id, toId);
+				int next = superseded.nextSetBit((int)(id - fromId));
+				if(next >= 0 && next < nextId - fromId) {
+					compacted += rewriteSegment(seg, id, nextId, superseded, fromId);
+				}
+				id = nextId;
+			}
+			if(compacted > 0 && LOG.isDebugEnabled()) {
+				LOG.debug("Compacted " + compacted + " items away from " + dir);
+			}
+			return compacted;
+		}
+	}
+
+	/**
+	 * Force the items written since the last force to disk, blocking until they are durable.
+	 */
+	public void force() {
+		tailers.force();
+		synchronized(forceLock) {
+			int toSegment;
+			long toId;
+			synchronized(writeLock) {
+				toSegment = writeSegment;
+				toId = writeId.get();
+			}
+			if(toId == forcedId) {
+				return;
+			}
+			for(int seg = forcedSegment; seg <= toSegment; seg++) {
+				MappedByteBuffer bb = segment(seg, 0);
+				if(null != bb) {
+					bb.force();
+				}
+			}
+			for(long region = forcedId / INDEX_REGION_ENTRIES; region <= (toId - 1) / INDEX_REGION_ENTRIES; region++) {
+				MappedByteBuffer bb = indexRegion((int)region);
+				if(null != bb) {
+					bb.force();
+				}
+			}
+			header.force();
+			forcedSegment = toSegment;
+			forcedId = toId;
+		}
+	}
+
+	/**
+	 * Flush the mapped files to disk and release them.
+	 */
+	@Override
+	public void close() {
+		cancelPeriodicForce();
+		cancelPeriodicReclaim();
+		synchronized(reclaimLock) {
+			// Waits for a run in progress, and stops any that is yet to start
+			closed = true;
+			if(null != reclaimer) {
+				reclaimer.shutdown();
+			}
+		}
+		force();
+		synchronized(writeLock) {
+			indexRegions.clear();
+			segments.clear();
+		}
+		if(deleteOnExit) {
+			dir.deleteOnExit();
+			File[] files = dir.listFiles();
+			if(null != files) {
+				for(File f : files) {
+					f.deleteOnExit();
+				}
+			}
+		}
+	}
+
+	@Override public long lastId() {
+		return writeId.get() - 1;
+	}
+
+	@Override public long firstId() {
+		return readId.get();
+	}
+
+	/**
+	 * Get the number of items persisted right now, counting any that have been compacted away but not yet removed.
+	 *
+	 * @return number of items persisted
+	 */
+	@Override public long size() {
+		return writeId.get() - readId.get();
+	}
+
+	@Nonnull @Override public Function<T, Long> offer() {
+		return offerFun;
+	}
+
+	@Nonnull @Override public Function<Collection<T>, Long> offerAll() {
+		return offerAllFun;
+	}
+
+	@Nonnull @Override public Function<Long, T> get() {
+		return getFun;
+	}
+
+	@Nonnull @Override public Supplier<T> remove() {
+		return removeFun;
+	}
+
+	@Override public long offset(@Nonnull String tailer) {
+		return tailers.get(tailer);
+	}
+
+	@Override public void commitOffset(@Nonnull String tailer, long offset) {
+		tailers.commit(tailer, offset);
+		if(forcePolicy == ForcePolicy.BATCH) {
+			tailers.force(tailer);
+		}
+	}
+
+	@Nonnull @Override public Map<String, Long> offsets() {
+		return tailers.snapshot();
+	}
+
+	@Override public Iterator<T> iterator() {
+		return new Iterator<T>() {
+			private final long end = writeId.get();
+			private long next = readId.get();
+			private T    item;
+
+			@Override public boolean hasNext() {
+				while(null == item && next < end) {
+					// Skips the items compacted or deleted in the meantime
+					item = read(next++);
+				}
+				return null != item;
+			}
+
+			@Override public T next() {
+				if(!hasNext()) {
+					throw new NoSuchElementException();
+				}
+				T t = item;
+				item = null;
+				return t;
+			}
+
+			@Override public void remove() {
+			}
+		};
+	}
+
+	private T read(long id) {
+		for(; ; ) {
+			long entry = indexEntry(id);
+			if(offsetOf(entry) == NO_OFFSET) {
+				return null;
+			}
+			MappedByteBuffer seg = segment(segmentOf(entry), generationOf(entry));
+			if(null == seg) {
+				if(indexEntry(id) == entry) {
+					// Deleted since the id was checked
+					return null;
+				}
+				// Moved to a compacted segment since the entry was read
+				continue;
+			}
+			int offset = offsetOf(entry);
+			ByteBuffer bb = seg.duplicate();
+			bb.limit(offset + 4 + bb.getInt(offset));
+			bb.position(offset + 4);
+			return decoder.apply(Buffer.readOnly(bb));
+		}
+	}
+
+	private long indexEntry(long id) {
+		MappedByteBuffer bb = indexRegion((int)(id / INDEX_REGION_ENTRIES));
+		return (null == bb ? NO_OFFSET : bb.getLong((int)(id % INDEX_REGION_ENTRIES) * INDEX_ENTRY_SIZE));
+	}
+
+	private void writeIndexEntry(long id, long entry) {
+		int region = (int)(id / INDEX_REGION_ENTRIES);
+		MappedByteBuffer bb = indexRegions.get(region);
+		if(null == bb) {
+			bb = mapFile(indexRegions, region, indexFile(region), (long)INDEX_REGION_ENTRIES * INDEX_ENTRY_SIZE, true);
+		}
+		bb.putLong((int)(id % INDEX_REGION_ENTRIES) * INDEX_ENTRY_SIZE, entry);
+	}
+
+	private MappedByteBuffer indexRegion(int region) {
+		MappedByteBuffer bb = indexRegions.get(region);
+		if(null == bb) {
+			bb = mapFile(indexRegions, region, indexFile(region), (long)INDEX_REGION_ENTRIES * INDEX_ENTRY_SIZE, false);
+		}
+		return bb;
+	}
+
+	private MappedByteBuffer segment(int segment, int generation) {
+		long key = segmentKey(segment, generation);
+		MappedByteBuffer bb = segments.get(key);
+		if(null == bb) {
+			File f = segmentFile(segment, generation);
+			bb = mapFile(segments, key, f, f.length(), false);
+		}
+		return bb;
+	}
+
+	private MappedByteBuffer writableSegment(int segment) {
+		long key = segmentKey(segment, 0);
+		MappedByteBuffer bb = segments.get(key);
+		if(null == bb) {
+			bb = mapFile(segments, key, segmentFile(segment, 0), segmentSize, true);
+		}
+		return bb;
+	}
+
+	private <K> MappedByteBuffer mapFile(ConcurrentMap<K, MappedByteBuffer> mapped,
+	                                     K key,
+	                                     File file,
+	                                     long size,
+	                                     boolean create) {
+		// Files are only deleted while holding the same lock, so that they can't be mapped, and created again, by a
+		// reader that has yet to find out they have been deleted
+		synchronized(mapped) {
+			MappedByteBuffer bb = mapped.get(key);
+			if(null == bb) {
+				if(!create && !file.exists()) {
+					return null;
+				}
+				bb = map(file, 0, size);
+				mapped.put(key, bb);
+			}
+			return bb;
+		}
+	}
+
+	private File segmentFile(int segment, int generation) {
+		if(generation == 0) {
+			return new File(dir, String.format("%010d%s", segment, SEGMENT_SUFFIX));
+		} else {
+			return new File(dir, String.format("%010d.%03d%s", segment, generation, SEGMENT_SUFFIX));
+		}
+	}
+
+	private File indexFile(int region) {
+		return new File(dir, String.format("%010d%s", region, INDEX_SUFFIX));
+	}
+
+	private SortedMap<Integer, List<File>> numberedFiles(String suffix) {
+		// Segment and index files are named after their number, which the header file isn't
+		SortedMap<Integer, List<File>> numbered = new TreeMap<Integer, List<File>>();
+		File[] files = dir.listFiles();
+		if(null == files) {
+			return numbered;
+		}
+		for(File f : files) {
+			String name = f.getName();
+			if(!name.endsWith(suffix) || name.length() <= 10 || name.charAt(10) != '.' || !isDigits(name.substring(0, 10))) {
+				continue;
+			}
+			Integer number = Integer.valueOf(name.substring(0, 10));
+			List<File> numberedFiles = numbered.get(number);
+			if(null == numberedFiles) {
+				numberedFiles = new ArrayList<File>();
+				numbered.put(number, numberedFiles);
+			}
+			numberedFiles.add(f);
+		}
+		return numbered;
+	}
+
+	private static boolean isDigits(String s) {
+		for(int i = 0; i < s.length(); i++) {
+			if(!Character.isDigit(s.charAt(i))) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private void deleteSegment(int segment, List<File> files) {
+		synchronized(segments) {
+			Iterator<Long> keys = segments.keySet().iterator();
+			while(keys.hasNext()) {
+				if(keys.next() >>> 8 == segment) {
+					keys.remove();
+				}
+			}
+			for(File f : files) {
+				if(!f.delete()) {
+					LOG.warn("Could not delete " + f);
+				}
+			}
+		}
+	}
+
+	private void deleteIndexRegion(int region) {
+		synchronized(indexRegions) {
+			indexRegions.remove(region);
+			File f = indexFile(region);
+			if(!f.delete()) {
+				LOG.warn("Could not delete " + f);
+			}
+		}
+	}
+
+	private void deleteFiles() {
+		File[] files = dir.listFiles();
+		if(null == files) {
+			return;
+		}
+		for(File f : files) {
+			if((f.getName().endsWith(INDEX_SUFFIX) || f.getName().endsWith(SEGMENT_SUFFIX)) && !f.delete()) {
+				LOG.warn("Could not delete " + f);
+			}
+		}
+	}
+
+	private long firstIdAfter(int segment, long fromId, long toId) {
+		// The segments of consecutive ids never decrease, compacted away items included
+		long lo = fromId;
+		long hi = toId;
+		while(lo < hi) {
+			long mid = (lo + hi) >>> 1;
+			if(segmentOf(indexEntry(mid)) > segment) {
+				hi = mid;
+			} else {
+				lo = mid + 1;
+			}
+		}
+		return lo;
+	}
+
+	private long tailedId() {
+		long tailed = -1;
+		for(Long offset : tailers.snapshot().values()) {
+			tailed = (tailed < 0 ? offset : Math.min(tailed, offset));
+		}
+		return tailed;
+	}
+
+	private void advanceReadId(long id) {
+		for(; ; ) {
+			long current = readId.get();
+			if(current >= id || readId.compareAndSet(current, id)) {
+				break;
+			}
+		}
+		synchronized(header) {
+			if(header.getLong(READ_ID_OFFSET) < id) {
+				header.putLong(READ_ID_OFFSET, id);
+			}
+		}
+	}
+
+	private int rewriteSegment(int segment, long fromId, long toId, BitSet superseded, long baseId) {
+		int count = (int)(toId - fromId);
+		long[] entries = new long[count];
+		int generation = 0;
+		int size = 0;
+		for(int i = 0; i < count; i++) {
+			entries[i] = indexEntry(fromId + i);
+			generation = Math.max(generation, generationOf(entries[i]));
+			if(offsetOf(entries[i]) != NO_OFFSET && !superseded.get((int)(fromId + i - baseId))) {
+				size += 4 + segment(segment, generationOf(entries[i])).getInt(offsetOf(entries[i]));
+			}
+		}
+		int newGeneration = (generation + 1) & 0xFF;
+		long lastModified = segmentFile(segment, generation).lastModified();
+
+		// Write the items that are kept to a new file before pointing the index at it
+		File f = segmentFile(segment, newGeneration);
+		if(f.exists() && !f.delete()) {
+			throw new IllegalStateException("Could not delete " + f);
+		}
+		MappedByteBuffer out = null;
+		if(size > 0) {
+			out = map(f, 0, size);
+		}
+		int compacted = 0;
+		int offset = 0;
+		for(int i = 0; i < count; i++) {
+			if(offsetOf(entries[i]) == NO_OFFSET) {
+				continue;
+			}
+			if(superseded.get((int)(fromId + i - baseId))) {
+				entries[i] = indexEntry(segment, newGeneration, NO_OFFSET);
+				compacted++;
+				continue;
+			}
+			ByteBuffer item = segment(segment, generationOf(entries[i])).duplicate();
+			item.position(offsetOf(entries[i]));
+			item.limit(offsetOf(entries[i]) + 4 + item.getInt(offsetOf(entries[i])));
+			int len = item.remaining();
+			out.position(offset);
+			out.put(item);
+			entries[i] = indexEntry(segment, newGeneration, offset);
+			offset += len;
+		}
+		if(null != out) {
+			out.force();
+			if(lastModified > 0 && !f.setLastModified(lastModified)) {
+				LOG.warn("Could not set the modification time of " + f);
+			}
+			segments.put(segmentKey(segment, newGeneration), out);
+		}
+
+		for(int i = 0; i < count; i++) {
+			writeIndexEntry(fromId + i, entries[i]);
+		}
+		for(long region = fromId / INDEX_REGION_ENTRIES; region <= (toId - 1) / INDEX_REGION_ENTRIES; region++) {
+			indexRegion((int)region).force();
+		}
+
+		// Readers still using the old file find out when they look it up again
+		List<File> old = new ArrayList<File>();
+		List<File> files = numberedFiles(SEGMENT_SUFFIX).get(segment);
+		if(null != files) {
+			for(File file : files) {
+				if(!file.equals(f)) {
+					old.add(file);
+				}
+			}
+		}
+		synchronized(segments) {
+			for(int gen = 0; gen <= 0xFF; gen++) {
+				if(gen != newGeneration) {
+					segments.remove(segmentKey(segment, gen));
+				}
+			}
+			for(File file : old) {
+				if(!file.delete()) {
+					LOG.warn("Could not delete " + file);
+				}
+			}
+		}
+		return compacted;
+	}
+
+	static MappedByteBuffer map(File file, long position, long size) {
+		try {
+			RandomAccessFile raf = new RandomAccessFile(file, "rw");
+			try {
+				// The mapping stays valid once the file is closed
+				return raf.getChannel().map(FileChannel.MapMode.READ_WRITE, position, size);
+			} finally {
+				raf.close();
+			}
+		} catch(IOException e) {
+			throw new IllegalStateException(e.getMessage(), e);
+		}
+	}
+
+	// An index entry holds the segment in its top 24 bits, the generation of the segment's file, which is bumped every
+	// time it is compacted, in the next 8 and the offset of the item in the file in the bottom 32
+	private static long indexEntry(int segment, int generation, int offset) {
+		return ((long)segment << 40) | ((long)generation << 32) | (offset & 0xFFFFFFFFL);
+	}
+
+	private static int segmentOf(long entry) {
+		return (int)(entry >>> 40);
+	}
+
+	private static int generationOf(long entry) {
+		return (int)(entry >>> 32) & 0xFF;
+	}
+
+	private static int offsetOf(long entry) {
+		return (int)entry;
+	}
+
+	private static long segmentKey(int segment, int generation) {
+		return ((long)segment << 8) | generation;
+	}
+
+	private ByteBuffer encode(T t) {
+		ByteBuffer bytes = encoder.apply(t).byteBuffer().duplicate();
+		if(4 + bytes.remaining() > segmentSize) {
+			throw new IllegalArgumentException("Item of " + bytes.remaining() + "b does not fit in a segment");
+		}
+		return bytes;
+	}
+
+	private long append(ByteBuffer... items) {
+		long id;
+		synchronized(writeLock) {
+			id = writeId.get();
+			for(ByteBuffer bytes : items) {
+				int len = bytes.remaining();
+				if(writeOffset + 4 + len > segmentSize) {
+					Assert.isTrue(writeSegment < MAX_SEGMENT, "Too many segments.");
+					// The time the segment was filled is what its age is counted from
+					if(!segmentFile(writeSegment, 0).setLastModified(System.currentTimeMillis())) {
+						LOG.warn("Could not set the modification time of segment " + writeSegment);
+					}
+					writeSegment++;
+					writeOffset = 0;
+				}
+				ByteBuffer bb = writableSegment(writeSegment).duplicate();
+				bb.putInt(writeOffset, len);
+				bb.position(writeOffset + 4);
+				bb.put(bytes);
+
+				writeIndexEntry(id, indexEntry(writeSegment, 0, writeOffset));
+				writeOffset += 4 + len;
+				id++;
+			}
+			header.putLong(WRITE_ID_OFFSET, id);
+			// Publishes the whole batch to readers at once
+			writeId.set(id);
+		}
+		if(forcePolicy == ForcePolicy.BATCH) {
+			force();
+		}
+		return id - 1;
+	}
+
+	private class MappedOfferFunction implements Function<T, Long> {
+		@Override public Long apply(T t) {
+			long id = append(encode(t));
+			if(LOG.isTraceEnabled()) {
+				LOG.trace("Offered " + t + " to " + dir + " at index " + id);
+			}
+			return id;
+		}
+	}
+
+	private class MappedOfferAllFunction implements Function<Collection<T>, Long> {
+		@Override public Long apply(Collection<T> objs) {
+			ByteBuffer[] items = new ByteBuffer[objs.size()];
+			int i = 0;
+			for(T t : objs) {
+				items[i++] = encode(t);
+			}
+			return append(items);
+		}
+	}
+
+	private class MappedGetFunction implements Function<Long, T> {
+		@Override public T apply(Long id) {
+			if(id < readId.get() || id >= writeId.get()) {
+				return null;
+			}
+			return read(id);
+		}
+	}
+
+	private class MappedRemoveFunction implements Supplier<T> {
+		@Override public T get() {
+			for(; ; ) {
+				long id = readId.get();
+				if(id >= writeId.get()) {
+					return null;
+				}
+				// Read before moving past the item: retain() only deletes a segment once readId has moved past it, so
+				// the read can't miss an item it deletes unless the CAS below fails, which discards the read
+				T obj = read(id);
+				if(readId.compareAndSet(id, id + 1)) {
+					synchronized(header) {
+						if(header.getLong(READ_ID_OFFSET) < id + 1) {
+							header.putLong(READ_ID_OFFSET, id + 1);
+						}
+					}
+					if(null != obj) {
+						return obj;
+					}
+					// Compacted away, so move on to the next item
+				}
+			}
+		}
+	}
+
+	private void cancelPeriodicForce() {
+		Registration<? extends Consumer<Long>> reg = periodicForce;
+		if(null != reg) {
+			reg.cancel();
+			periodicForce = null;
+		}
+	}
+
+	private void cancelPeriodicReclaim() {
+		Registration<? extends Consumer<Long>> reg = periodicReclaim;
+		if(null != reg) {
+			reg.cancel();
+			periodicReclaim = null;
+		}
+	}
+
+	/**
+	 * When items are forced from the mapped files to disk, beyond what the operating system does of its own accord.
+	 */
+	public enum ForcePolicy {
+		/**
+		 * Leave it to the operating system, and to {@link #close()}.
+		 */
+		NONE,
+		/**
+		 * Force every offer, or batch of offers, and every tailer offset committed to disk before returning.
+		 */
+		BATCH,
+		/**
+		 * Force the items offered in the meantime to disk periodically.
+		 */
+		PERIODIC
+	}
+
+}
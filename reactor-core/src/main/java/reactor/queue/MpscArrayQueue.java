@@ -0,0 +1,152 @@
+/*
+ * Copyright (c) 2011-2013 GoPivotal, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package reactor.queue;
+
+import reactor.function.Consumer;
+import reactor.util.Assert;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * A bounded, lock-free queue for any number of producers and a single consumer. Items are stored in a pre-allocated
+ * array, so offering an item doesn't allocate a node the way a linked queue does. Producers claim a slot by
+ * incrementing the tail with a CAS, and the consumer frees slots without any atomic read-modify-write at all.
+ * <p>
+ * Only one thread at a time may {@link #poll() poll} or {@link #drain(Consumer, int) drain} the queue.
+ * </p>
+ *
+ * @param <T>
+ * 		the type of items held in the queue
+ */
+public class MpscArrayQueue<T> {
+
+	private final AtomicLong              head = new AtomicLong();
+	private final AtomicLong              tail = new AtomicLong();
+	private final int                     capacity;
+	private final int                     mask;
+	private final AtomicReferenceArray<T> buffer;
+
+	/**
+	 * Create a new {@literal MpscArrayQueue}.
+	 *
+	 * @param capacity
+	 * 		the minimum capacity of the queue, which is rounded up to the next power of two
+	 */
+	public MpscArrayQueue(int capacity) {
+		Assert.isTrue(capacity > 0 && capacity <= (1 << 30), "Capacity must be between 1 and 2^30");
+		this.capacity = (Integer.bitCount(capacity) == 1 ? capacity : Integer.highestOneBit(capacity) << 1);
+		this.mask = this.capacity - 1;
+		this.buffer = new AtomicReferenceArray<T>(this.capacity);
+	}
+
+	/**
+	 * Add an item to the tail of the queue, if there is room for it.
+	 *
+	 * @param item
+	 * 		the item to add
+	 *
+	 * @return {@literal true} if the item was added, {@literal false} if the queue is full
+	 */
+	public boolean offer(T item) {
+		Assert.notNull(item, "Item cannot be null.");
+		for(; ; ) {
+			long t = tail.get();
+			if(t - head.get() >= capacity) {
+				return false;
+			}
+			if(tail.compareAndSet(t, t + 1)) {
+				buffer.lazySet((int)t & mask, item);
+				return true;
+			}
+		}
+	}
+
+	/**
+	 * Remove the item at the head of the queue. Must only be called by the consumer.
+	 *
+	 * @return the item at the head of the queue, or {@literal null} if the queue is empty
+	 */
+	public T poll() {
+		long h = head.get();
+		int idx = (int)h & mask;
+		T item = buffer.get(idx);
+		if(null == item) {
+			if(h == tail.get()) {
+				return null;
+			}
+			// A producer has claimed the slot but not written it yet
+			do {
+				item = buffer.get(idx);
+			} while(null == item);
+		}
+		buffer.lazySet(idx, null);
+		head.lazySet(h + 1);
+		return item;
+	}
+
+	/**
+	 * Remove up to {@code limit} items from the head of the queue, passing each of them to the given {@link
+	 * Consumer}. Must only be called by the consumer.
+	 *
+	 * @param consumer
+	 * 		the consumer of the items
+	 * @param limit
+	 * 		the maximum number of items to remove
+	 *
+	 * @return the number of items removed
+	 */
+	public int drain(Consumer<T> consumer, int limit) {
+		int count = 0;
+		T item;
+		while(count < limit && null != (item = poll())) {
+			count++;
+			consumer.accept(item);
+		}
+		return count;
+	}
+
+	/**
+	 * Get the number of items in the queue. As producers and the consumer may be running concurrently, the value is only
+	 * an estimate.
+	 *
+	 * @return the number of items in the queue
+	 */
+	public int size() {
+		long size = tail.get() - head.get();
+		return (int)Math.max(0, Math.min(size, capacity));
+	}
+
+	/**
+	 * Whether the queue is empty.
+	 *
+	 * @return {@literal true} if the queue has no items in it
+	 */
+	public boolean isEmpty() {
+		return tail.get() == head.get();
+	}
+
+	/**
+	 * Get the capacity of the queue.
+	 *
+	 * @return the capacity
+	 */
+	public int capacity() {
+		return capacity;
+	}
+
+}
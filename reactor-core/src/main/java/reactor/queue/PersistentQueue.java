@@ -17,18 +17,29 @@
 package reactor.queue;
 
 import java.util.AbstractQueue;
+import java.util.Collection;
 import java.util.Iterator;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 
+import reactor.util.Assert;
+
 /**
  * A {@literal PersistentQueue} is a {@link java.util.Queue} implementation that delegates the actual storage of the
  * elements in the queue to a {@link QueuePersistor}.
+ * <p>
+ * Besides being consumed by {@link #poll() polling}, which removes items for every reader of the queue, the queue can
+ * be read by any number of named {@link #tailer(String) tailers}, each of which reads every item at its own pace and
+ * commits its position to the {@link QueuePersistor}.
+ * </p>
  *
  * @author Jon Brisbin
  */
 public class PersistentQueue<T> extends AbstractQueue<T> {
 
+	private final ConcurrentMap<String, QueueTailer<T>> tailers = new ConcurrentHashMap<String, QueueTailer<T>>();
 	private final QueuePersistor<T> persistor;
 
 	/**
@@ -40,6 +51,29 @@ public class PersistentQueue<T> extends AbstractQueue<T> {
 		this.persistor = (null == persistor ? new InMemoryQueuePersistor<T>() : persistor);
 	}
 
+	/**
+	 * Get the {@link QueueTailer} with the given name, which carries on from the position it last committed, or starts
+	 * at the oldest item in the queue if it has never committed one.
+	 *
+	 * @param name
+	 * 		the name of the tailer
+	 *
+	 * @return the tailer
+	 */
+	@Nonnull
+	public QueueTailer<T> tailer(@Nonnull String name) {
+		Assert.notNull(name, "Tailer name cannot be null.");
+		QueueTailer<T> tailer = tailers.get(name);
+		if(null == tailer) {
+			tailer = new QueueTailer<T>(name, persistor);
+			QueueTailer<T> existing = tailers.putIfAbsent(name, tailer);
+			if(null != existing) {
+				tailer = existing;
+			}
+		}
+		return tailer;
+	}
+
 	@Nonnull
 	public Iterator<T> iterator() {
 		return persistor.iterator();
@@ -55,6 +89,27 @@ public class PersistentQueue<T> extends AbstractQueue<T> {
 		return (null != persistor.offer().apply(obj));
 	}
 
+	/**
+	 * Add all of the given items to the queue in one go, using the {@link QueuePersistor#offerAll() offerAll} of the
+	 * {@link QueuePersistor}.
+	 *
+	 * @param c
+	 * 		the items to add
+	 *
+	 * @return {@literal true} if the queue changed
+	 */
+	@SuppressWarnings("unchecked")
+	@Override
+	public boolean addAll(Collection<? extends T> c) {
+		if(c == this) {
+			throw new IllegalArgumentException("A queue cannot be added to itself");
+		}
+		if(c.isEmpty()) {
+			return false;
+		}
+		return (null != persistor.offerAll().apply((Collection<T>)c));
+	}
+
 	@Override
 	public T poll() {
 		return persistor.remove().get();
@@ -62,8 +117,7 @@ public class PersistentQueue<T> extends AbstractQueue<T> {
 
 	@Override
 	public T peek() {
-		Long lastId = persistor.lastId();
-		return persistor.get().apply(lastId);
+		return persistor.get().apply(persistor.firstId());
 	}
 
 }
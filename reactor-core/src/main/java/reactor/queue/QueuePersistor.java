@@ -16,6 +16,8 @@
 
 package reactor.queue;
 
+import java.util.Collection;
+import java.util.Map;
 import javax.annotation.Nonnull;
 
 import reactor.function.Function;
@@ -37,6 +39,13 @@ public interface QueuePersistor<T> extends Iterable<T> {
 	 */
 	long lastId();
 
+	/**
+	 * Get the id of the oldest item that can still be read with {@link #get()}.
+	 *
+	 * @return id of the oldest item persisted
+	 */
+	long firstId();
+
 	/**
 	 * Get the number of items persisted right now.
 	 *
@@ -51,6 +60,14 @@ public interface QueuePersistor<T> extends Iterable<T> {
 	 */
 	@Nonnull Function<T, Long> offer();
 
+	/**
+	 * Returns a {@link Function} that will persist all of the given items in one go, giving them consecutive ids, and
+	 * return the id of the last one.
+	 *
+	 * @return id of the last item just persisted
+	 */
+	@Nonnull Function<Collection<T>, Long> offerAll();
+
 	/**
 	 * Returns a {@link Function} that will return the item with the given id.
 	 *
@@ -65,6 +82,34 @@ public interface QueuePersistor<T> extends Iterable<T> {
 	 */
 	@Nonnull Supplier<T> remove();
 
+	/**
+	 * Get the offset last committed by the {@link QueueTailer} with the given name.
+	 *
+	 * @param tailer
+	 * 		the name of the tailer
+	 *
+	 * @return the id of the next item the tailer is to read, or {@literal -1} if it has never committed an offset
+	 */
+	long offset(@Nonnull String tailer);
+
+	/**
+	 * Persist the offset of the {@link QueueTailer} with the given name, so that the tailer picks up from there when the
+	 * queue is opened again.
+	 *
+	 * @param tailer
+	 * 		the name of the tailer
+	 * @param offset
+	 * 		the id of the next item the tailer is to read
+	 */
+	void commitOffset(@Nonnull String tailer, long offset);
+
+	/**
+	 * Get the offsets last committed by all of the tailers of the queue.
+	 *
+	 * @return the committed offsets, keyed by the names of their tailers
+	 */
+	@Nonnull Map<String, Long> offsets();
+
 	/**
 	 * Release any internal resources used by the persistence mechanism.
 	 */
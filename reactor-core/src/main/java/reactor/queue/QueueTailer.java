@@ -0,0 +1,182 @@
+/*
+ * Copyright (c) 2011-2013 GoPivotal, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package reactor.queue;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+import reactor.function.Consumer;
+import reactor.util.Assert;
+
+/**
+ * A named reader of a {@link PersistentQueue} that reads the items of the queue in order, at its own pace, without
+ * removing them. Any number of tailers can read the same queue, so that items persisted once can be consumed by
+ * several independent consumers, each of which sees every item.
+ * <p>
+ * A tailer keeps its position in memory as it reads, and {@link #commit() commits} it to the queue's {@link
+ * QueuePersistor} when asked. A tailer of the same name carries on from the last committed position when the queue is
+ * opened again, so items read since the last commit are read again then. A new tailer starts at the oldest item in the
+ * queue, and a tailer that has fallen behind items removed from the queue skips ahead to the oldest one left. Items
+ * that the persistor can no longer read, such as those compacted away, are skipped.
+ * </p>
+ * <p>
+ * A tailer must only be used by one thread at a time.
+ * </p>
+ *
+ * @param <T>
+ * 		the type of items in the queue
+ *
+ * @see PersistentQueue#tailer(String)
+ */
+public class QueueTailer<T> {
+
+	private final String            name;
+	private final QueuePersistor<T> persistor;
+	private       long              position;
+	private       long              committed;
+
+	QueueTailer(String name, QueuePersistor<T> persistor) {
+		this.name = name;
+		this.persistor = persistor;
+		long offset = persistor.offset(name);
+		if(offset < 0) {
+			// Commit straight away so that the tailer is known to the persistor before it has read anything
+			offset = persistor.firstId();
+			persistor.commitOffset(name, offset);
+		}
+		this.position = offset;
+		this.committed = offset;
+	}
+
+	/**
+	 * Get the name of this tailer.
+	 *
+	 * @return the name
+	 */
+	public String getName() {
+		return name;
+	}
+
+	/**
+	 * Get the id of the next item this tailer is to read.
+	 *
+	 * @return the current position
+	 */
+	public long getPosition() {
+		return position;
+	}
+
+	/**
+	 * Get the position this tailer last committed.
+	 *
+	 * @return the committed position
+	 */
+	public long getCommitted() {
+		return committed;
+	}
+
+	/**
+	 * Read the next item and move past it.
+	 *
+	 * @return the next item, or {@literal null} if this tailer has read every item in the queue
+	 */
+	@Nullable
+	public T poll() {
+		T item = peek();
+		if(null != item) {
+			position++;
+		}
+		return item;
+	}
+
+	/**
+	 * Read the next item without moving past it.
+	 *
+	 * @return the next item, or {@literal null} if this tailer has read every item in the queue
+	 */
+	@Nullable
+	public T peek() {
+		for(; ; ) {
+			// Read the last id first: an id at or below it that has no item was removed, while a later one may only be
+			// missing because its producer has not stored it yet
+			long last = persistor.lastId();
+			T item = persistor.get().apply(position);
+			if(null != item) {
+				return item;
+			}
+			long first = persistor.firstId();
+			if(position < first) {
+				position = first;
+			} else if(position <= last) {
+				position++;
+			} else {
+				return null;
+			}
+		}
+	}
+
+	/**
+	 * Read up to {@code limit} items, passing each of them to the given {@link Consumer}.
+	 *
+	 * @param consumer
+	 * 		the consumer of the items
+	 * @param limit
+	 * 		the maximum number of items to read
+	 *
+	 * @return the number of items read
+	 */
+	public int drain(@Nonnull Consumer<T> consumer, int limit) {
+		int count = 0;
+		T item;
+		while(count < limit && null != (item = poll())) {
+			count++;
+			consumer.accept(item);
+		}
+		return count;
+	}
+
+	/**
+	 * Move this tailer to the item with the given id. The new position isn't committed until {@link #commit()} is
+	 * called.
+	 *
+	 * @param id
+	 * 		the id of the next item to read
+	 */
+	public void seek(long id) {
+		Assert.isTrue(id >= 0, "Id cannot be negative");
+		position = id;
+	}
+
+	/**
+	 * Commit the current position of this tailer to the {@link QueuePersistor}.
+	 */
+	public void commit() {
+		persistor.commitOffset(name, position);
+		committed = position;
+	}
+
+	@Override
+	public String toString() {
+		return "QueueTailer{" +
+				"name='" + name + '\'' +
+				", position=" + position +
+				", committed=" + committed +
+				'}';
+	}
+
+}
@@ -0,0 +1,78 @@
+/*
+ * Copyright (c) 2011-2013 GoPivotal, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package reactor.queue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.nio.ByteBuffer;
+
+import reactor.function.Function;
+import reactor.io.Buffer;
+
+/**
+ * The encoder and decoder used by the {@link IndexedChronicleQueuePersistor} when it's not given any, which rely on
+ * Java serialization. Neither copies the serialized bytes: the encoder hands over the array they were written to, and
+ * the decoder reads them straight from the {@link Buffer} it's given.
+ */
+final class SerializableCodec {
+
+	private SerializableCodec() {
+	}
+
+	static class Encoder<T> implements Function<T, Buffer> {
+		@Override public Buffer apply(T t) {
+			BufferOutputStream out = new BufferOutputStream();
+			try {
+				ObjectOutputStream oos = new ObjectOutputStream(out);
+				oos.writeObject(t);
+				oos.flush();
+				oos.close();
+			} catch(IOException e) {
+				throw new IllegalStateException(e.getMessage(), e);
+			}
+
+			return out.toBuffer();
+		}
+	}
+
+	/**
+	 * Hands over its internal array as a {@link Buffer} instead of copying it.
+	 */
+	private static class BufferOutputStream extends ByteArrayOutputStream {
+		private Buffer toBuffer() {
+			return new Buffer(ByteBuffer.wrap(buf, 0, count));
+		}
+	}
+
+	static class Decoder<T> implements Function<Buffer, T> {
+		@SuppressWarnings("unchecked")
+		@Override public T apply(Buffer buff) {
+			try {
+				ObjectInputStream ois = new ObjectInputStream(buff.inputStream());
+				return (T)ois.readObject();
+			} catch(IOException e) {
+				throw new IllegalStateException(e.getMessage(), e);
+			} catch(ClassNotFoundException e) {
+				throw new IllegalStateException(e.getMessage(), e);
+			}
+		}
+	}
+
+}
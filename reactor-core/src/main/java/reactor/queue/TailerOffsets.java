@@ -0,0 +1,126 @@
+/*
+ * Copyright (c) 2011-2013 GoPivotal, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package reactor.queue;
+
+import java.io.File;
+import java.nio.MappedByteBuffer;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.regex.Pattern;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import reactor.util.Assert;
+
+/**
+ * Keeps the committed offsets of the {@link QueueTailer tailers} of a file-based {@link QueuePersistor}, each in a
+ * small memory-mapped file of its own, named after the tailer, in the given directory. Committing an offset is then a
+ * single write to memory, which reaches the disk along with the persistor's own files.
+ */
+class TailerOffsets {
+
+	private static final Logger  LOG    = LoggerFactory.getLogger(TailerOffsets.class);
+	private static final String  SUFFIX = ".tailer";
+	private static final Pattern NAME   = Pattern.compile("[\\w.-]+");
+
+	private final ConcurrentMap<String, MappedByteBuffer> offsets = new ConcurrentHashMap<String, MappedByteBuffer>();
+	private final File dir;
+
+	TailerOffsets(File dir) {
+		this.dir = dir;
+		File[] files = dir.listFiles();
+		if(null != files) {
+			for(File f : files) {
+				if(f.getName().endsWith(SUFFIX)) {
+					String name = f.getName().substring(0, f.getName().length() - SUFFIX.length());
+					offsets.put(name, MappedFileQueuePersistor.map(f, 0, 8));
+				}
+			}
+		}
+	}
+
+	long get(String tailer) {
+		MappedByteBuffer bb = offsets.get(tailer);
+		return (null == bb ? -1 : bb.getLong(0));
+	}
+
+	void commit(String tailer, long offset) {
+		offsets(tailer).putLong(0, offset);
+	}
+
+	Map<String, Long> snapshot() {
+		Map<String, Long> snapshot = new HashMap<String, Long>();
+		for(Map.Entry<String, MappedByteBuffer> entry : offsets.entrySet()) {
+			snapshot.put(entry.getKey(), entry.getValue().getLong(0));
+		}
+		return snapshot;
+	}
+
+	void force() {
+		for(MappedByteBuffer bb : offsets.values()) {
+			bb.force();
+		}
+	}
+
+	void force(String tailer) {
+		MappedByteBuffer bb = offsets.get(tailer);
+		if(null != bb) {
+			bb.force();
+		}
+	}
+
+	void clear() {
+		offsets.clear();
+		File[] files = dir.listFiles();
+		if(null == files) {
+			return;
+		}
+		for(File f : files) {
+			if(f.getName().endsWith(SUFFIX) && !f.delete()) {
+				LOG.warn("Could not delete " + f);
+			}
+		}
+	}
+
+	void deleteOnExit() {
+		dir.deleteOnExit();
+		for(String tailer : offsets.keySet()) {
+			new File(dir, tailer + SUFFIX).deleteOnExit();
+		}
+	}
+
+	private MappedByteBuffer offsets(String tailer) {
+		MappedByteBuffer bb = offsets.get(tailer);
+		if(null == bb) {
+			Assert.isTrue(NAME.matcher(tailer).matches(), "Tailer name '" + tailer + "' may only contain letters, digits, " +
+					"'_', '-' and '.'");
+			if(!dir.isDirectory() && !dir.mkdirs()) {
+				throw new IllegalStateException("Could not create directory " + dir);
+			}
+			bb = MappedFileQueuePersistor.map(new File(dir, tailer + SUFFIX), 0, 8);
+			MappedByteBuffer existing = offsets.putIfAbsent(tailer, bb);
+			if(null != existing) {
+				bb = existing;
+			}
+		}
+		return bb;
+	}
+
+}
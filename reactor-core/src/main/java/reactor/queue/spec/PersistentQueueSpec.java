@@ -5,6 +5,7 @@ import java.io.IOException;
 import reactor.function.Supplier;
 import reactor.queue.InMemoryQueuePersistor;
 import reactor.queue.IndexedChronicleQueuePersistor;
+import reactor.queue.MappedFileQueuePersistor;
 import reactor.queue.PersistentQueue;
 import reactor.util.Assert;
 
@@ -18,13 +19,13 @@ public class PersistentQueueSpec<T> implements Supplier<PersistentQueue<T>> {
 	private PersistentQueue<T> queue;
 
 	public PersistentQueueSpec<T> inMemory() {
-		Assert.isNull(queue, "PersistentQueue type already set (" + queue.getClass().getName() + ")");
+		Assert.isNull(queue, "PersistentQueue type already set.");
 		this.queue = new PersistentQueue<T>(new InMemoryQueuePersistor<T>());
 		return this;
 	}
 
 	public PersistentQueueSpec<T> indexedChronicle(String basePath) {
-		Assert.isNull(queue, "PersistentQueue type already set (" + queue.getClass().getName() + ")");
+		Assert.isNull(queue, "PersistentQueue type already set.");
 		try {
 			this.queue = new PersistentQueue<T>(new IndexedChronicleQueuePersistor<T>(basePath));
 		} catch(IOException e) {
@@ -33,6 +34,16 @@ public class PersistentQueueSpec<T> implements Supplier<PersistentQueue<T>> {
 		return this;
 	}
 
+	public PersistentQueueSpec<T> mappedFile(String basePath) {
+		Assert.isNull(queue, "PersistentQueue type already set.");
+		try {
+			this.queue = new PersistentQueue<T>(new MappedFileQueuePersistor<T>(basePath));
+		} catch(IOException e) {
+			throw new IllegalArgumentException(e.getMessage(), e);
+		}
+		return this;
+	}
+
 	@Override
 	public PersistentQueue<T> get() {
 		return queue;
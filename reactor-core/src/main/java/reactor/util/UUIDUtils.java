@@ -16,20 +16,22 @@
 package reactor.util;
 
 import com.eaio.uuid.UUIDGen;
+import reactor.core.Clock;
 
 import java.util.UUID;
-import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
- * Helper for creating Type-1 time-based UUIDs.
+ * Helper for creating Type-1 time-based UUIDs. Generation is lock-free: uniqueness is guaranteed by atomically
+ * advancing the last timestamp handed out, so concurrent callers within the same clock tick are given consecutive
+ * 100-nanosecond intervals rather than being serialized on a lock.
  *
  * @author Jon Brisbin
  */
 public abstract class UUIDUtils {
 
-	private static final long          clockNodeAndSeq = UUIDGen.getClockSeqAndNode();
-	private static final ReentrantLock lock            = new ReentrantLock();
-	private static long lastTime;
+	private static final long       clockNodeAndSeq = UUIDGen.getClockSeqAndNode();
+	private static final AtomicLong lastTime        = new AtomicLong();
 
 	private UUIDUtils() {
 	}
@@ -40,17 +42,15 @@ public abstract class UUIDUtils {
 	 * @return the new UUID
 	 */
 	public static UUID create() {
-		long timeMillis = (System.currentTimeMillis() * 10000) + 0x01B21DD213814000L;
+		long timeMillis = (Clock.currentTimeMillis() * 10000) + 0x01B21DD213814000L;
 
-		lock.lock();
-		try {
-			if (timeMillis > lastTime) {
-				lastTime = timeMillis;
-			} else {
-				timeMillis = ++lastTime;
+		for (; ; ) {
+			long last = lastTime.get();
+			long next = (timeMillis > last ? timeMillis : last + 1);
+			if (lastTime.compareAndSet(last, next)) {
+				timeMillis = next;
+				break;
 			}
-		} finally {
-			lock.unlock();
 		}
 
 		// time low
@@ -0,0 +1,97 @@
+/*
+ * Copyright (c) 2011-2013 GoPivotal, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package reactor.core
+
+import spock.lang.Specification
+
+import java.util.concurrent.TimeUnit
+
+class ClockSpec extends Specification {
+
+  def "Clock is kept up to date by a running timer"() {
+
+    given:
+      "a running timer"
+      def timer = new HashWheelTimer(10)
+
+    when:
+      "the timer has ticked a few times"
+      Thread.sleep(100)
+      def cached = Clock.currentTimeMillis()
+      def nanos = Clock.nanoTime()
+
+    then:
+      "the cached time is within a few ticks of the system clock"
+      Math.abs(System.currentTimeMillis() - cached) < 100
+      Math.abs(System.nanoTime() - nanos) < TimeUnit.MILLISECONDS.toNanos(100)
+
+    cleanup:
+      timer.cancel()
+
+  }
+
+  def "Clock can fall back to the precise system clock"() {
+
+    given:
+      "a running timer with a coarse resolution"
+      def timer = new HashWheelTimer(1000)
+
+    when:
+      "the clock is switched to precise mode"
+      Clock.precise = true
+      Thread.sleep(20)
+      def before = System.nanoTime()
+      def nanos = Clock.nanoTime()
+
+    then:
+      "the system clock is read directly"
+      nanos >= before
+
+    cleanup:
+      Clock.precise = false
+      timer.cancel()
+
+  }
+
+  def "Clock never runs backwards when timers update it out of order"() {
+
+    given:
+      "a running timer"
+      def timer = new HashWheelTimer(1000)
+
+    when:
+      "timers update the clock concurrently with older and newer times"
+      def now = System.currentTimeMillis()
+      def nanos = System.nanoTime()
+      def threads = (0..<4).collect { t ->
+        Thread.start {
+          (0..<1000).each { Clock.update(now - 1000 + it + t, nanos - 1000 + it + t) }
+        }
+      }
+      threads*.join()
+
+    then:
+      "the clock holds the newest time"
+      Clock.currentTimeMillis() >= now + 2
+      Clock.nanoTime() - (nanos + 2) >= 0
+
+    cleanup:
+      timer.cancel()
+
+  }
+
+}
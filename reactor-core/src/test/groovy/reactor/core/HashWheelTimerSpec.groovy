@@ -65,4 +65,31 @@ class HashWheelTimerSpec extends Specification {
 
   }
 
+  def "HashWheelTimer can spin for sub-millisecond resolution and reports lateness"() {
+
+    given:
+      "a new spinning timer with a 500us resolution"
+      def timer = new HashWheelTimer(500, TimeUnit.MICROSECONDS, HashWheelTimer.WaitMode.SPIN)
+      def latch = new CountDownLatch(100)
+
+    when:
+      "a task is scheduled every 1ms"
+      timer.schedule(
+          { Long now -> latch.countDown() } as Consumer<Long>,
+          1000,
+          TimeUnit.MICROSECONDS
+      )
+
+    then:
+      "the latch was counted down and lateness was recorded"
+      latch.await(1, TimeUnit.SECONDS)
+      timer.firedCount >= 100
+      timer.getMaxLateness(TimeUnit.NANOSECONDS) >= timer.getMeanLateness(TimeUnit.NANOSECONDS)
+      timer.getMeanLateness(TimeUnit.NANOSECONDS) >= 0
+
+    cleanup:
+      timer.cancel()
+
+  }
+
 }
@@ -16,6 +16,7 @@
 package reactor.core.composable.spec
 
 import reactor.core.Environment
+import reactor.core.HashWheelTimer
 import reactor.core.composable.Composable
 import reactor.core.composable.Deferred
 import reactor.core.composable.Stream
@@ -611,6 +612,100 @@ class StreamsSpec extends Specification {
       3 * observable.notify('key', _)
   }
 
+  def "A Stream's values can be throttled"() {
+    given:
+      'a throttled Stream'
+      def timer = new HashWheelTimer(10)
+      Deferred d = Streams.<Integer> defer().synchronousDispatcher().get()
+      def values = []
+      d.compose().throttle(3, 1, TimeUnit.MINUTES, timer).consume(consumer { values << it })
+
+    when:
+      'more values are accepted than the Stream permits in a period'
+      10.times { d.accept(it) }
+
+    then:
+      'only the permitted values are passed on'
+      values == [0, 1, 2]
+
+    cleanup:
+      timer.cancel()
+  }
+
+  def "A Stream's values can be debounced"() {
+    given:
+      'a debounced Stream'
+      def timer = new HashWheelTimer(10)
+      Deferred d = Streams.<Integer> defer().synchronousDispatcher().get()
+      def values = []
+      def latch = new CountDownLatch(1)
+      d.compose().debounce(100, TimeUnit.MILLISECONDS, timer).consume(consumer {
+        values << it
+        latch.countDown()
+      })
+
+    when:
+      'a burst of values is accepted'
+      10.times { d.accept(it) }
+
+    then:
+      'only the last value is passed on, once the burst is over'
+      latch.await(5, TimeUnit.SECONDS)
+      Thread.sleep(200)
+      values == [9]
+
+    cleanup:
+      timer.cancel()
+  }
+
+  def "A Stream's values can be sampled"() {
+    given:
+      'a sampled Stream'
+      def timer = new HashWheelTimer(10)
+      Deferred d = Streams.<Integer> defer().synchronousDispatcher().get()
+      def values = []
+      def latch = new CountDownLatch(1)
+      d.compose().sample(50, TimeUnit.MILLISECONDS, timer).consume(consumer {
+        values << it
+        latch.countDown()
+      })
+
+    when:
+      'values are accepted within a period'
+      10.times { d.accept(it) }
+
+    then:
+      'only the latest value of the period is passed on'
+      latch.await(5, TimeUnit.SECONDS)
+      Thread.sleep(200)
+      values == [9]
+
+    cleanup:
+      timer.cancel()
+  }
+
+  def "A sampled Stream stops sampling once it has accepted an error"() {
+    given:
+      'a sampled Stream'
+      def timer = new HashWheelTimer(10)
+      Deferred d = Streams.<Integer> defer().synchronousDispatcher().get()
+      def values = []
+      d.compose().sample(50, TimeUnit.MILLISECONDS, timer).consume(consumer { values << it })
+
+    when:
+      'an error is accepted, followed by more values'
+      d.accept(new IllegalStateException("boom"))
+      10.times { d.accept(it) }
+      Thread.sleep(200)
+
+    then:
+      'the sampling task has been cancelled'
+      values.empty
+
+    cleanup:
+      timer.cancel()
+  }
+
   static class Reduction implements Function<Tuple2<Integer, Integer>, Integer> {
     @Override
     public Integer apply(Tuple2<Integer, Integer> reduce) {
@@ -132,6 +132,43 @@ class PropertiesConfigurationReaderSpec extends Specification {
 		matchesExpectedDefaultConfiguration(dispatchers.alpha, DispatcherType.EVENT_LOOP, null, null)
 	}
 
+	def "MPSC event loop dispatchers can be configured"() {
+		given: "a configuration reader"
+		def reader = new PropertiesConfigurationReader()
+
+		when: "a system property configures an MPSC event loop dispatcher"
+		System.setProperty("reactor.dispatchers.alpha.type", "mpscEventLoop")
+		System.setProperty("reactor.dispatchers.alpha.backlog", "2048")
+		def configuration = reader.read()
+		System.clearProperty("reactor.dispatchers.alpha.type")
+		System.clearProperty("reactor.dispatchers.alpha.backlog")
+
+		def dispatchers = toMapByName configuration.dispatcherConfigurations
+
+		then: "its type is recognized"
+		dispatchers.size() == 4
+		matchesExpectedDefaultConfiguration(dispatchers.alpha, DispatcherType.MPSC_EVENT_LOOP, null, 2048)
+	}
+
+	def "Wait strategies can be configured"() {
+		given: "a configuration reader"
+		def reader = new PropertiesConfigurationReader()
+
+		when: "system properties configure the wait strategy of some dispatchers"
+		System.setProperty("reactor.dispatchers.ringBuffer.waitStrategy", "adaptive")
+		System.setProperty("reactor.dispatchers.eventLoop.waitStrategy", "busySpin")
+		def configuration = reader.read()
+		System.clearProperty("reactor.dispatchers.ringBuffer.waitStrategy")
+		System.clearProperty("reactor.dispatchers.eventLoop.waitStrategy")
+
+		def dispatchers = toMapByName configuration.dispatcherConfigurations
+
+		then: "the wait strategies are recognized"
+		dispatchers.ringBuffer.waitStrategy == WaitStrategyType.ADAPTIVE
+		dispatchers.eventLoop.waitStrategy == WaitStrategyType.BUSY_SPIN
+		dispatchers.threadPoolExecutor.waitStrategy == null
+	}
+
 	def "Missing active profiles are tolerated"() {
 		given: "a configuration reader"
 		def reader = new PropertiesConfigurationReader()
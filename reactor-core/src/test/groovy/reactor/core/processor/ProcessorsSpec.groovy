@@ -3,8 +3,10 @@ package reactor.core.processor
 import reactor.function.Consumer
 import reactor.function.Supplier
 import spock.lang.Specification
+import spock.lang.Timeout
 
 import java.util.concurrent.CountDownLatch
+import java.util.concurrent.Executor
 import java.util.concurrent.TimeUnit
 
 /**
@@ -93,9 +95,215 @@ class ProcessorsSpec extends Specification {
 
 	}
 
+	def "Processor runs stages of event handlers against the same data"() {
+
+		given: 'a Processor that decodes, then journals and replicates in parallel, then handles events'
+		def latch = new CountDownLatch(100)
+		def journalled = Collections.synchronizedSet([] as Set)
+		def replicated = Collections.synchronizedSet([] as Set)
+		def handled = []
+		def inOrder = true
+		def processor = new reactor.core.processor.spec.ProcessorSpec<Data>().
+				dataBufferSize(64).
+				dataSupplier({ new Data() } as Supplier<Data>).
+				stage({ Data d -> d.data = d.type.toUpperCase() } as Consumer<Data>).
+				stage({ Data d -> journalled << d.data } as Consumer<Data>,
+				      { Data d -> replicated << d.data } as Consumer<Data>).
+				consume({ Data d ->
+					inOrder &= journalled.contains(d.data) && replicated.contains(d.data)
+					handled << d.data
+					latch.countDown()
+				} as Consumer<Data>).
+				get()
+
+		when: 'a series of events are triggered'
+		def i = 0
+		processor.batch(100, { Data d ->
+			d.type = "run ${i++}".toString()
+		} as Consumer<Data>)
+
+		then: 'each stage saw the data once the previous stages were done with it'
+		latch.await(5, TimeUnit.SECONDS)
+		inOrder
+		handled == (0..<100).collect { "RUN $it".toString() }
+
+		cleanup:
+		processor.shutdown()
+
+	}
+
+	def "Processor shares data between a pool of workers"() {
+
+		given: 'a Processor with 4 workers'
+		def latch = new CountDownLatch(200)
+		def handled = new java.util.concurrent.atomic.AtomicInteger()
+		def threads = Collections.synchronizedSet([] as Set)
+		def processor = new reactor.core.processor.spec.ProcessorSpec<Data>().
+				dataBufferSize(64).
+				dataSupplier({ new Data() } as Supplier<Data>).
+				workers(4).
+				consume({ Data d ->
+					threads << Thread.currentThread()
+					Thread.sleep(1)
+					handled.incrementAndGet()
+					latch.countDown()
+				} as Consumer<Data>).
+				get()
+
+		when: 'a batch of events is triggered'
+		processor.batch(200, { Data d -> d.type = "test" } as Consumer<Data>)
+
+		then: 'each event is handled once, by several threads'
+		latch.await(5, TimeUnit.SECONDS)
+		handled.get() == 200
+		threads.size() > 1
+
+		cleanup:
+		processor.shutdown()
+
+	}
+
+	def "Processor runs on a shared executor with the given wait strategy"() {
+
+		given: 'two Processors sharing an executor'
+		def executor = java.util.concurrent.Executors.newCachedThreadPool(new reactor.support.NamedDaemonThreadFactory("shared"))
+		def latch = new CountDownLatch(20000)
+		def threads = Collections.synchronizedSet([] as Set)
+		def values = [[], []]
+		def processors = (0..1).collect { n ->
+			new reactor.core.processor.spec.ProcessorSpec<Data>().
+					dataBufferSize(128).
+					dataSupplier({ new Data() } as Supplier<Data>).
+					waitStrategy(new com.lmax.disruptor.YieldingWaitStrategy()).
+					executor(executor).
+					consume({ Data d ->
+						threads << Thread.currentThread().name
+						values[n] << d.data
+						latch.countDown()
+					} as Consumer<Data>).
+					get()
+		}
+
+		when: 'batches much larger than the buffer are triggered'
+		processors.each { p ->
+			def i = 0
+			p.batch(10000, { Data d -> d.data = "${i++}".toString() } as Consumer<Data>)
+		}
+
+		then: 'all of the data is handled, in order, on the shared threads'
+		latch.await(5, TimeUnit.SECONDS)
+		values.every { it == (0..<10000).collect { "$it".toString() } }
+		threads.every { it.startsWith("shared") }
+
+		cleanup:
+		processors*.shutdown()
+		executor.shutdown()
+
+	}
+
+	def "Processor with an adaptive wait strategy wakes up its single consumer"() {
+
+		given: 'a single-producer Processor whose consumer waits adaptively'
+		def handled = new java.util.concurrent.LinkedBlockingQueue<String>()
+		def processor = new reactor.core.processor.spec.ProcessorSpec<Data>().
+				dataSupplier({ new Data() } as Supplier<Data>).
+				waitStrategy(new reactor.event.dispatch.AdaptiveWaitStrategy()).
+				consume({ Data d -> handled << d.data } as Consumer<Data>).
+				get()
+
+		when: 'events are triggered one at a time, letting the consumer block in between'
+		def received = (1..20).collect {
+			Thread.sleep(10)
+			def op = processor.prepare()
+			op.get().data = "$it".toString()
+			op.commit()
+			handled.poll(1, TimeUnit.SECONDS)
+		}
+
+		then: 'the consumer was woken up for each of them'
+		received == (1..20).collect { "$it".toString() }
+
+		when: 'the strategy is given to a Processor with more than one consumer'
+		new reactor.core.processor.spec.ProcessorSpec<Data>().
+				dataSupplier({ new Data() } as Supplier<Data>).
+				waitStrategy(new reactor.event.dispatch.AdaptiveWaitStrategy()).
+				stage({ Data d -> } as Consumer<Data>).
+				consume({ Data d -> } as Consumer<Data>).
+				get()
+
+		then: 'it is rejected'
+		thrown(IllegalArgumentException)
+
+		cleanup:
+		processor.shutdown()
+
+	}
+
+	def "OffHeapProcessor handles fixed-layout records held outside the heap"() {
+
+		given: 'an OffHeapProcessor with a journalling stage'
+		def latch = new CountDownLatch(1000)
+		def journalled = []
+		def sums = []
+		def processor = new reactor.core.processor.spec.OffHeapProcessorSpec<Quote>().
+				dataBufferSize(64).
+				flyweight({ new Quote() } as Supplier<Quote>, Quote.SIZE).
+				stage({ Quote q -> journalled << q.price } as Consumer<Quote>).
+				consume({ Quote q -> sums << q.price * q.volume; latch.countDown() } as Consumer<Quote>).
+				get()
+
+		when: 'more records are published than the ring holds'
+		def i = 0
+		processor.batch(999, { Quote q -> q.price = i; q.volume = 2; i++ } as Consumer<Quote>)
+		processor.publish({ Quote q -> q.price = 999; q.volume = 2 } as Consumer<Quote>)
+
+		then: 'every record is seen by each stage, in order'
+		latch.await(5, TimeUnit.SECONDS)
+		journalled == (0L..999L).toList()
+		sums == (0L..999L).collect { it * 2 }
+		processor.bufferSize == 64
+		processor.slotSize == 16
+
+		cleanup:
+		processor.shutdown()
+
+	}
+
+	@Timeout(10)
+	def "OffHeapProcessor doesn't wait for consumers that were never run when it is shut down"() {
+
+		given: 'an OffHeapProcessor whose shared executor never runs its consumers'
+		def processor = new reactor.core.processor.spec.OffHeapProcessorSpec<Quote>().
+				dataBufferSize(64).
+				flyweight({ new Quote() } as Supplier<Quote>, Quote.SIZE).
+				consume({ Quote q -> } as Consumer<Quote>).
+				executor({ Runnable r -> } as Executor).
+				get()
+
+		when: 'a record is published and the processor is shut down'
+		processor.publish({ Quote q -> q.price = 1; q.volume = 1 } as Consumer<Quote>)
+		def caughtUp = processor.shutdown(5, TimeUnit.SECONDS)
+
+		then: 'the shutdown returns without the record having been handled'
+		!caughtUp
+
+	}
+
 }
 
 class Data {
 	String type
 	String data
 }
+
+class Quote extends Flyweight {
+	static final int SIZE = 16
+
+	long getPrice() { buffer.getLong(offset) }
+
+	void setPrice(long price) { buffer.putLong(offset, price) }
+
+	long getVolume() { buffer.getLong(offset + 8) }
+
+	void setVolume(long volume) { buffer.putLong(offset + 8, volume) }
+}
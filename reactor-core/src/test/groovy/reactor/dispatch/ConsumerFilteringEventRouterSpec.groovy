@@ -156,4 +156,29 @@ class ConsumerFilteringEventRouterSpec extends Specification {
 		0 * consumerInvoker.invoke(completionConsumer, _, event)
 	}
 
+	def "Expired events are dropped without being routed"() {
+		def filter = new PassThroughFilter()
+		def consumerInvoker = Mock(ConsumerInvoker)
+		def completionConsumer = Mock(Consumer)
+		def errorConsumer = Mock(Consumer)
+		def consumer = Mock(Consumer)
+		def event = new Event("data")
+		event.headers.setDeadline(System.currentTimeMillis() - 1000)
+
+		given: "A consumer filtering event router"
+		def eventRouter = new ConsumerFilteringEventRouter(filter, consumerInvoker)
+
+		when: "an event whose deadline has passed is routed"
+		Registration registration = Mock(Registration)
+		registration.getObject() >> consumer
+		registration.getSelector() >> Mock(Selector)
+
+		eventRouter.route("key", event, [registration], completionConsumer, errorConsumer)
+
+		then: "neither the consumer nor the completion consumer is invoked and the event is counted as expired"
+		0 * consumerInvoker.invoke(_, _, _)
+		0 * errorConsumer.accept(_)
+		eventRouter.expiredCount == 1
+	}
+
 }
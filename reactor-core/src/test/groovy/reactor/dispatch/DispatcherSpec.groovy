@@ -25,22 +25,45 @@
 package reactor.dispatch
 
 import reactor.core.Environment
+import reactor.core.HashWheelTimer
+import reactor.core.Reactor
 import reactor.core.spec.Reactors
+import com.lmax.disruptor.dsl.ProducerType
 import reactor.event.Event
+import reactor.event.dispatch.AdaptiveWaitStrategy
+import reactor.event.dispatch.BlockingQueueDispatcher
+import reactor.event.dispatch.CoDel
+import reactor.event.dispatch.ConflatingDispatcher
+import reactor.event.dispatch.IdleStrategies
+import reactor.event.dispatch.MpscEventLoopDispatcher
+import reactor.event.dispatch.PriorityDispatcher
+import reactor.event.dispatch.RateLimitingDispatcher
+import reactor.event.dispatch.RingBufferDispatcher
 import reactor.event.dispatch.SynchronousDispatcher
 import reactor.event.dispatch.ThreadPoolExecutorDispatcher
+import reactor.event.dispatch.VirtualThreadDispatcher
+import reactor.event.dispatch.WorkStealingDispatcher
 import reactor.event.registry.CachingRegistry
 import reactor.event.routing.ArgumentConvertingConsumerInvoker
 import reactor.event.routing.ConsumerFilteringEventRouter
+import reactor.event.support.EventPool
 import reactor.filter.PassThroughFilter
 import reactor.function.Consumer
+import reactor.support.NamedDaemonThreadFactory
+import spock.lang.IgnoreIf
+import spock.lang.Requires
 import spock.lang.Specification
 
 import java.util.concurrent.CountDownLatch
+import java.util.concurrent.RejectedExecutionException
 import java.util.concurrent.TimeUnit
+import java.util.concurrent.atomic.AtomicInteger
+import java.util.concurrent.atomic.AtomicReference
 
 import static reactor.GroovyTestUtils.$
 import static reactor.GroovyTestUtils.consumer
+import static reactor.event.selector.Selectors.R
+import static reactor.event.selector.Selectors.T
 
 /**
  * @author Jon Brisbin
@@ -128,4 +151,564 @@ class DispatcherSpec extends Specification {
 
 	}
 
+	def "MpscEventLoopDispatcher executes tasks in order on its own thread"() {
+
+		given: "an MPSC event loop dispatcher with a small queue"
+		def dispatcher = new MpscEventLoopDispatcher("mpsc", 8, idleStrategy, 4)
+		def registry = new CachingRegistry<Consumer<Event>>()
+		def eventRouter = new ConsumerFilteringEventRouter(
+				new PassThroughFilter(), new ArgumentConvertingConsumerInvoker())
+		def currentThread = Thread.currentThread()
+		def threads = [] as Set
+		def values = []
+		def latch = new CountDownLatch(100)
+		registry.register($('test'), consumer { int i ->
+			threads << Thread.currentThread()
+			values << i
+			latch.countDown()
+		})
+
+		when: "more tasks are submitted than the queue can hold"
+		(0..<100).each {
+			dispatcher.dispatch('test', Event.wrap(it), registry, null, eventRouter, null)
+		}
+
+		then: "they are all executed, in order, on the event loop thread"
+		latch.await(5, TimeUnit.SECONDS)
+		values == (0..<100).toList()
+		threads.size() == 1
+		!threads.contains(currentThread)
+
+		cleanup:
+		dispatcher.halt()
+
+		where:
+		idleStrategy << [IdleStrategies.spin(), IdleStrategies.yielding(), IdleStrategies.parking()]
+
+	}
+
+	def "MpscEventLoopDispatcher can be shutdown awaiting tasks to complete"() {
+
+		given: "a Reactor with an MPSC event loop dispatcher"
+		def r = Reactors.reactor().
+				dispatcher(new MpscEventLoopDispatcher("mpsc", 128)).
+				get()
+		def count = 0
+		r.on($("count"), { Event<Integer> ev ->
+			Thread.sleep(10)
+			count++
+		} as Consumer<Event<?>>)
+
+		when: "the Dispatcher is shutdown and tasks are awaited"
+		10.times { r.notify("count", Event.wrap(it)) }
+		def success = r.dispatcher.awaitAndShutdown()
+
+		then: "the Consumers were run and the Dispatcher is shut down"
+		success
+		count >= 9
+		!r.dispatcher.alive()
+
+	}
+
+	def "MpscEventLoopDispatcher rejects producers waiting for room once it is halted"() {
+
+		given: "an MPSC event loop dispatcher with a small queue whose event loop is busy"
+		def dispatcher = new MpscEventLoopDispatcher("mpsc", 8)
+		def registry = new CachingRegistry<Consumer<Event>>()
+		def eventRouter = new ConsumerFilteringEventRouter(
+				new PassThroughFilter(), new ArgumentConvertingConsumerInvoker())
+		def gate = new CountDownLatch(1)
+		def busy = new CountDownLatch(1)
+		registry.register($('gate'), consumer { String s ->
+			busy.countDown()
+			gate.await(5, TimeUnit.SECONDS)
+		})
+		registry.register($('test'), consumer { int i -> })
+		dispatcher.dispatch('gate', Event.wrap("wait"), registry, null, eventRouter, null)
+		busy.await(5, TimeUnit.SECONDS)
+
+		when: "a producer fills the queue and the dispatcher is halted while it waits for room"
+		def rejected = new AtomicReference<Throwable>()
+		def producer = Thread.start {
+			try {
+				100.times { dispatcher.dispatch('test', Event.wrap(it), registry, null, eventRouter, null) }
+			} catch(Throwable t) {
+				rejected.set(t)
+			}
+		}
+		Thread.sleep(100)
+		dispatcher.halt()
+		producer.join(5000)
+
+		then: "the producer is rejected instead of waiting forever"
+		!producer.alive
+		rejected.get() instanceof RejectedExecutionException
+
+		cleanup:
+		gate.countDown()
+
+	}
+
+	def "PriorityDispatcher lets high-priority events overtake a backlog"() {
+
+		given: "a Reactor with a 3-lane priority dispatcher whose event loop is busy"
+		def dispatcher = new PriorityDispatcher("priority", 3, 128).setLane("admin", 1)
+		def r = Reactors.reactor().dispatcher(dispatcher).get()
+		def latch = new CountDownLatch(55)
+		def handled = Collections.synchronizedList([])
+		["bulk", "admin", "heartbeat"].each { key ->
+			r.on($(key), { Event<Integer> ev ->
+				handled << key
+				latch.countDown()
+			} as Consumer<Event<?>>)
+		}
+		def gate = blockEventLoop(r)
+
+		when: "urgent events are notified behind a backlog of bulk events"
+		50.times { r.notify("bulk", Event.wrap(it)) }
+		2.times { r.notify("admin", Event.wrap(it)) }
+		3.times { r.notify("heartbeat", new Event(new Event.Headers([(Event.Headers.PRIORITY): "0"]), it)) }
+		gate.countDown()
+
+		then: "the urgent events are handled first and the backlog still drains"
+		latch.await(5, TimeUnit.SECONDS)
+		handled.take(5) == ["heartbeat"] * 3 + ["admin"] * 2
+		handled.count { it == "bulk" } == 50
+
+		cleanup:
+		dispatcher.shutdown()
+
+	}
+
+	def "ConflatingDispatcher only delivers the latest event for each key"() {
+
+		given: "a Reactor that conflates price updates and whose event loop is busy"
+		def r = Reactors.reactor().
+				dispatcher(new MpscEventLoopDispatcher("conflating", 128)).
+				conflate(R("price\\..*")).
+				get()
+		def latch = new CountDownLatch(7)
+		def prices = Collections.synchronizedList([])
+		def trades = Collections.synchronizedList([])
+		def completed = new CountDownLatch(2)
+		["price.a", "price.b"].each { key ->
+			r.on($(key), { Event<Integer> ev ->
+				prices << ev.data
+				latch.countDown()
+			} as Consumer<Event<?>>)
+		}
+		r.on($("trade"), { Event<Integer> ev ->
+			trades << ev.data
+			latch.countDown()
+		} as Consumer<Event<?>>)
+		def gate = blockEventLoop(r)
+
+		when: "bursts of updates are notified for two keys, along with events that must not be conflated"
+		100.times { r.notify("price.a", Event.wrap(it)) }
+		50.times { r.notify("price.b", Event.wrap(it + 1000)) }
+		3.times { r.notify("trade", Event.wrap(it)) }
+		2.times { r.notify("price.a", Event.wrap(it + 100), consumer { completed.countDown() }) }
+		gate.countDown()
+
+		then: "only the latest update for each matching key is delivered, and nothing else is dropped"
+		latch.await(5, TimeUnit.SECONDS)
+		prices.sort() == [99, 100, 101, 1049]
+		trades == [0, 1, 2]
+		completed.await(5, TimeUnit.SECONDS)
+		r.dispatcher instanceof ConflatingDispatcher
+		r.dispatcher.conflatedCount == 148
+		r.dispatcher.pendingCount == 0
+
+		cleanup:
+		r.dispatcher.shutdown()
+
+	}
+
+	def "RateLimitingDispatcher holds back events that are over the limit"() {
+
+		given: "a Reactor limited to 2 events per key every 100ms"
+		def timer = new HashWheelTimer(10)
+		def dispatcher = new RateLimitingDispatcher(new SynchronousDispatcher(), R("[ab]"), timer, 2, 100,
+				TimeUnit.MILLISECONDS, true, RateLimitingDispatcher.Overflow.DELAY, null)
+		def r = Reactors.reactor().dispatcher(dispatcher).get()
+		def values = Collections.synchronizedList([])
+		def latch = new CountDownLatch(7)
+		["a", "b"].each { key ->
+			r.on($(key), { Event<String> ev ->
+				values << ev.data
+				latch.countDown()
+			} as Consumer<Event<?>>)
+		}
+
+		when: "a burst of events is notified"
+		5.times { r.notify("a", Event.wrap("a$it".toString())) }
+		2.times { r.notify("b", Event.wrap("b$it".toString())) }
+
+		then: "only the permitted events are delivered straight away"
+		values == ["a0", "a1", "b0", "b1"]
+		dispatcher.backlog == 3
+
+		and: "the others are delivered in order as tokens become available"
+		latch.await(5, TimeUnit.SECONDS)
+		values.findAll { it.startsWith("a") } == ["a0", "a1", "a2", "a3", "a4"]
+		dispatcher.delayedCount == 3
+		dispatcher.backlog == 0
+
+		cleanup:
+		timer.cancel()
+
+	}
+
+	def "RateLimitingDispatcher drops or redirects events that are over the limit"() {
+
+		given: "a Reactor limited to 2 events per minute"
+		def timer = new HashWheelTimer(10)
+		def dispatcher = new RateLimitingDispatcher(new SynchronousDispatcher(), $("api"), timer, 2, 1,
+				TimeUnit.MINUTES, false, overflow, "overflow")
+		def r = Reactors.reactor().dispatcher(dispatcher).get()
+		def delivered = 0
+		def overflowed = 0
+		r.on($("api"), { Event<Integer> ev -> delivered++ } as Consumer<Event<?>>)
+		r.on($("overflow"), { Event<Integer> ev -> overflowed++ } as Consumer<Event<?>>)
+
+		when: "more events are notified than are permitted"
+		5.times { r.notify("api", Event.wrap(it)) }
+
+		then: "the events over the limit are dropped or redirected"
+		delivered == 2
+		overflowed == redirected
+		dispatcher.droppedCount == dropped
+		dispatcher.redirectedCount == redirected
+
+		cleanup:
+		timer.cancel()
+
+		where:
+		overflow                                 | dropped | redirected
+		RateLimitingDispatcher.Overflow.DROP     | 3       | 0
+		RateLimitingDispatcher.Overflow.REDIRECT | 0       | 3
+
+	}
+
+	def "RateLimitingDispatcher only limits the events of the keys it was given"() {
+
+		given: "a Reactor limited to 1 event per minute for its api keys, dropping the others"
+		def timer = new HashWheelTimer(10)
+		def dispatcher = new RateLimitingDispatcher(new SynchronousDispatcher(), R("api\\..*"), timer, 1, 1,
+				TimeUnit.MINUTES, false, RateLimitingDispatcher.Overflow.DROP, null)
+		def r = Reactors.reactor().dispatcher(dispatcher).get()
+		def delivered = 0
+		def errors = 0
+		def others = 0
+		def completed = 0
+		r.on($("api.fail"), { Event<Integer> ev -> delivered++; throw new IllegalStateException() } as Consumer<Event<?>>)
+		r.on(T(IllegalStateException), { Event<Throwable> ev -> errors++ } as Consumer<Event<?>>)
+		r.on($("other"), { Event<Integer> ev -> others++ } as Consumer<Event<?>>)
+		def pool = new EventPool(4)
+
+		when: "more events are notified than are permitted"
+		3.times { r.notify("api.fail", Event.wrap(it)) }
+		def pooled = pool.allocate(3)
+		r.notify("api.fail", pooled)
+		3.times { r.notify("other", Event.wrap(it)) }
+		r.notify("api.fail", Event.wrap(4), { completed++ } as Consumer<Event<Integer>>)
+
+		then: "only events of the api keys without a completion consumer were dropped"
+		delivered == 2
+		errors == 2
+		others == 3
+		completed == 1
+		dispatcher.droppedCount == 3
+
+		and: "the dropped pooled event is only referenced by its producer"
+		pooled.refCount() == 1
+		pooled.release()
+
+		cleanup:
+		timer.cancel()
+
+	}
+
+	def "Dispatchers shed events that wait too long when overloaded"() {
+
+		given: "a Reactor with a slow consumer and a dispatcher that sheds load"
+		def dispatcher = new MpscEventLoopDispatcher("codel", 1024)
+		def coDel = new CoDel(2, 20, TimeUnit.MILLISECONDS)
+		dispatcher.setLoadShedding(coDel, deadLetterKey)
+		def r = Reactors.reactor().dispatcher(dispatcher).get()
+		def handled = new AtomicInteger()
+		def shed = new AtomicInteger()
+		def latch = new CountDownLatch(200)
+		r.on($("work"), { Event<Integer> ev ->
+			Thread.sleep(2)
+			handled.incrementAndGet()
+			latch.countDown()
+		} as Consumer<Event<?>>)
+		r.on($("dead"), { Event<Integer> ev ->
+			shed.incrementAndGet()
+			latch.countDown()
+		} as Consumer<Event<?>>)
+		r.on(T(RejectedExecutionException), { Event<RejectedExecutionException> ev ->
+			shed.incrementAndGet()
+			latch.countDown()
+		} as Consumer<Event<?>>)
+
+		when: "events are notified much faster than they can be handled"
+		200.times { r.notify("work", Event.wrap(it)) }
+
+		then: "events that have waited too long are shed instead of being handled"
+		latch.await(5, TimeUnit.SECONDS)
+		handled.get() + shed.get() == 200
+		shed.get() > 0
+		coDel.shedCount == shed.get()
+
+		cleanup:
+		dispatcher.shutdown()
+
+		where:
+		deadLetterKey << ["dead", null]
+
+	}
+
+	def "Dispatchers drop events whose deadline passed while they were queued"() {
+
+		given: "a Reactor whose event loop is busy"
+		def dispatcher = new MpscEventLoopDispatcher("ttl", 128)
+		dispatcher.setExpiryKey(expiryKey)
+		def r = Reactors.reactor().dispatcher(dispatcher).get()
+		def handled = Collections.synchronizedList([])
+		def expired = Collections.synchronizedList([])
+		def latch = new CountDownLatch(1)
+		r.on($("request"), { Event<Integer> ev -> handled << ev.data } as Consumer<Event<?>>)
+		r.on($("expired"), { Event<Integer> ev -> expired << ev.data } as Consumer<Event<?>>)
+		r.on($("done"), { Event<String> ev -> latch.countDown() } as Consumer<Event<?>>)
+		def gate = blockEventLoop(r)
+
+		when: "events with a short time to live wait behind the busy event loop"
+		r.notify("request", Event.wrap(1).setTimeToLive(10, TimeUnit.MILLISECONDS))
+		r.notify("request", Event.wrap(2).setTimeToLive(1, TimeUnit.MINUTES))
+		r.notify("request", Event.wrap(3))
+		r.notify("done", Event.wrap("done"))
+		Thread.sleep(100)
+		gate.countDown()
+
+		then: "only the events that are still worth processing are handled"
+		latch.await(5, TimeUnit.SECONDS)
+		handled == [2, 3]
+		expired == expiredValues
+		dispatcher.expiredCount == 1
+
+		cleanup:
+		dispatcher.shutdown()
+
+		where:
+		expiryKey | expiredValues
+		null      | []
+		"expired" | [1]
+
+	}
+
+	def "Dispatchers with an adaptive wait strategy wake up when idle"() {
+
+		given: "a Reactor using a dispatcher with an adaptive wait strategy"
+		def r = Reactors.reactor().dispatcher(dispatcher).get()
+		def latch = new CountDownLatch(1)
+		r.on($("test"), { Event<String> ev -> latch.countDown() } as Consumer<Event<?>>)
+
+		when: "an event is notified after the dispatcher has backed off to blocking"
+		r.notify("test", Event.wrap("warm up"))
+		Thread.sleep(50)
+		r.notify("test", Event.wrap("Hello World!"))
+
+		then: "the event is dispatched"
+		latch.await(1, TimeUnit.SECONDS)
+
+		cleanup:
+		dispatcher.shutdown()
+
+		where:
+		dispatcher << [
+				new RingBufferDispatcher("adaptive", 1024, ProducerType.MULTI, new AdaptiveWaitStrategy()),
+				new BlockingQueueDispatcher("adaptive", 128, IdleStrategies.adaptive()),
+				new MpscEventLoopDispatcher("adaptive", 128, IdleStrategies.adaptive())
+		]
+
+	}
+
+	def "WorkStealingDispatcher handles recursive fan-out"() {
+
+		given: "a Reactor with a WorkStealingDispatcher"
+		def dispatcher = new WorkStealingDispatcher("fanout", 4)
+		def r = Reactors.reactor().dispatcher(dispatcher).get()
+		def latch = new CountDownLatch(127)
+		def threads = Collections.synchronizedSet([] as Set)
+		r.on($("fanout"), { Event<Integer> ev ->
+			threads << Thread.currentThread().name
+			if (ev.data < 6) {
+				2.times { r.notify("fanout", Event.wrap(ev.data + 1)) }
+			}
+			latch.countDown()
+		} as Consumer<Event<Integer>>)
+
+		when: "an event fans out into further events"
+		r.notify("fanout", Event.wrap(0))
+
+		then: "all of the events are handled by the pool's threads"
+		latch.await(5, TimeUnit.SECONDS)
+		threads.every { it.startsWith("fanout-workstealing-") }
+
+		cleanup:
+		dispatcher.awaitAndShutdown(5, TimeUnit.SECONDS)
+
+	}
+
+	def "VirtualThreadDispatcher limits the number of tasks running at once"() {
+
+		given: "a thread-per-task dispatcher that runs at most 4 tasks at once"
+		def dispatcher = new VirtualThreadDispatcher(new NamedDaemonThreadFactory("blocking"), 4)
+		def r = Reactors.reactor().dispatcher(dispatcher).get()
+		def running = new AtomicInteger()
+		def maxRunning = new AtomicInteger()
+		def latch = new CountDownLatch(20)
+		r.on($("block"), { Event<Integer> ev ->
+			def n = running.incrementAndGet()
+			while (n > maxRunning.get() && !maxRunning.compareAndSet(maxRunning.get(), n)) {
+			}
+			Thread.sleep(20)
+			running.decrementAndGet()
+			latch.countDown()
+		} as Consumer<Event<Integer>>)
+
+		when: "more blocking tasks are dispatched than may run at once"
+		20.times { r.notify("block", Event.wrap(it)) }
+
+		then: "they all complete without exceeding the limit"
+		latch.await(5, TimeUnit.SECONDS)
+		maxRunning.get() <= 4
+		dispatcher.awaitAndShutdown(5, TimeUnit.SECONDS)
+		dispatcher.activeCount == 0
+
+	}
+
+	def "VirtualThreadDispatcher queues tasks over the limit instead of blocking the caller"() {
+
+		given: "a thread-per-task dispatcher that runs at most 2 tasks at once, both of which are busy"
+		def dispatcher = new VirtualThreadDispatcher(new NamedDaemonThreadFactory("blocking"), 2)
+		def r = Reactors.reactor().dispatcher(dispatcher).get()
+		def gate = new CountDownLatch(1)
+		def latch = new CountDownLatch(10)
+		r.on($("block"), { Event<Integer> ev ->
+			gate.await(5, TimeUnit.SECONDS)
+			latch.countDown()
+		} as Consumer<Event<Integer>>)
+
+		when: "more tasks are dispatched than may run at once"
+		10.times { r.notify("block", Event.wrap(it)) }
+
+		then: "the caller is not blocked and the extra tasks are queued"
+		dispatcher.activeCount == 2
+		dispatcher.backlog == 8
+
+		when: "the running tasks complete"
+		gate.countDown()
+
+		then: "the queued tasks are run"
+		latch.await(5, TimeUnit.SECONDS)
+		dispatcher.awaitAndShutdown(5, TimeUnit.SECONDS)
+		dispatcher.activeCount == 0
+		dispatcher.backlog == 0
+
+	}
+
+	def "VirtualThreadDispatcher starts queued tasks in order and drops them when halted"() {
+
+		given: "a thread-per-task dispatcher that runs one task at a time"
+		def dispatcher = new VirtualThreadDispatcher(new NamedDaemonThreadFactory("blocking"), 1)
+		def r = Reactors.reactor().dispatcher(dispatcher).get()
+		def handled = Collections.synchronizedList([])
+		def latch = new CountDownLatch(500)
+		r.on($("task"), { Event<Integer> ev ->
+			handled << ev.data
+			latch.countDown()
+		} as Consumer<Event<Integer>>)
+
+		when: "tasks are dispatched while earlier ones complete"
+		500.times { r.notify("task", Event.wrap(it)) }
+
+		then: "they are run in the order they were dispatched"
+		latch.await(5, TimeUnit.SECONDS)
+		handled == (0..<500).toList()
+
+		when: "the dispatcher is halted with tasks queued behind a busy one"
+		def gate = new CountDownLatch(1)
+		def ran = new AtomicInteger()
+		r.on($("block"), { Event<Integer> ev ->
+			ran.incrementAndGet()
+			gate.await(5, TimeUnit.SECONDS)
+		} as Consumer<Event<Integer>>)
+		5.times { r.notify("block", Event.wrap(it)) }
+		dispatcher.halt()
+		gate.countDown()
+		Thread.sleep(100)
+
+		then: "the queued tasks are dropped"
+		dispatcher.backlog == 0
+		ran.get() == 1
+
+	}
+
+	@Requires({ VirtualThreadDispatcher.available })
+	def "VirtualThreadDispatcher runs tasks on virtual threads"() {
+
+		given: "a virtual thread dispatcher"
+		def dispatcher = new VirtualThreadDispatcher("virtual", 16)
+		def r = Reactors.reactor().dispatcher(dispatcher).get()
+		def latch = new CountDownLatch(1)
+		def virtual = false
+		r.on($("test"), { Event<String> ev ->
+			virtual = Thread.currentThread().isVirtual()
+			latch.countDown()
+		} as Consumer<Event<String>>)
+
+		when: "an event is notified"
+		r.notify("test", Event.wrap("Hello World!"))
+
+		then: "it was handled on a virtual thread"
+		latch.await(5, TimeUnit.SECONDS)
+		virtual
+
+	}
+
+	@IgnoreIf({ VirtualThreadDispatcher.available })
+	def "A blocking dispatcher falls back to a thread pool without virtual threads"() {
+
+		when: "an Environment with a blocking dispatcher is created"
+		System.setProperty("reactor.dispatchers.io.type", "blocking")
+		def env = new Environment()
+		System.clearProperty("reactor.dispatchers.io.type")
+
+		then: "it uses a thread pool executor"
+		env.getDispatcher("io") instanceof ThreadPoolExecutorDispatcher
+
+		cleanup:
+		env?.shutdown()
+
+	}
+
+	/**
+	 * Keep the given Reactor's event loop busy until the returned latch is counted down. Returns once the event loop is
+	 * busy, so that events notified afterwards are sure to queue up behind it.
+	 */
+	def blockEventLoop(Reactor r) {
+		def gate = new CountDownLatch(1)
+		def busy = new CountDownLatch(1)
+		r.on($("gate"), { Event<String> ev ->
+			busy.countDown()
+			gate.await(5, TimeUnit.SECONDS)
+		} as Consumer<Event<?>>)
+		r.notify("gate", Event.wrap("wait"))
+		assert busy.await(5, TimeUnit.SECONDS)
+		gate
+	}
+
 }
@@ -3,6 +3,8 @@ package reactor.event
 import reactor.event.Event.Headers
 import spock.lang.Specification
 
+import java.util.concurrent.TimeUnit
+
 class HeadersSpec extends Specification {
 
 	def 'Header names are case-insensitive'() {
@@ -145,4 +147,58 @@ class HeadersSpec extends Specification {
 		!headers.contains('b')
 	}
 
+	def 'Setting a header using a differently cased name replaces it'() {
+		given: 'A Headers instance containing a header'
+		Headers headers = new Headers()
+		headers.set('Content-Type', 'text/plain')
+
+		when: 'The header is replaced using a differently cased name'
+		headers.set('content-type', 'application/json')
+
+		then: 'There is still a single header with the new value'
+		'application/json' == headers.get('CONTENT-TYPE')
+		headers.asMap().size() == 1
+	}
+
+	def 'Copies of Headers are isolated from each other'() {
+		given: 'A Headers instance and a copy of it'
+		Headers headers = new Headers()
+		headers.set('a', 'alpha')
+		Headers copy = headers.copy()
+
+		when: 'The copy is modified'
+		copy.set('a', 'aardvark')
+		copy.set('b', 'bravo')
+
+		then: 'The original is unchanged'
+		'alpha' == headers.get('a')
+		!headers.contains('b')
+		'aardvark' == copy.get('a')
+	}
+
+	def 'Copies of an Event do not share header modifications'() {
+		given: 'An Event with a header and a copy of it'
+		Event<String> event = Event.wrap('Hello World!')
+		event.headers.set('a', 'alpha')
+		Event<String> copy = event.copy()
+
+		when: 'The copy\'s headers are modified'
+		copy.headers.set('a', 'aardvark')
+
+		then: 'The original event\'s headers are unchanged'
+		'alpha' == event.headers.get('a')
+		'aardvark' == copy.headers.get('a')
+	}
+
+	def 'A short time to live expires an Event on time'() {
+		given: 'An Event with a time to live shorter than a timer tick'
+		def event = Event.wrap('test').setTimeToLive(5, TimeUnit.MILLISECONDS)
+
+		when: 'The time to live has passed'
+		Thread.sleep(20)
+
+		then: 'The Event has expired'
+		event.expired
+	}
+
 }
@@ -0,0 +1,63 @@
+/*
+ * Copyright (c) 2011-2013 GoPivotal, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package reactor.event.dispatch
+
+import spock.lang.Specification
+
+import java.util.concurrent.TimeUnit
+
+import static reactor.event.dispatch.PhasedBackoff.Phase.*
+
+class PhasedBackoffSpec extends Specification {
+
+	def "Waiting threads spin, then yield, then park"() {
+		given: "a phased backoff"
+		def backoff = new PhasedBackoff()
+
+		expect: "the phase depends on how long the thread has waited"
+		backoff.phase(0) == SPIN
+		backoff.phase(backoff.spinNanos) == YIELD
+		backoff.phase(backoff.yieldNanos) == PARK
+	}
+
+	def "Short waits stretch the spin phase"() {
+		given: "a phased backoff"
+		def backoff = new PhasedBackoff()
+
+		when: "waits are consistently short"
+		100.times { backoff.observe(TimeUnit.MICROSECONDS.toNanos(10)) }
+
+		then: "the thread spins for a little longer than it usually waits"
+		backoff.spinNanos >= TimeUnit.MICROSECONDS.toNanos(10)
+		backoff.spinNanos <= PhasedBackoff.MAX_SPIN_NANOS
+		backoff.phase(TimeUnit.MICROSECONDS.toNanos(15)) == SPIN
+	}
+
+	def "Long waits make the thread park almost straight away"() {
+		given: "a phased backoff"
+		def backoff = new PhasedBackoff()
+
+		when: "waits are consistently long"
+		100.times { backoff.observe(TimeUnit.MILLISECONDS.toNanos(10)) }
+
+		then: "the spin and yield phases are as short as they can be"
+		backoff.spinNanos == PhasedBackoff.MIN_SPIN_NANOS
+		backoff.yieldNanos == PhasedBackoff.MIN_SPIN_NANOS + PhasedBackoff.MIN_YIELD_NANOS
+		backoff.phase(TimeUnit.MICROSECONDS.toNanos(20)) == PARK
+	}
+
+}
@@ -0,0 +1,140 @@
+/*
+ * Copyright (c) 2011-2013 GoPivotal, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package reactor.event.support
+
+import reactor.core.Reactor
+import reactor.core.spec.Reactors
+import reactor.event.Event
+import reactor.event.dispatch.BlockingQueueDispatcher
+import reactor.event.dispatch.SynchronousDispatcher
+import reactor.event.dispatch.ThreadPoolExecutorDispatcher
+import reactor.event.routing.ArgumentConvertingConsumerInvoker
+import reactor.event.routing.ConsumerFilteringEventRouter
+import reactor.filter.PassThroughFilter
+import reactor.function.Consumer
+import spock.lang.Specification
+
+import java.util.concurrent.CountDownLatch
+import java.util.concurrent.RejectedExecutionException
+import java.util.concurrent.TimeUnit
+
+import static reactor.event.selector.Selectors.$
+
+class PooledEventSpec extends Specification {
+
+	def "A released event is cleared and reused"() {
+		given: "an event pool"
+		def pool = new EventPool(4)
+
+		when: "an event is allocated"
+		def ev = pool.allocate("Hello World!", "reply.to")
+		ev.headers.set("x-test", "test")
+
+		then: "it carries the data"
+		ev.data == "Hello World!"
+		ev.replyTo == "reply.to"
+		ev.refCount() == 1
+
+		when: "it is released"
+		def released = ev.release()
+
+		then: "it goes back to the pool, cleared"
+		released
+		ev.data == null
+		ev.replyTo == null
+		ev.headers.get("x-test") == null
+
+		when: "another event is allocated"
+		def ev2 = pool.allocate("Goodbye World!")
+
+		then: "the same instance is reused"
+		ev2.is(ev)
+		pool.hitRate == 0.5d
+	}
+
+	def "An event cannot be released twice"() {
+		given: "a released event"
+		def ev = new EventPool(4).allocate("Hello World!")
+		ev.release()
+
+		when: "it is released again"
+		ev.release()
+
+		then: "it fails"
+		thrown(IllegalStateException)
+	}
+
+	def "A dispatcher keeps a pooled event until it has been routed"() {
+		given: "a Reactor with an asynchronous dispatcher"
+		def dispatcher = new BlockingQueueDispatcher("pooled", 128)
+		def r = Reactors.reactor().dispatcher(dispatcher).get()
+		def pool = new EventPool(4)
+		def latch = new CountDownLatch(1)
+		def data = null
+		r.on($("test"), { Event<String> ev ->
+			data = ev.data
+			latch.countDown()
+		} as Consumer<Event<String>>)
+
+		when: "a pooled event is notified and released straight away by the producer"
+		def ev = pool.allocate("Hello World!")
+		r.notify("test", ev)
+		ev.release()
+
+		then: "the consumer still sees the data"
+		latch.await(5, TimeUnit.SECONDS)
+		data == "Hello World!"
+
+		cleanup:
+		dispatcher.shutdown()
+	}
+
+	def "A dispatcher that fails to submit an event gives its reference back"() {
+		given: "a dispatcher whose executor rejects tasks"
+		def dispatcher = new ThreadPoolExecutorDispatcher(1, 16)
+		dispatcher.@executor.shutdownNow()
+		def pool = new EventPool(4)
+
+		when: "a pooled event is dispatched"
+		def ev = pool.allocate("Hello World!")
+		dispatcher.dispatch(ev, new ConsumerFilteringEventRouter(new PassThroughFilter(), new ArgumentConvertingConsumerInvoker(null)),
+				{} as Consumer, {} as Consumer)
+
+		then: "the submission fails and the dispatcher's reference is released"
+		thrown(RejectedExecutionException)
+		ev.refCount() == 1
+		ev.release()
+
+		cleanup:
+		dispatcher.halt()
+	}
+
+	def "Scheduled consumers are invoked using pooled events"() {
+		given: "a synchronous Reactor"
+		def r = new Reactor(new SynchronousDispatcher())
+		def values = []
+		def consumer = { values << it } as Consumer<String>
+
+		when: "consumers are scheduled, including from within a scheduled consumer"
+		Reactors.schedule(consumer, "first", r)
+		Reactors.schedule({ Reactors.schedule(consumer, it, r) } as Consumer<String>, "second", r)
+
+		then: "they have all been invoked"
+		values == ["first", "second"]
+	}
+
+}
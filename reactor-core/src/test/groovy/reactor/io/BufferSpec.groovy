@@ -381,4 +381,73 @@ class BufferSpec extends Specification {
 		copy.asString() == "Hello World!"
 	}
 
+	def "A Buffer can be a read-only view of a ByteBuffer"() {
+		given: "A ByteBuffer with a record in the middle of it"
+		def bb = ByteBuffer.allocate(32)
+		bb.position(4)
+		bb.put("Hello World!".bytes)
+		bb.flip().position(4)
+
+		when: "a read-only Buffer is created over the record"
+		def buffer = Buffer.readOnly(bb)
+		bb.put(4, (byte)'J')
+
+		then: "the Buffer shares the record's content but cannot change it"
+		buffer.readOnly
+		!buffer.dynamic
+		buffer.asString() == "Jello World!"
+
+		when: "the Buffer is appended to"
+		buffer.append("!")
+
+		then: "it is rejected"
+		thrown(java.nio.ReadOnlyBufferException)
+	}
+
+	def "A Buffer can be read as an InputStream"() {
+		given: "A Buffer that has been partly read"
+		def buffer = Buffer.wrap([1, 2, 3, 0xff, 5] as byte[])
+		buffer.read()
+
+		when: "the rest is read as an InputStream"
+		def input = buffer.inputStream()
+		def first = input.read()
+		def bytes = new byte[8]
+		def len = input.read(bytes, 0, 8)
+
+		then: "the bytes are read in order, up to the end of the Buffer"
+		first == 2
+		len == 3
+		bytes[0..2] == [3, -1, 5] as byte[]
+		input.read() == -1
+		buffer.remaining() == 0
+	}
+
+	def "A Buffer reads and writes variable-length integers"() {
+		given: "A Buffer"
+		def buffer = new Buffer()
+
+		when: "variable-length integers are appended and read back"
+		[0L, 127L, 128L, 300L, Long.MAX_VALUE, -1L].each { buffer.appendVarLong(it) }
+		def size = buffer.position()
+		buffer.flip()
+
+		then: "they take one byte per 7 significant bits"
+		size == 1 + 1 + 2 + 2 + 9 + 10
+		(1..6).collect { buffer.readVarLong() } == [0L, 127L, 128L, 300L, Long.MAX_VALUE, -1L]
+	}
+
+	def "A dynamic Buffer grows to fit content larger than its increment"() {
+		given: "A nearly full dynamic Buffer"
+		def buffer = new Buffer()
+		buffer.append(new byte[Buffer.SMALL_BUFFER_SIZE - 2])
+
+		when: "more than the remaining space, and more than the increment, is appended"
+		buffer.append(42L)
+		buffer.append(new byte[Buffer.SMALL_BUFFER_SIZE * 2])
+
+		then: "the Buffer grew to fit it"
+		buffer.position() == Buffer.SMALL_BUFFER_SIZE * 3 + 6
+	}
+
 }
@@ -0,0 +1,175 @@
+/*
+ * Copyright (c) 2011-2013 GoPivotal, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package reactor.io
+
+import reactor.event.Event
+import spock.lang.Specification
+
+class CodecRegistrySpec extends Specification {
+
+	def "A CodecRegistry writes and reads the built-in types"() {
+		given: "a CodecRegistry"
+		def registry = new CodecRegistry()
+		def buffer = new Buffer()
+
+		when: "objects of the built-in types are written and read back"
+		registry.write(value, buffer)
+		buffer.flip()
+		def read = registry.read(buffer)
+
+		then: "they are equal to the originals"
+		read == value
+		buffer.remaining() == 0
+
+		where:
+		value << [null, true, (byte)7, (short)-3, 'x' as char, -1, Integer.MAX_VALUE, Long.MIN_VALUE, 1.5f, 2.25d,
+		          "Hello World! é", UUID.randomUUID(), [1, "two", [3L]], ["a", "b"] as Set, [a: 1, b: [c: null]]]
+	}
+
+	def "A CodecRegistry reads collections and Events back as the class they were written as"() {
+		given: "a CodecRegistry"
+		def registry = new CodecRegistry()
+		def buffer = new Buffer()
+
+		when: "collections and Events of various classes are written and read back"
+		registry.write(value, buffer)
+		buffer.flip()
+		def read = registry.read(buffer)
+
+		then: "they are of the same class and equal to the originals"
+		read.getClass() == value.getClass()
+		read == value
+
+		where:
+		value << [new ArrayList([1, 2]), new LinkedList([1, 2]), new HashSet([1, 2]), new LinkedHashSet([1, 2]),
+		          new HashMap([a: 1]), new LinkedHashMap([a: 1]), new TreeMap([b: 2, a: 1]), new TreeSet([2, 1]),
+		          new Stack(), new java.util.concurrent.CopyOnWriteArrayList([1])]
+	}
+
+	def "Small values take few bytes"() {
+		given: "a CodecRegistry"
+		def registry = new CodecRegistry()
+		def buffer = new Buffer()
+
+		when: "a small int is written"
+		registry.write(-2, buffer)
+
+		then: "it takes a byte for its type and a byte for its value"
+		buffer.position() == 2
+	}
+
+	def "A CodecRegistry writes Events without Java serialization"() {
+		given: "a CodecRegistry and an Event"
+		def registry = new CodecRegistry()
+		def ev = Event.wrap("Hello World!", "reply.to")
+		ev.headers.set("x-test", "test")
+		def id = ev.id
+		def encoded = registry.encoder().apply(ev)
+		def javaSerialized = new ByteArrayOutputStream()
+		new ObjectOutputStream(javaSerialized).writeObject(ev)
+
+		when: "the Event is read back"
+		Event<String> read = registry.decoder().apply(encoded)
+
+		then: "it has the same id, headers, reply-to key and data"
+		read.id == id
+		read.headers.get("x-test") == "test"
+		read.replyTo == "reply.to"
+		read.data == "Hello World!"
+		encoded.remaining() * 4 < javaSerialized.size()
+	}
+
+	def "A CodecRegistry uses registered Serializers, and Java serialization otherwise"() {
+		given: "a CodecRegistry with a Serializer for a type"
+		def registry = new CodecRegistry()
+		registry.register(CodecRegistry.FIRST_USER_ID, Point, new Serializer<Point>() {
+			void write(Point p, Buffer out, CodecRegistry r) {
+				out.appendVarLong(p.x).appendVarLong(p.y)
+			}
+
+			Point read(Buffer input, CodecRegistry r) {
+				new Point(x: input.readVarLong(), y: input.readVarLong())
+			}
+		})
+		def buffer = new Buffer()
+
+		when: "registered and unregistered objects are written and read back"
+		registry.write([new Point(x: 1, y: 2), new java.util.Date(0)], buffer)
+		buffer.flip()
+		def read = registry.read(buffer)
+
+		then: "they are equal to the originals"
+		read[0].x == 1
+		read[0].y == 2
+		read[1] == new java.util.Date(0)
+
+		when: "an id is registered twice"
+		registry.register(CodecRegistry.FIRST_USER_ID, String, new Serializer<String>() {
+			void write(String s, Buffer out, CodecRegistry r) {}
+
+			String read(Buffer input, CodecRegistry r) { null }
+		})
+
+		then: "it is rejected"
+		thrown(IllegalArgumentException)
+	}
+
+	def "A CodecRegistry can be kept from using Java serialization"() {
+		given: "a CodecRegistry without Java serialization, and a Java-serialized Date"
+		def registry = new CodecRegistry(false)
+		def buffer = new Buffer()
+		new CodecRegistry().write(new java.util.Date(0), buffer)
+		buffer.flip()
+
+		when: "an unregistered Serializable object is written"
+		registry.write(new java.util.Date(0), new Buffer())
+
+		then: "it is rejected"
+		thrown(IllegalArgumentException)
+
+		when: "the Java-serialized object is read"
+		registry.read(buffer)
+
+		then: "its id is rejected"
+		thrown(IllegalStateException)
+	}
+
+	def "A CodecRegistry rejects lengths longer than the data left before allocating"() {
+		given: "a CodecRegistry and a buffer claiming a huge length"
+		def registry = new CodecRegistry()
+		def buffer = new Buffer()
+		buffer.appendVarLong(id).appendVarLong(Integer.MAX_VALUE).append((byte)1)
+		buffer.flip()
+
+		when: "the object is read"
+		registry.read(buffer)
+
+		then: "the length is rejected"
+		def e = thrown(IllegalStateException)
+		e.message.startsWith("Length")
+
+		where:
+		id << [9, 10, 12, 16, 31]
+	}
+
+}
+
+class Point {
+	long x
+	long y
+}
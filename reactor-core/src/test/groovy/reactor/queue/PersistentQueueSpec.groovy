@@ -46,4 +46,118 @@ class PersistentQueueSpec extends Specification {
 
   }
 
+  def "PersistentQueue is read by independent tailers"() {
+
+    given:
+      "a PersistentQueue with a MappedFileQueuePersistor"
+      def path = new File(System.getProperty("java.io.tmpdir"), "persistent-queue-tailers").path
+      def q = new PersistentQueue<String>(new MappedFileQueuePersistor(path, null, null, 256, true, true))
+      q.addAll((1..10).collect { "test $it".toString() })
+
+    when:
+      "two tailers read the queue at their own pace"
+      def indexer = q.tailer("indexer")
+      def replicator = q.tailer("replicator")
+      def indexed = (1..6).collect { indexer.poll() }
+      indexer.commit()
+      def replicated = [replicator.poll(), replicator.poll()]
+
+    then:
+      "each tailer saw the items from the start of the queue, without removing them"
+      indexed == (1..6).collect { "test $it".toString() }
+      replicated == ["test 1", "test 2"]
+      q.tailer("indexer").is(indexer)
+      q.size() == 10
+
+    when:
+      "the queue is reopened"
+      q = new PersistentQueue<String>(new MappedFileQueuePersistor(path, null, null, 256, false, true))
+      indexer = q.tailer("indexer")
+      replicator = q.tailer("replicator")
+
+    then:
+      "the tailers carry on from their committed positions"
+      indexer.position == 6
+      indexer.poll() == "test 7"
+      replicator.poll() == "test 1"
+
+    when:
+      "items the replicator has not read are removed from the queue"
+      (1..4).each { q.poll() }
+
+    then:
+      "the replicator skips ahead to the oldest item left"
+      replicator.poll() == "test 5"
+      replicator.drain({} as reactor.function.Consumer, 10) == 5
+      null == replicator.poll()
+
+  }
+
+  def "PersistentQueueSpec creates a PersistentQueue with a MappedFileQueuePersistor"() {
+
+    given:
+      "a directory for the queue"
+      def dir = new File(System.getProperty("java.io.tmpdir"), "persistent-queue-spec-mapped")
+      dir.deleteDir()
+
+    when:
+      "a queue is created by the spec and items are offered"
+      def q = new reactor.queue.spec.PersistentQueueSpec<String>().mappedFile(dir.path).get()
+      q.addAll(["test 1", "test 2"])
+
+    then:
+      "the items are persisted in the directory"
+      q.poll() == "test 1"
+      q.size() == 1
+      dir.listFiles().any { it.name.endsWith(".seg") }
+
+    when:
+      "another type of queue is asked for"
+      new reactor.queue.spec.PersistentQueueSpec<String>().mappedFile(dir.path).inMemory()
+
+    then:
+      "it is rejected"
+      thrown(IllegalArgumentException)
+
+    cleanup:
+      dir.deleteDir()
+
+  }
+
+  def "A tailer reads every item offered by concurrent producers"() {
+
+    given:
+      "a PersistentQueue with an InMemoryQueuePersistor and a pool of producers"
+      def q = new PersistentQueue<String>(new InMemoryQueuePersistor<String>())
+      def tailer = q.tailer("tailer")
+      def pool = java.util.concurrent.Executors.newFixedThreadPool(4)
+
+    when:
+      "the tailer reads the queue while items are offered from many threads"
+      def futures = (1..4).collect { t ->
+        pool.submit({
+          (1..2500).each { q.offer("$t-$it".toString()) }
+        } as Runnable)
+      }
+      def tailed = []
+      def deadline = System.currentTimeMillis() + 10000
+      while (tailed.size() < 10000 && System.currentTimeMillis() < deadline) {
+        def item = tailer.poll()
+        if (null != item) {
+          tailed << item
+        }
+      }
+      futures*.get()
+
+    then:
+      "no item was skipped or read twice"
+      tailed.size() == 10000
+      tailed.toSet() == (1..4).collectMany { t -> (1..2500).collect { "$t-$it".toString() } }.toSet()
+      null == tailer.poll()
+
+    cleanup:
+      pool.shutdown()
+
+  }
+
 }
@@ -82,4 +82,384 @@ class QueuePersistorSpec extends Specification {
 
   }
 
+  def "MappedFileQueuePersistor persists objects across segments"() {
+
+    given:
+      "a MappedFileQueuePersistor with small segments"
+      def path = new File(System.getProperty("java.io.tmpdir"), "mapped-queue-persistor").path
+      def persistor = new MappedFileQueuePersistor(path, null, null, 256, true, true)
+
+    when:
+      "more objects are persisted than a segment holds"
+      def ids = (1..20).collect { persistor.offer().apply("Hello World #$it".toString()) }
+
+    then:
+      "each object can be read by its id"
+      ids == (0L..19L).toList()
+      persistor.get().apply(7L) == "Hello World #8"
+      persistor.size() == 20
+      persistor.lastId() == 19
+      new File(path).listFiles().findAll { it.name.endsWith(".seg") }.size() > 1
+
+    when:
+      "objects are removed and the persistor is reopened"
+      def removed = [persistor.remove().get(), persistor.remove().get()]
+      persistor.close()
+      persistor = new MappedFileQueuePersistor(path, null, null, 256, false, true)
+      persistor.offer().apply("Goodbye World!")
+
+    then:
+      "the queue carries on where it was left"
+      removed == ["Hello World #1", "Hello World #2"]
+      persistor.size() == 19
+      null == persistor.get().apply(0L)
+      persistor.iterator().collect() == (3..20).collect { "Hello World #$it".toString() } + "Goodbye World!"
+      persistor.remove().get() == "Hello World #3"
+
+    cleanup:
+      persistor.close()
+
+  }
+
+  def "MappedFileQueuePersistor persists batches in one pass"() {
+
+    given:
+      "a MappedFileQueuePersistor that forces every batch"
+      def path = new File(System.getProperty("java.io.tmpdir"), "mapped-queue-persistor-batch").path
+      def persistor = new MappedFileQueuePersistor(path, null, null, 256, true, true)
+      persistor.forcePolicy = MappedFileQueuePersistor.ForcePolicy.BATCH
+      def queue = new PersistentQueue<String>(persistor)
+
+    when:
+      "a batch of objects is persisted"
+      def lastId = persistor.offerAll().apply((1..10).collect { "Hello World #$it".toString() })
+      queue.addAll(["Goodbye", "World!"])
+
+    then:
+      "the objects were given consecutive ids"
+      lastId == 9
+      persistor.get().apply(9L) == "Hello World #10"
+      queue.size() == 12
+      queue.poll() == "Hello World #1"
+      persistor.get().apply(11L) == "World!"
+
+    cleanup:
+      persistor.close()
+
+  }
+
+  def "GroupCommitQueuePersistor batches offers from concurrent producers"() {
+
+    given:
+      "a GroupCommitQueuePersistor whose commits are held up until every producer is offering"
+      def started = new java.util.concurrent.CountDownLatch(8)
+      def delegate = new InMemoryQueuePersistor<String>() {
+        reactor.function.Function<Collection<String>, Long> offerAll() {
+          def offerAll = super.offerAll()
+          return { Collection<String> items ->
+            started.await(5, java.util.concurrent.TimeUnit.SECONDS)
+            // Take long enough for the other producers to queue behind each commit
+            Thread.sleep(1)
+            offerAll.apply(items)
+          } as reactor.function.Function<Collection<String>, Long>
+        }
+      }
+      def persistor = new GroupCommitQueuePersistor(delegate)
+      def pool = java.util.concurrent.Executors.newFixedThreadPool(8)
+
+    when:
+      "objects are offered from many threads"
+      def futures = (1..8).collect { t ->
+        pool.submit({
+          started.countDown()
+          (1..250).collect { persistor.offer().apply("$t-$it".toString()) }
+        } as java.util.concurrent.Callable)
+      }
+      def ids = futures.collectMany { it.get() }
+
+    then:
+      "every object was persisted under its own id, in batches of several objects"
+      ids.sort() == (0L..1999L).toList()
+      persistor.size() == 2000
+      persistor.get().apply(ids[0]) != null
+      persistor.commitCount <= 500
+
+    cleanup:
+      pool.shutdown()
+      persistor.close()
+
+  }
+
+  @spock.lang.Timeout(10)
+  def "GroupCommitQueuePersistor writes batches between group commits"() {
+
+    given:
+      "a GroupCommitQueuePersistor"
+      def persistor = new GroupCommitQueuePersistor(new InMemoryQueuePersistor())
+      def pool = java.util.concurrent.Executors.newFixedThreadPool(5)
+
+    when:
+      "objects are offered from many threads while another thread offers batches"
+      def futures = (1..4).collect { t ->
+        pool.submit({
+          (1..250).collect { persistor.offer().apply("$t-$it".toString()) }
+        } as java.util.concurrent.Callable)
+      }
+      def batches = pool.submit({
+        (1..50).collectMany { b ->
+          def last = persistor.offerAll().apply((1..5).collect { "batch-$b-$it".toString() })
+          ((last - 4)..last).toList()
+        }
+      } as java.util.concurrent.Callable)
+      def ids = futures.collectMany { it.get() } + batches.get()
+
+    then:
+      "every object was persisted under its own id"
+      ids.sort() == (0L..1249L).toList()
+      persistor.size() == 1250
+
+    cleanup:
+      pool.shutdown()
+      persistor.close()
+
+  }
+
+  def "GroupCommitQueuePersistor only fails the producers whose items can't be persisted"() {
+
+    given:
+      "a GroupCommitQueuePersistor over a persistor with small segments"
+      def path = new File(System.getProperty("java.io.tmpdir"), "group-commit-queue-persistor").path
+      def persistor = new GroupCommitQueuePersistor(new MappedFileQueuePersistor(path, null, null, 256, true, true))
+      def pool = java.util.concurrent.Executors.newFixedThreadPool(8)
+
+    when:
+      "objects are offered from many threads, one of which is too large to persist"
+      def futures = (1..8).collect { t ->
+        pool.submit({
+          (1..50).collect {
+            def item = (t == 4 && it == 25 ? "x" * 1024 : "$t-$it".toString())
+            try {
+              persistor.offer().apply(item)
+            } catch(IllegalArgumentException e) {
+              e
+            }
+          }
+        } as java.util.concurrent.Callable)
+      }
+      def results = futures.collectMany { it.get() }
+
+    then:
+      "only the large object failed"
+      results.findAll { it instanceof Exception }.size() == 1
+      results.findAll { it instanceof Long }.sort() == (0L..398L).toList()
+      persistor.size() == 399
+
+    cleanup:
+      pool.shutdown()
+      persistor.close()
+
+  }
+
+  def "MappedFileQueuePersistor deletes the segments it no longer keeps"() {
+
+    given:
+      "a MappedFileQueuePersistor with small segments and two tailers"
+      def path = new File(System.getProperty("java.io.tmpdir"), "mapped-queue-persistor-retain").path
+      def persistor = new MappedFileQueuePersistor(path, null, null, 256, true, true)
+      def queue = new PersistentQueue<String>(persistor)
+      def tailer1 = queue.tailer("tailer1")
+      def tailer2 = queue.tailer("tailer2")
+      queue.addAll((1..40).collect { "Hello World #$it".toString() })
+      def segments = { new File(path).listFiles().findAll { it.name.endsWith(".seg") }.size() }
+      def before = segments()
+
+    when:
+      "items are removed"
+      (1..15).each { queue.poll() }
+
+    then:
+      "only the segments holding nothing but removed items are deleted"
+      persistor.retain() > 0
+      segments() < before
+      persistor.firstId() == 15
+      persistor.get().apply(15L) == "Hello World #16"
+
+    when:
+      "segments are only kept until they have been tailed"
+      persistor.retainUntilTailed = true
+      tailer1.drain({} as reactor.function.Consumer, 30)
+      tailer1.commit()
+      tailer2.drain({} as reactor.function.Consumer, 10)
+      tailer2.commit()
+      persistor.retain()
+
+    then:
+      "the segments both tailers have read past are deleted"
+      tailer2.committed == 25
+      persistor.firstId() > 15
+      persistor.firstId() <= 25
+      tailer2.poll() == "Hello World #26"
+
+    when:
+      "segments may only take up so much space"
+      persistor.retainUntilTailed = false
+      persistor.maxSize = 256
+      persistor.retain()
+
+    then:
+      "all but the segment being written to are deleted, along with the items in them"
+      segments() == 1
+      persistor.firstId() > 25
+      tailer2.poll() == persistor.get().apply(persistor.firstId())
+
+    when:
+      "segments may only be so old"
+      persistor.maxSize = 0
+      persistor.setMaxAge(1, java.util.concurrent.TimeUnit.MILLISECONDS)
+      queue.addAll((41..60).collect { "Hello World #$it".toString() })
+      Thread.sleep(10)
+      persistor.retain()
+
+    then:
+      "only the segment being written to is left"
+      segments() == 1
+      queue.size() == 60 - persistor.firstId()
+      queue.peek() == persistor.get().apply(persistor.firstId())
+
+    cleanup:
+      persistor.close()
+
+  }
+
+  def "MappedFileQueuePersistor doesn't lose items removed while segments are being deleted"() {
+
+    given:
+      "a MappedFileQueuePersistor with small segments, deleting the ones read past in the background"
+      def path = new File(System.getProperty("java.io.tmpdir"), "mapped-queue-persistor-retain-poll").path
+      def persistor = new MappedFileQueuePersistor(path, null, null, 256, true, true)
+      def queue = new PersistentQueue<String>(persistor)
+      queue.addAll((1..2000).collect { "Hello World #$it".toString() })
+      def done = false
+      def retainer = Thread.start {
+        while (!done) {
+          persistor.retain()
+        }
+      }
+
+    when:
+      "every item is removed"
+      def polled = []
+      def item
+      while (null != (item = queue.poll())) {
+        polled << item
+      }
+      done = true
+      retainer.join()
+
+    then:
+      "none of them were lost"
+      polled == (1..2000).collect { "Hello World #$it".toString() }
+
+    cleanup:
+      done = true
+      persistor.close()
+
+  }
+
+  def "InMemoryQueuePersistor carries on when a batch doesn't hold as many items as it said"() {
+
+    given:
+      "an InMemoryQueuePersistor and a collection whose size is wrong"
+      def persistor = new InMemoryQueuePersistor<String>()
+      def batch = new AbstractCollection<String>() {
+        Iterator<String> iterator() { ["a", "b"].iterator() }
+
+        int size() { 3 }
+      }
+
+    when:
+      "the batch and another item are offered"
+      def last = persistor.offerAll().apply(batch)
+      def id = persistor.offer().apply("c")
+
+    then:
+      "the items were stored under consecutive ids, and all of them are counted"
+      last == 1
+      id == 2
+      persistor.lastId() == 2
+      persistor.get().apply(0L) == "a"
+
+  }
+
+  def "MappedFileQueuePersistor compacts items by key"() {
+
+    given:
+      "a MappedFileQueuePersistor with small segments and a compaction key"
+      def path = new File(System.getProperty("java.io.tmpdir"), "mapped-queue-persistor-compact").path
+      def persistor = new MappedFileQueuePersistor(path, null, null, 128, true, true)
+      persistor.compactionKey = { String s -> s.split(":")[0] } as reactor.function.Function
+      def queue = new PersistentQueue<String>(persistor)
+      def tailer = queue.tailer("tailer")
+      queue.addAll((1..30).collect { "key${it % 3}:$it".toString() })
+
+    when:
+      "the queue is compacted"
+      def compacted = persistor.compact()
+      def items = persistor.iterator().collect()
+
+    then:
+      "only the latest item for each key is left in the full segments"
+      compacted > 0
+      items.size() == 30 - compacted
+      items.takeRight(3) == ["key1:28", "key2:29", "key0:30"]
+      persistor.size() == 30
+
+    when:
+      "the queue is read by a tailer and by removing items, and reopened"
+      def tailed = []
+      tailer.drain({ tailed << it } as reactor.function.Consumer, 100)
+      def removed = queue.poll()
+      persistor.close()
+      persistor = new MappedFileQueuePersistor(path, null, null, 128, false, true)
+
+    then:
+      "the items compacted away are skipped"
+      tailed == items
+      removed == items[0]
+      persistor.iterator().collect() == items.drop(1)
+
+    cleanup:
+      persistor.close()
+
+  }
+
+  def "MappedFileQueuePersistor reclaims space in the background"() {
+
+    given:
+      "a MappedFileQueuePersistor reclaiming space periodically"
+      def path = new File(System.getProperty("java.io.tmpdir"), "mapped-queue-persistor-reclaim").path
+      def persistor = new MappedFileQueuePersistor(path, null, null, 256, true, true)
+      def timer = new reactor.core.HashWheelTimer(10)
+      persistor.scheduleReclaim(timer, 50, java.util.concurrent.TimeUnit.MILLISECONDS)
+      def segments = { new File(path).listFiles().findAll { it.name.endsWith(".seg") }.size() }
+
+    when:
+      "items are offered and removed"
+      persistor.offerAll().apply((1..40).collect { "Hello World #$it".toString() })
+      (1..40).each { persistor.remove().get() }
+      def start = System.currentTimeMillis()
+      while(segments() > 1 && System.currentTimeMillis() - start < 5000) {
+        Thread.sleep(10)
+      }
+
+    then:
+      "the segments of the removed items are deleted"
+      segments() == 1
+
+    cleanup:
+      timer.cancel()
+      persistor.close()
+
+  }
+
 }
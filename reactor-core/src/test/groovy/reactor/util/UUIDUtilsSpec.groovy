@@ -0,0 +1,50 @@
+/*
+ * Copyright (c) 2011-2013 GoPivotal, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package reactor.util
+
+import spock.lang.Specification
+
+import java.util.concurrent.ConcurrentHashMap
+import java.util.concurrent.CountDownLatch
+import java.util.concurrent.TimeUnit
+
+class UUIDUtilsSpec extends Specification {
+
+	def "UUIDUtils creates unique type-1 UUIDs from many threads"() {
+
+		given: "a set of UUIDs shared between several threads"
+		def threads = 8
+		def perThread = 20000
+		def ids = Collections.newSetFromMap(new ConcurrentHashMap<UUID, Boolean>())
+		def latch = new CountDownLatch(threads)
+
+		when: "UUIDs are created concurrently"
+		threads.times {
+			Thread.start {
+				perThread.times { ids << UUIDUtils.create() }
+				latch.countDown()
+			}
+		}
+		latch.await(30, TimeUnit.SECONDS)
+
+		then: "all of them are distinct, time-based UUIDs"
+		ids.size() == threads * perThread
+		ids.every { it.version() == 1 && it.variant() == 2 }
+
+	}
+
+}
@@ -0,0 +1,142 @@
+/*
+ * Copyright (c) 2011-2013 GoPivotal, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package reactor.cache;
+
+import org.junit.Test;
+import reactor.function.Supplier;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+public class ObjectPoolTests {
+
+	private static final Supplier<Object> OBJECTS = new Supplier<Object>() {
+		@Override
+		public Object get() {
+			return new Object();
+		}
+	};
+
+	@Test
+	public void objectPoolAllocatesImmediatelyWhenExhausted() {
+		ObjectPool<Object> pool = new ObjectPool<Object>(OBJECTS, 100, 100);
+
+		// exhaust pool
+		for (int i = 0; i < 100; i++) {
+			assertThat("Object was allocated", pool.allocate(), is(notNullValue()));
+		}
+
+		long start = System.currentTimeMillis();
+		Object obj = pool.allocate();
+		long end = System.currentTimeMillis();
+
+		assertThat("Object was obtained despite pool exhaustion", obj, is(notNullValue()));
+		assertThat("Pool did not wait for an object to be deallocated", end - start, is(lessThan(100L)));
+		assertThat("Preloaded objects were hits", pool.getHits(), is(100L));
+		assertThat("Allocation from an exhausted pool was a miss", pool.getMisses(), is(1L));
+	}
+
+	@Test
+	public void objectPoolReusesDeallocatedObjects() {
+		ObjectPool<Object> pool = new ObjectPool<Object>(OBJECTS, 0, 16, 0);
+
+		Object obj = pool.allocate();
+		pool.deallocate(obj);
+
+		assertThat("Deallocated object was pooled", pool.size(), is(1));
+		assertThat("Deallocated object was reused", pool.allocate(), is(sameInstance(obj)));
+		assertThat("Hit rate is tracked", pool.getHitRate(), is(0.5d));
+	}
+
+	@Test
+	public void objectPoolDropsObjectsAboveHighWatermark() {
+		ObjectPool<Object> pool = new ObjectPool<Object>(OBJECTS, 0, 4, 2);
+
+		for (int i = 0; i < 10; i++) {
+			pool.deallocate(new Object());
+		}
+
+		assertThat("Shared stack is capped by the high watermark", pool.size(), is(4));
+		assertThat("Objects beyond the thread-local cache and high watermark were dropped", pool.getDrops(), is(4L));
+	}
+
+	@Test
+	public void objectPoolNeverHandsOutAnObjectTwice() throws InterruptedException {
+		final ObjectPool<Object> pool = new ObjectPool<Object>(OBJECTS, 8, 8, 2);
+		final Set<Object> inUse = Collections.synchronizedSet(
+				Collections.newSetFromMap(new IdentityHashMap<Object, Boolean>())
+		);
+		final AtomicBoolean duplicate = new AtomicBoolean();
+		final int threadCount = 4;
+		final CountDownLatch latch = new CountDownLatch(threadCount);
+
+		List<Thread> threads = new ArrayList<Thread>();
+		for (int i = 0; i < threadCount; i++) {
+			threads.add(new Thread() {
+				@Override
+				public void run() {
+					for (int j = 0; j < 100000; j++) {
+						Object obj = pool.allocate();
+						if (!inUse.add(obj)) {
+							duplicate.set(true);
+						}
+						inUse.remove(obj);
+						pool.deallocate(obj);
+					}
+					latch.countDown();
+				}
+			});
+		}
+		for (Thread t : threads) {
+			t.start();
+		}
+
+		assertThat("All threads completed", latch.await(30, TimeUnit.SECONDS), is(true));
+		assertThat("No object was allocated twice", duplicate.get(), is(false));
+	}
+
+	@Test
+	public void objectPoolPrunesTheCachesOfDeadThreads() throws InterruptedException {
+		final ObjectPool<Object> pool = new ObjectPool<Object>(OBJECTS, 0, 100, 4);
+
+		for (int i = 0; i < 10; i++) {
+			Thread t = new Thread() {
+				@Override
+				public void run() {
+					pool.deallocate(pool.allocate());
+					pool.deallocate(pool.allocate());
+				}
+			};
+			t.start();
+			t.join();
+		}
+
+		assertThat("Hits and misses of dead threads were kept", pool.getHits() + pool.getMisses(), is(20L));
+		assertThat("Caches of dead threads were pruned", pool.getLocalCacheCount(), is(0));
+		assertThat("Objects cached by dead threads went back to the shared stack", pool.size(), is(1));
+	}
+
+}
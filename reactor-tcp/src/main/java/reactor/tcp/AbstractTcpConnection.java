@@ -16,6 +16,7 @@
 
 package reactor.tcp;
 
+import reactor.core.Clock;
 import reactor.core.Environment;
 import reactor.core.Reactor;
 import reactor.core.composable.Deferred;
@@ -43,7 +44,7 @@ import reactor.tuple.Tuple2;
  */
 public abstract class AbstractTcpConnection<IN, OUT> implements TcpConnection<IN, OUT> {
 
-	protected final long                     created = System.currentTimeMillis();
+	protected final long                     created = Clock.currentTimeMillis();
 	protected final Tuple2<Selector, Object> read    = Selectors.$();
 
 	protected final Function<Buffer, IN>  decoder;
@@ -74,7 +75,7 @@ public abstract class AbstractTcpConnection<IN, OUT> implements TcpConnection<IN
 	}
 
 	/**
-	 * Get the {@code System.currentTimeMillis()} this connection was created.
+	 * Get the {@link Clock#currentTimeMillis() time} this connection was created.
 	 *
 	 * @return creation time
 	 */
@@ -0,0 +1,84 @@
+/*
+ * Copyright (c) 2011-2013 GoPivotal, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package reactor.tcp.encoding;
+
+import reactor.function.Consumer;
+import reactor.function.Function;
+import reactor.io.Buffer;
+import reactor.io.CodecRegistry;
+import reactor.util.Assert;
+
+/**
+ * A {@link Codec} that encodes and decodes objects in the compact binary form of a {@link CodecRegistry}. Each {@link
+ * Buffer} passed to the decoder must hold exactly one object, so on a stream this codec is typically the delegate of a
+ * {@link LengthFieldCodec}:
+ * <pre>
+ * new LengthFieldCodec&lt;Event&lt;?&gt;, Event&lt;?&gt;&gt;(new BinaryCodec&lt;Event&lt;?&gt;, Event&lt;?&gt;&gt;(registry))
+ * </pre>
+ *
+ * @param <IN>
+ * 		The type that will be produced by decoding
+ * @param <OUT>
+ * 		The type that will be consumed by encoding
+ */
+public class BinaryCodec<IN, OUT> implements Codec<Buffer, IN, OUT> {
+
+	private final Function<OUT, Buffer> encoder;
+	private final Function<Buffer, IN>  decoder;
+
+	/**
+	 * Create a new {@literal BinaryCodec} that knows about the built-in types of a {@link CodecRegistry}. It doesn't
+	 * fall back to Java serialization, so a peer can't make it create objects of arbitrary classes.
+	 */
+	public BinaryCodec() {
+		this(new CodecRegistry(false));
+	}
+
+	/**
+	 * Create a new {@literal BinaryCodec} that uses the given {@link CodecRegistry}.
+	 *
+	 * @param registry The {@link CodecRegistry} to encode and decode with.
+	 */
+	public BinaryCodec(CodecRegistry registry) {
+		Assert.notNull(registry, "CodecRegistry cannot be null.");
+		this.encoder = registry.encoder();
+		this.decoder = registry.decoder();
+	}
+
+	@Override
+	public Function<Buffer, IN> decoder(final Consumer<IN> next) {
+		return new Function<Buffer, IN>() {
+			@Override
+			public IN apply(Buffer buffer) {
+				IN in = decoder.apply(buffer);
+				if (null != next) {
+					next.accept(in);
+					return null;
+				} else {
+					return in;
+				}
+			}
+		};
+	}
+
+	@Override
+	public Function<OUT, Buffer> encoder() {
+		return encoder;
+	}
+
+}
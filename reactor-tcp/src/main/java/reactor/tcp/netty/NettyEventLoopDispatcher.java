@@ -18,7 +18,7 @@ package reactor.tcp.netty;
 
 import io.netty.channel.EventLoop;
 import reactor.cache.Cache;
-import reactor.cache.LoadingCache;
+import reactor.cache.ObjectPool;
 import reactor.event.Event;
 import reactor.event.dispatch.BaseLifecycleDispatcher;
 import reactor.function.Supplier;
@@ -45,7 +45,7 @@ public class NettyEventLoopDispatcher extends BaseLifecycleDispatcher {
 	 */
 	public NettyEventLoopDispatcher(EventLoop eventLoop, int backlog) {
 		this.eventLoop = eventLoop;
-		this.readyTasks = new LoadingCache<Task>(
+		this.readyTasks = new ObjectPool<Task>(
 				new Supplier<Task>() {
 					@Override
 					public Task get() {
@@ -53,7 +53,7 @@ public class NettyEventLoopDispatcher extends BaseLifecycleDispatcher {
 					}
 				},
 				backlog,
-				150L
+				backlog
 		);
 	}
 
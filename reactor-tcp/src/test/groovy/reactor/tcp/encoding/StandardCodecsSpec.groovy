@@ -138,4 +138,20 @@ class StandardCodecsSpec extends Specification {
 		host == "mymachine"
 	}
 
+	def "BinaryCodec can encode and decode length-prefixed objects"() {
+		given: "a length-field framed BinaryCodec"
+		def codec = new LengthFieldCodec<Object, Object>(new BinaryCodec<Object, Object>())
+		def decoded = []
+
+		when: "objects are encoded into one Buffer"
+		def encoder = codec.encoder()
+		def buff = new Buffer().append(encoder.apply([a: 1L]), encoder.apply("Hello World!")).flip()
+
+		and: "the Buffer is decoded"
+		codec.decoder({ decoded << it } as Consumer<Object>).apply(buff)
+
+		then: "the objects were decoded"
+		decoded == [[a: 1L], "Hello World!"]
+	}
+
 }